@@ -0,0 +1,34 @@
+package com.hamza.filmmanagement.config;
+
+import com.hamza.filmmanagement.entities.IdGenerators;
+import com.hamza.filmmanagement.repositories.IdBlockRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Migration des identifiants au démarrage : avant le premier INSERT, chaque compteur de la table id_generator
+// est créé ou avancé au-delà du plus grand id existant de sa table. Couvre les bases créées avec IDENTITY
+// (les colonnes AUTO_INCREMENT existantes sont conservées, Hibernate fournit simplement l'id) et toute ligne
+// insérée à la main sans passer par le compteur. Sans effet sur une base déjà alignée.
+@Component
+public class IdGeneratorInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorInitializer.class);
+
+    private final IdBlockRepository idBlockRepository;
+
+    // L'EntityManagerFactory n'est demandée que pour que le schéma (table id_generator comprise) soit à jour avant l'alignement
+    public IdGeneratorInitializer(IdBlockRepository idBlockRepository, EntityManagerFactory entityManagerFactory) {
+        this.idBlockRepository = idBlockRepository;
+    }
+
+    @PostConstruct
+    public void alignCounters() {
+        for (String table : IdGenerators.ALL) {
+            long next = idBlockRepository.alignWithTable(table);
+            log.debug("Id generator for {} aligned at {}", table, next);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.hamza.filmmanagement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.jdbc.init.DataSourceScriptDatabaseInitializer;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+// Préparation des données existantes AVANT la mise à jour du schéma par Hibernate (ddl-auto=update).
+// Une contrainte unique ajoutée à une entité ne peut être créée que si la table ne contient déjà plus de doublons :
+// chaque étape supprime (ou fusionne) ces doublons. Déclaré comme initialiseur de base de données Spring Boot,
+// il s'exécute avant la création de l'EntityManagerFactory. Sans effet sur une base neuve ou déjà propre.
+@Component
+public class SchemaUpgradeInitializer extends DataSourceScriptDatabaseInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaUpgradeInitializer.class);
+
+    // uk_rating_user_film : on garde le vote le plus récent (plus grand id) de chaque utilisateur pour chaque film.
+    // La table dérivée "stale" permet à MySQL de supprimer dans la table qu'il lit.
+    private static final String DEDUPE_RATINGS =
+            "DELETE FROM rating WHERE id IN (SELECT id FROM (" +
+            "SELECT r.id FROM rating r JOIN rating newer " +
+            "ON newer.user_id = r.user_id AND newer.film_id = r.film_id AND newer.id > r.id) stale)";
+
+    // uk_actor_natural_key / uk_director_natural_key : chaque doublon est associé à la personne de plus petit id
+    // ayant la même clé naturelle. L'égalité SQL suit la collation de la base (casse et accents ignorés sous MySQL),
+    // exactement comme l'index unique qui sera créé.
+    private static final String PERSON_DUPLICATES =
+            "SELECT p.id AS duplicate_id, MIN(k.id) AS keeper_id FROM %s p JOIN %s k " +
+            "ON k.first_name = p.first_name AND k.last_name = p.last_name AND k.nationality = p.nationality AND k.id < p.id " +
+            "GROUP BY p.id";
+
+    // Un film qui cite déjà l'acteur conservé perd simplement le lien vers le doublon
+    private static final String DROP_SHADOWED_FILM_ACTORS =
+            "DELETE FROM film_actor WHERE actor_id = ? AND film_id IN (SELECT film_id FROM (" +
+            "SELECT film_id FROM film_actor WHERE actor_id = ?) kept)";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaUpgradeInitializer(DataSource dataSource) {
+        super(dataSource, new DatabaseInitializationSettings());
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public boolean initializeDatabase() {
+        if (tableExists("rating")) {
+            int removed = jdbcTemplate.update(DEDUPE_RATINGS);
+            if (removed > 0) {
+                // Les agrégats des films comptaient ces votes : la réconciliation planifiée les recalcule
+                log.warn("Removed {} duplicate ratings before adding uk_rating_user_film", removed);
+            }
+        }
+        if (tableExists("actor")) {
+            mergeDuplicatePeople("actor", (duplicate, keeper) -> {
+                if (tableExists("film_actor")) {
+                    jdbcTemplate.update(DROP_SHADOWED_FILM_ACTORS, duplicate, keeper);
+                    jdbcTemplate.update("UPDATE film_actor SET actor_id = ? WHERE actor_id = ?", keeper, duplicate);
+                }
+            });
+        }
+        if (tableExists("director")) {
+            mergeDuplicatePeople("director", (duplicate, keeper) -> {
+                if (tableExists("film")) {
+                    jdbcTemplate.update("UPDATE film SET director_id = ? WHERE director_id = ?", keeper, duplicate);
+                }
+            });
+        }
+        return true;
+    }
+
+    // Reporte les références de chaque doublon sur la personne conservée, puis supprime le doublon
+    private void mergeDuplicatePeople(String table, BiConsumer<Long, Long> repointReferences) {
+        List<Map<String, Object>> duplicates = jdbcTemplate.queryForList(PERSON_DUPLICATES.formatted(table, table));
+        for (Map<String, Object> row : duplicates) {
+            long duplicate = ((Number) row.get("duplicate_id")).longValue();
+            long keeper = ((Number) row.get("keeper_id")).longValue();
+            repointReferences.accept(duplicate, keeper);
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE id = ?", duplicate);
+        }
+        if (!duplicates.isEmpty()) {
+            // L'autocomplétion est rechargée au démarrage ; l'index des films ne contient que les noms, inchangés
+            log.warn("Merged {} duplicate rows of {} before adding its natural key constraint", duplicates.size(), table);
+        }
+    }
+
+    private boolean tableExists(String table) {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // Casse des noms selon la base : minuscules pour MySQL, majuscules pour H2
+            for (String name : new String[]{table, table.toUpperCase()}) {
+                try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, name, new String[]{"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read the database schema", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.hamza.filmmanagement.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.hamza.filmmanagement.entities.CacheRegions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Cache de second niveau Hibernate (JCache / Caffeine, en mémoire sur chaque nœud).
+// Les régions (CacheRegions) sont créées ici, avec leur taille maximale et leur durée de vie lues dans la configuration :
+//   film.cache.<région>.max-entries et film.cache.<région>.ttl (ex : film.cache.actor.ttl=1h)
+// Hibernate reçoit ce CacheManager au lieu d'en créer un avec la configuration par défaut de Caffeine.
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    // Valeurs par défaut : taille maximale et durée de vie (null = pas d'expiration)
+    private record RegionDefaults(long maxEntries, Duration ttl) {
+    }
+
+    private static final Map<String, RegionDefaults> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put(CacheRegions.ACTOR, new RegionDefaults(50_000L, Duration.ofHours(1)));
+        DEFAULTS.put(CacheRegions.DIRECTOR, new RegionDefaults(20_000L, Duration.ofHours(1)));
+        DEFAULTS.put(CacheRegions.ROLE, new RegionDefaults(100L, Duration.ofHours(12)));
+        DEFAULTS.put(CacheRegions.FILM_ACTORS, new RegionDefaults(100_000L, Duration.ofMinutes(30)));
+        DEFAULTS.put(CacheRegions.PERSON_QUERIES, new RegionDefaults(1_000L, Duration.ofMinutes(10)));
+        DEFAULTS.put(CacheRegions.DEFAULT_QUERIES, new RegionDefaults(1_000L, Duration.ofMinutes(10)));
+        // Horodatage des dernières écritures par table : ne doit jamais expirer avant les résultats de requêtes
+        DEFAULTS.put(CacheRegions.UPDATE_TIMESTAMPS, new RegionDefaults(10_000L, null));
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // Un CacheManager propre à ce contexte (URI unique) : deux contextes Spring dans la même JVM (tests)
+        // ne partagent ni leurs régions ni leurs entrées, et la fermeture de l'un ne touche pas l'autre
+        URI uri = URI.create("urn:filmmanagement:hibernate-cache:" + UUID.randomUUID());
+        CacheManager cacheManager = provider.getCacheManager(uri, getClass().getClassLoader());
+        DEFAULTS.forEach((region, defaults) -> {
+            long maxEntries = environment.getProperty("film.cache." + region + ".max-entries", Long.class, defaults.maxEntries());
+            Duration ttl = environment.getProperty("film.cache." + region + ".ttl", Duration.class, defaults.ttl());
+
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+            configuration.setExpireAfterWrite(ttl == null ? OptionalLong.empty() : OptionalLong.of(ttl.toNanos()));
+            // Compteurs de succès / échecs par région (exposés aussi par les statistiques Hibernate)
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+    }
+}
@@ -1,16 +1,20 @@
 package com.hamza.filmmanagement.config;
 
 
+import com.hamza.filmmanagement.security.BoundedPasswordEncoder;
 import com.hamza.filmmanagement.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -35,21 +39,33 @@ public class SecurityConfig {
     // Service utilisé pour charger les détails de l'utilisateur à partir de la base de données
     private final UserDetailsService userDetailsService;
 
+    // Même bean (UserDetailsServiceImpl) : enregistre le nouveau hash quand le coût BCrypt a changé
+    private final UserDetailsPasswordService userDetailsPasswordService;
+
     // Bean pour encoder les mots de passe (ici avec BCrypt)
-    // Utilisé pour la comparaison lors de l'authentification
+    // Utilisé pour la comparaison lors de l'authentification.
+    // Le hachage tourne sur un pool borné (voir BoundedPasswordEncoder) et non sur les threads Tomcat.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${film.security.password.bcrypt-cost:10}") int cost,
+                                           @Value("${film.security.password.threads:0}") int threads,
+                                           @Value("${film.security.password.queue-capacity:32}") int queueCapacity,
+                                           @Value("${film.security.password.max-wait-ms:2000}") long maxWaitMs) {
+        // 0 = un thread par cœur
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(cost, poolSize, queueCapacity, maxWaitMs, meterRegistry);
     }
 
     // Bean qui fournit un AuthenticationManager avec un DaoAuthenticationProvider
     // Ce provider utilise notre UserDetailsService et PasswordEncoder pour l’authentification
     @Bean
-    public AuthenticationManager authenticationManager() {
+    public AuthenticationManager authenticationManager(PasswordEncoder passwordEncoder) {
         // Fournisseur d'authentification basé sur les données de la base (DAO)
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService); // Injecte le UserDetailsService
-        authProvider.setPasswordEncoder(passwordEncoder());     // Définit l’encodeur de mot de passe
+        authProvider.setPasswordEncoder(passwordEncoder);       // Définit l’encodeur de mot de passe
+        // Connexion réussie avec un hash d'un autre coût : le mot de passe est haché à nouveau et enregistré
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
 
         // Retourne un AuthenticationManager basé sur ce provider
         return new ProviderManager(authProvider);
@@ -67,7 +83,19 @@ public class SecurityConfig {
                         // Autorise librement l’accès aux routes d’authentification (login, register, etc.)
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/uploads/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/posters/**").permitAll()
+                        // HEAD : taille et validateurs d'une affiche sans son contenu (ex : avant une reprise par Range)
+                        .requestMatchers(HttpMethod.HEAD, "/posters/**").permitAll()
                         .requestMatchers("/admin/films").permitAll()
+                        // Recherche plein texte ouverte à tous en lecture
+                        .requestMatchers(HttpMethod.GET, "/films/search").permitAll()
+                        // Filtrage à facettes du catalogue, ouvert en lecture comme la liste des films
+                        .requestMatchers(HttpMethod.GET, "/admin/films/query").permitAll()
+                        // Classements de la page d'accueil
+                        .requestMatchers(HttpMethod.GET, "/films/top-rated", "/films/most-rated").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/films/*/related").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
                         // Restreint l’accès aux routes d’administration aux utilisateurs avec le rôle ADMIN
                         .requestMatchers("/admin/**").hasAuthority("ROLE_ADMIN")
 
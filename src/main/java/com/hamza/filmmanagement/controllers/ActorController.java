@@ -2,14 +2,28 @@ package com.hamza.filmmanagement.controllers;
 
 import com.hamza.filmmanagement.dto.ActorRequest;
 import com.hamza.filmmanagement.dto.ApiResponse;
+import com.hamza.filmmanagement.dto.BulkUpsertResult;
+import com.hamza.filmmanagement.dto.CursorPage;
+import com.hamza.filmmanagement.dto.NameSuggestion;
+import com.hamza.filmmanagement.dto.ResourceVersion;
 import com.hamza.filmmanagement.entities.Actor;
+import com.hamza.filmmanagement.events.PersonChangedEvent;
+import com.hamza.filmmanagement.repositories.PersonBatchRepository.PersonKey;
 import com.hamza.filmmanagement.services.ActorService;
+import com.hamza.filmmanagement.services.NameAutocompleteService;
+import com.hamza.filmmanagement.services.PersonBulkService;
+import com.hamza.filmmanagement.services.ResourceVersionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 // Annotation qui indique que cette classe est un contrôleur REST (elle renvoie des objets directement en JSON)
 @RestController
@@ -21,9 +35,22 @@ public class ActorController {
     // Injection du service métier qui contient la logique pour manipuler les acteurs (enregistrer, modifier, supprimer, etc.)
     private final ActorService actorService;
 
+    // Service d'autocomplétion des noms (index en mémoire)
+    private final NameAutocompleteService nameAutocompleteService;
+
+    // Upsert en masse (synchronisation de distributions entières en une requête)
+    private final PersonBulkService personBulkService;
+
+    // ETag de la liste et des fiches (requêtes conditionnelles, réponses 304)
+    private final ResourceVersionService resourceVersionService;
+
     // Constructeur avec injection automatique par Spring (grâce à @RestController ou @Component, etc.)
-    public ActorController(ActorService actorService) {
+    public ActorController(ActorService actorService, NameAutocompleteService nameAutocompleteService,
+                           PersonBulkService personBulkService, ResourceVersionService resourceVersionService) {
         this.actorService = actorService;
+        this.nameAutocompleteService = nameAutocompleteService;
+        this.personBulkService = personBulkService;
+        this.resourceVersionService = resourceVersionService;
     }
 
     // Route HTTP POST pour ajouter un nouvel acteur
@@ -42,6 +69,24 @@ public class ActorController {
         return ResponseEntity.ok(new ApiResponse<>("Actor added successfully", HttpStatus.OK.value()));
     }
 
+    // Route HTTP POST d'upsert en masse : tableau JSON d'acteurs. Les acteurs déjà connus (même prénom, nom
+    // et nationalité) ne sont pas recréés ; la réponse donne l'id de chaque élément dans l'ordre d'envoi.
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkUpsertResult> bulkUpsertActors(@RequestBody List<ActorRequest> requests) {
+        return ResponseEntity.ok(personBulkService.upsert(PersonChangedEvent.Kind.ACTOR, requests.iterator(), ActorController::toKey));
+    }
+
+    // Même route pour un flux NDJSON (un acteur par ligne), lu au fil de l'eau
+    @PostMapping(value = "/bulk", consumes = PersonBulkService.NDJSON)
+    public ResponseEntity<BulkUpsertResult> bulkUpsertActorsStream(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(personBulkService.upsert(PersonChangedEvent.Kind.ACTOR,
+                personBulkService.readNdjson(request.getInputStream(), ActorRequest.class), ActorController::toKey));
+    }
+
+    private static PersonKey toKey(ActorRequest request) {
+        return new PersonKey(request.getFirstName(), request.getLastName(), request.getNationality());
+    }
+
     // Route HTTP PUT pour modifier un acteur existant (basé sur son id)
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<String>> updateActor(@PathVariable Long id,@Valid @RequestBody ActorRequest request) {
@@ -70,15 +115,44 @@ public class ActorController {
 
     // Route HTTP GET pour récupérer tous les acteurs de la base
     @GetMapping
-    public ResponseEntity<List<Actor>> getAllActors() {
+    public ResponseEntity<List<Actor>> getAllActors(WebRequest webRequest) {
+        // Liste inchangée depuis la dernière lecture du client (If-None-Match) : 304 sans lire les acteurs
+        ResourceVersion version = resourceVersionService.actors();
+        if (version.isNotModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(resourceVersionService.privateResource()).build();
+        }
         // On récupère la liste des acteurs depuis le service, et on la retourne directement
-        return ResponseEntity.ok(actorService.getAllActors());
+        return ResponseEntity.ok().cacheControl(resourceVersionService.privateResource()).body(actorService.getAllActors());
+    }
+
+    // Route HTTP GET paginée par curseur, utilisée dès que le paramètre `limit` est présent
+    // `after` est le curseur `nextCursor` renvoyé par la page précédente
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<Actor>> getActorsPage(@RequestParam Integer limit,
+                                                           @RequestParam(required = false) String after,
+                                                           WebRequest webRequest) {
+        ResourceVersion version = resourceVersionService.actors();
+        if (version.isNotModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(resourceVersionService.privateResource()).build();
+        }
+        return ResponseEntity.ok().cacheControl(resourceVersionService.privateResource()).body(actorService.getActorsPage(after, limit));
+    }
+
+    // Route HTTP GET d'autocomplétion : acteurs dont le prénom ou le nom commence par `q` (sans tenir compte des accents)
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<NameSuggestion>> autocompleteActors(@RequestParam String q,
+                                                                   @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(nameAutocompleteService.suggestActors(q, limit));
     }
 
     @GetMapping("/{id}")
-    public Actor getActorById(@PathVariable Long id) {
+    public ResponseEntity<Actor> getActorById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<ResourceVersion> version = resourceVersionService.actor(id);
+        if (version.isPresent() && version.get().isNotModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(resourceVersionService.privateResource()).build();
+        }
         Actor actor = actorService.getActorById(id);
-        return actor;
+        return ResponseEntity.ok().cacheControl(resourceVersionService.privateResource()).body(actor);
 
     }
 }
@@ -1,25 +1,46 @@
 package com.hamza.filmmanagement.controllers;
 
 import com.hamza.filmmanagement.dto.ApiResponse;
+import com.hamza.filmmanagement.dto.BulkUpsertResult;
+import com.hamza.filmmanagement.dto.CursorPage;
+import com.hamza.filmmanagement.dto.NameSuggestion;
+import com.hamza.filmmanagement.dto.ResourceVersion;
 import com.hamza.filmmanagement.dto.DirectorRequest;
 import com.hamza.filmmanagement.entities.Actor;
 import com.hamza.filmmanagement.entities.Director;
+import com.hamza.filmmanagement.events.PersonChangedEvent;
+import com.hamza.filmmanagement.repositories.PersonBatchRepository.PersonKey;
 import com.hamza.filmmanagement.services.DirectorService;
+import com.hamza.filmmanagement.services.NameAutocompleteService;
+import com.hamza.filmmanagement.services.PersonBulkService;
+import com.hamza.filmmanagement.services.ResourceVersionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/admin/directors")
 public class DirectorController {
 
     private final DirectorService directorService;
+    private final NameAutocompleteService nameAutocompleteService;
+    private final PersonBulkService personBulkService;
+    private final ResourceVersionService resourceVersionService;
 
-    public DirectorController(DirectorService directorService) {
+    public DirectorController(DirectorService directorService, NameAutocompleteService nameAutocompleteService,
+                              PersonBulkService personBulkService, ResourceVersionService resourceVersionService) {
         this.directorService = directorService;
+        this.nameAutocompleteService = nameAutocompleteService;
+        this.personBulkService = personBulkService;
+        this.resourceVersionService = resourceVersionService;
     }
 
     // Add a new director
@@ -33,6 +54,23 @@ public class DirectorController {
         return ResponseEntity.ok(new ApiResponse<>("Director added successfuly", HttpStatus.OK.value()));
     }
 
+    // Bulk upsert on (first name, last name, nationality): JSON array or NDJSON stream,
+    // returns one id per element in input order
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkUpsertResult> bulkUpsertDirectors(@RequestBody List<DirectorRequest> requests) {
+        return ResponseEntity.ok(personBulkService.upsert(PersonChangedEvent.Kind.DIRECTOR, requests.iterator(), DirectorController::toKey));
+    }
+
+    @PostMapping(value = "/bulk", consumes = PersonBulkService.NDJSON)
+    public ResponseEntity<BulkUpsertResult> bulkUpsertDirectorsStream(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(personBulkService.upsert(PersonChangedEvent.Kind.DIRECTOR,
+                personBulkService.readNdjson(request.getInputStream(), DirectorRequest.class), DirectorController::toKey));
+    }
+
+    private static PersonKey toKey(DirectorRequest request) {
+        return new PersonKey(request.getFirstName(), request.getLastName(), request.getNationality());
+    }
+
     // Update a director
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<String>>  updateDirector(@PathVariable Long id,@Valid @RequestBody DirectorRequest request) {
@@ -53,14 +91,42 @@ public class DirectorController {
 
     // Get all directors
     @GetMapping
-    public ResponseEntity<List<Director>> getAllDirectors() {
-        return ResponseEntity.ok(directorService.getAllDirectors());
+    public ResponseEntity<List<Director>> getAllDirectors(WebRequest webRequest) {
+        // 304 sans lire les réalisateurs si le client a déjà la version courante de la liste
+        ResourceVersion version = resourceVersionService.directors();
+        if (version.isNotModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(resourceVersionService.privateResource()).build();
+        }
+        return ResponseEntity.ok().cacheControl(resourceVersionService.privateResource()).body(directorService.getAllDirectors());
+    }
+
+    // Get a page of directors by cursor (used when `limit` is present)
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<Director>> getDirectorsPage(@RequestParam Integer limit,
+                                                                 @RequestParam(required = false) String after,
+                                                                 WebRequest webRequest) {
+        ResourceVersion version = resourceVersionService.directors();
+        if (version.isNotModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(resourceVersionService.privateResource()).build();
+        }
+        return ResponseEntity.ok().cacheControl(resourceVersionService.privateResource()).body(directorService.getDirectorsPage(after, limit));
+    }
+
+    // Autocomplete directors whose first or last name starts with `q` (case and accent insensitive)
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<NameSuggestion>> autocompleteDirectors(@RequestParam String q,
+                                                                      @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(nameAutocompleteService.suggestDirectors(q, limit));
     }
 
     // Get director by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Director> getDirectorById(@PathVariable Long id) {
-        return ResponseEntity.ok(directorService.getDirectorById(id));
+    public ResponseEntity<Director> getDirectorById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<ResourceVersion> version = resourceVersionService.director(id);
+        if (version.isPresent() && version.get().isNotModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(resourceVersionService.privateResource()).build();
+        }
+        return ResponseEntity.ok().cacheControl(resourceVersionService.privateResource()).body(directorService.getDirectorById(id));
     }
 
 }
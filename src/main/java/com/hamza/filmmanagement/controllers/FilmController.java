@@ -2,17 +2,34 @@ package com.hamza.filmmanagement.controllers;
 
 import com.hamza.filmmanagement.dto.ApiResponse;
 import com.hamza.filmmanagement.dto.CreateFilmRequest;
+import com.hamza.filmmanagement.dto.ExportFormat;
+import com.hamza.filmmanagement.dto.FilmDetail;
+import com.hamza.filmmanagement.dto.FilmImportReport;
+import com.hamza.filmmanagement.dto.FilmQueryFilter;
+import com.hamza.filmmanagement.dto.FilmQueryResult;
+import com.hamza.filmmanagement.dto.ResourceVersion;
 import com.hamza.filmmanagement.dto.UpdateFilmRequest;
 import com.hamza.filmmanagement.entities.Film;
 import com.hamza.filmmanagement.services.ActorService;
+import com.hamza.filmmanagement.services.CatalogSnapshotService;
+import com.hamza.filmmanagement.services.FilmExportService;
+import com.hamza.filmmanagement.services.FilmImportService;
 import com.hamza.filmmanagement.services.FilmService;
+import com.hamza.filmmanagement.services.ResourceVersionService;
+import com.hamza.filmmanagement.snapshot.EncodedBody;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 // Indique que cette classe est un contrôleur REST (retourne des objets JSON au lieu de vues HTML)
 @RestController
 
@@ -26,10 +43,28 @@ public class FilmController {
     // Dépendance vers le service métier des acteurs (utilisé indirectement si besoin)
     private final ActorService actorService;
 
+    // Service d'export en flux du catalogue
+    private final FilmExportService filmExportService;
+
+    // Service d'import en masse (fichier NDJSON ou CSV)
+    private final FilmImportService filmImportService;
+
+    // ETag des listes et des fiches (requêtes conditionnelles, réponses 304)
+    private final ResourceVersionService resourceVersionService;
+
+    // Liste publique déjà sérialisée (JSON brut et gzip)
+    private final CatalogSnapshotService catalogSnapshotService;
+
     // Injection des dépendances via constructeur (pratique recommandée pour testabilité)
-    public FilmController(FilmService filmService, ActorService actorService) {
+    public FilmController(FilmService filmService, ActorService actorService, FilmExportService filmExportService,
+                          FilmImportService filmImportService, ResourceVersionService resourceVersionService,
+                          CatalogSnapshotService catalogSnapshotService) {
         this.filmService = filmService;
         this.actorService = actorService;
+        this.filmExportService = filmExportService;
+        this.filmImportService = filmImportService;
+        this.resourceVersionService = resourceVersionService;
+        this.catalogSnapshotService = catalogSnapshotService;
     }
 
     // === Ajouter un nouveau film ===
@@ -79,22 +114,115 @@ public class FilmController {
     }
 
     // === Récupérer tous les films ===
+    // Liste publique interrogée en boucle par les frontends : servie depuis la photographie sérialisée du catalogue
+    // quand elle est prête, sinon lue en base. Dans les deux cas, si l'ETag envoyé (If-None-Match) est toujours
+    // le bon, réponse 304 sans lire les films
     @GetMapping
-    public ResponseEntity<List<Film>> getAllFilms() {
+    public ResponseEntity<?> getAllFilms(WebRequest webRequest) {
+        EncodedBody snapshot = catalogSnapshotService.listing();
+        if (snapshot != null) {
+            return serveSnapshot(snapshot, webRequest);
+        }
+
+        ResourceVersion version = resourceVersionService.films();
+        if (version.isNotModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(resourceVersionService.publicListing()).build();
+        }
+
         // Appel au service pour récupérer la liste complète des films
         List<Film> films = filmService.getAllFilms();
 
         // Retour de la liste avec un code 200 OK
-        return ResponseEntity.ok(films);
+        return ResponseEntity.ok().cacheControl(resourceVersionService.publicListing()).body(films);
+    }
+
+    // === Récupérer une page de films par curseur ===
+    // Sélectionnée dès que le paramètre `limit` est présent, ex : /admin/films?limit=20&sort=title&after=...
+    // `sort` accepte id, title ou releaseDate ; `after` est le curseur `nextCursor` de la page précédente
+    @GetMapping(params = "limit")
+    // Même ETag que la liste complète : une page ne change que si le catalogue change
+    public ResponseEntity<?> getFilmsPage(@RequestParam Integer limit,
+                                                         @RequestParam(defaultValue = "id") String sort,
+                                                         @RequestParam(required = false) String after,
+                                                         WebRequest webRequest) {
+        EncodedBody snapshot = catalogSnapshotService.page(sort, after, limit);
+        if (snapshot != null) {
+            return serveSnapshot(snapshot, webRequest);
+        }
+
+        ResourceVersion version = resourceVersionService.films();
+        if (version.isNotModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(resourceVersionService.publicListing()).build();
+        }
+        return ResponseEntity.ok().cacheControl(resourceVersionService.publicListing())
+                .body(filmService.getFilmsPage(sort, after, limit));
+    }
+
+    // Écrit un corps précalculé tel quel, compressé si le client accepte gzip
+    private ResponseEntity<byte[]> serveSnapshot(EncodedBody snapshot, WebRequest webRequest) {
+        boolean gzip = EncodedBody.acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (webRequest.checkNotModified(snapshot.etag(gzip))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(resourceVersionService.publicListing())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(resourceVersionService.publicListing())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(snapshot.body(gzip));
+    }
+
+    // === Filtrer les films avec compteurs de facettes ===
+    // ex : /admin/films/query?releasedFrom=2000-01-01&directorNationality=French&actorId=3&page=0&size=20
+    // Réponse : la page de films + le nombre de films par année, nationalité du réalisateur et réalisateur
+    @GetMapping("/query")
+    public ResponseEntity<FilmQueryResult> queryFilms(@ModelAttribute FilmQueryFilter filter,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(filmService.queryFilms(filter, page, size));
+    }
+
+    // === Exporter tout le catalogue en NDJSON ou CSV ===
+    // Les lignes sont écrites dans la réponse au fur et à mesure de la lecture en base, ex : /admin/films/export?format=csv
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportFilms(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        StreamingResponseBody body = out -> filmExportService.export(exportFormat, out);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=films." + exportFormat.getExtension())
+                .body(body);
+    }
+
+    // === Importer un catalogue de films en NDJSON ou CSV ===
+    // Le corps brut de la requête est lu en flux (pas de multipart : le fichier n'est jamais chargé en entier),
+    // ex : POST /admin/films/import?format=csv. Renvoie le bilan de l'import avec les lignes rejetées.
+    @PostMapping("/import")
+    public ResponseEntity<FilmImportReport> importFilms(@RequestParam(defaultValue = "ndjson") String format,
+                                                        HttpServletRequest request) throws IOException {
+        ExportFormat importFormat = ExportFormat.fromParam(format);
+        return ResponseEntity.ok(filmImportService.importFilms(importFormat, request.getInputStream()));
     }
 
     // === Récupérer un film par son ID ===
     @GetMapping("/{id}")
-    public ResponseEntity<Film> getFilmById(@PathVariable Long id) {
-        // Appel au service pour chercher le film correspondant
-        Film film = filmService.getFilmById(id);
-
-        // Retourne l'objet Film trouvé (ou lève une exception si non trouvé dans le service)
-        return ResponseEntity.ok(film);
+    public ResponseEntity<FilmDetail> getFilmById(@PathVariable Long id, WebRequest webRequest) {
+        // Fiche inchangée depuis la dernière lecture du client : 304 sans charger le film
+        Optional<ResourceVersion> version = resourceVersionService.film(id);
+        if (version.isPresent() && version.get().isNotModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(resourceVersionService.privateResource()).build();
+        }
+
+        // Appel au service pour charger la fiche du film (réalisateur + acteurs en une requête)
+        FilmDetail film = filmService.getFilmDetail(id);
+
+        // Retourne la fiche trouvée (ou lève une exception si non trouvé dans le service)
+        return ResponseEntity.ok().cacheControl(resourceVersionService.privateResource()).body(film);
     }
 }
@@ -0,0 +1,35 @@
+package com.hamza.filmmanagement.controllers;
+
+import com.hamza.filmmanagement.dto.LeaderboardEntry;
+import com.hamza.filmmanagement.services.LeaderboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Classements publics des films, servis depuis la mémoire
+@RestController
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    // Films les mieux notés, ex : /films/top-rated?limit=10 ou /films/top-rated?year=1999
+    @GetMapping("/films/top-rated")
+    public ResponseEntity<List<LeaderboardEntry>> topRated(@RequestParam(required = false) Integer year,
+                                                           @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(leaderboardService.topRated(year, limit));
+    }
+
+    // Films ayant reçu le plus de votes, ex : /films/most-rated?limit=10 ou /films/most-rated?year=1999
+    @GetMapping("/films/most-rated")
+    public ResponseEntity<List<LeaderboardEntry>> mostRated(@RequestParam(required = false) Integer year,
+                                                            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(leaderboardService.mostRated(year, limit));
+    }
+}
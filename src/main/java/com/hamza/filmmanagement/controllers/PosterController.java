@@ -0,0 +1,65 @@
+package com.hamza.filmmanagement.controllers;
+
+import com.hamza.filmmanagement.dto.PosterVariant;
+import com.hamza.filmmanagement.posters.PosterFileSender;
+import com.hamza.filmmanagement.services.FileStorageService;
+import com.hamza.filmmanagement.services.PosterVariantService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Affiches des films, à la taille demandée : /posters/{fichier}?size=thumb|card|full (sans size : l'original).
+// Un fichier nommé d'après son contenu ne change jamais : cache d'un an, immutable, et ETag = empreinte.
+// Tant qu'une taille n'est pas encore générée, l'original est renvoyé sans cache (revalidé à chaque fois),
+// pour que la variante soit servie dès qu'elle existe. Les anciens noms (UUID) sont revalidés par ETag.
+@RestController
+public class PosterController {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final PosterVariantService posterVariantService;
+    private final PosterFileSender posterFileSender;
+
+    public PosterController(PosterVariantService posterVariantService, PosterFileSender posterFileSender) {
+        this.posterVariantService = posterVariantService;
+        this.posterFileSender = posterFileSender;
+    }
+
+    @GetMapping("/posters/{fileName:.+}")
+    public void getPoster(@PathVariable String fileName, @RequestParam(required = false) String size,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        PosterVariant variant = size == null ? null : PosterVariant.fromParam(size);
+        Path file = posterVariantService.resolve(fileName, variant);
+        String hash = FileStorageService.contentHash(fileName);
+
+        String etag;
+        CacheControl cacheControl;
+        if (hash == null) {
+            etag = "W/\"" + Files.size(file) + "-" + Files.getLastModifiedTime(file).toMillis() + "\"";
+            cacheControl = CacheControl.noCache();
+        } else if (file.getFileName().toString().equals(fileName)) {
+            etag = "\"" + hash + "\"";
+            cacheControl = variant == null ? IMMUTABLE : CacheControl.noCache();
+        } else {
+            etag = "\"" + hash + "-" + variant.getParam() + "\"";
+            cacheControl = IMMUTABLE;
+        }
+        posterFileSender.send(request, response, file, etag, cacheControl);
+    }
+
+    // Ancienne adresse des fichiers envoyés (film.poster), servie de la même manière, sans choix de taille
+    @GetMapping("/uploads/{fileName:.+}")
+    public void getUpload(@PathVariable String fileName,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        getPoster(fileName, null, request, response);
+    }
+}
@@ -0,0 +1,52 @@
+package com.hamza.filmmanagement.controllers;
+
+import com.hamza.filmmanagement.dto.ApiResponse;
+import com.hamza.filmmanagement.dto.RatingRequest;
+import com.hamza.filmmanagement.services.RatingIngestionService;
+import com.hamza.filmmanagement.services.RatingService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+// Contrôleur des notes de films
+@RestController
+public class RatingController {
+
+    private final RatingService ratingService;
+    private final RatingIngestionService ratingIngestionService;
+
+    public RatingController(RatingService ratingService, RatingIngestionService ratingIngestionService) {
+        this.ratingService = ratingService;
+        this.ratingIngestionService = ratingIngestionService;
+    }
+
+    // Noter un film en tant qu'utilisateur connecté, ex : POST /films/12/ratings {"score": 4}
+    // Le vote est mis en file et écrit en différé : 202 Accepted, ou 429 si la file est pleine
+    @PostMapping("/films/{id}/ratings")
+    public ResponseEntity<ApiResponse<String>> rateFilm(@PathVariable Long id,
+                                                        @Valid @RequestBody RatingRequest request,
+                                                        Authentication authentication) {
+        ratingIngestionService.submit(authentication.getName(), id, request.getScore());
+        return ResponseEntity.accepted().body(new ApiResponse<>("Rating accepted", HttpStatus.ACCEPTED.value()));
+    }
+
+    // Retirer sa note (écriture immédiate)
+    @DeleteMapping("/films/{id}/ratings")
+    public ResponseEntity<ApiResponse<String>> removeRating(@PathVariable Long id, Authentication authentication) {
+        ratingService.removeRating(authentication.getName(), id);
+        return ResponseEntity.ok(new ApiResponse<>("Rating removed", HttpStatus.OK.value()));
+    }
+
+    // Recalcul immédiat des agrégats de notes de tous les films (réservé aux administrateurs)
+    @PostMapping("/admin/ratings/reconcile")
+    public ResponseEntity<ApiResponse<Long>> reconcileAggregates() {
+        long films = ratingService.reconcileAggregates();
+        return ResponseEntity.ok(new ApiResponse<>(films, "Rating aggregates reconciled", HttpStatus.OK.value()));
+    }
+}
@@ -0,0 +1,29 @@
+package com.hamza.filmmanagement.controllers;
+
+import com.hamza.filmmanagement.dto.RelatedFilm;
+import com.hamza.filmmanagement.services.RelatedFilmsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Films proches d'un film (acteurs et réalisateur en commun), servis depuis la mémoire
+@RestController
+public class RelatedFilmsController {
+
+    private final RelatedFilmsService relatedFilmsService;
+
+    public RelatedFilmsController(RelatedFilmsService relatedFilmsService) {
+        this.relatedFilmsService = relatedFilmsService;
+    }
+
+    // ex : /films/12/related?limit=10 ; liste vide si le film est inconnu ou n'a aucun voisin
+    @GetMapping("/films/{id}/related")
+    public ResponseEntity<List<RelatedFilm>> relatedFilms(@PathVariable Long id,
+                                                          @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(relatedFilmsService.relatedFilms(id, limit));
+    }
+}
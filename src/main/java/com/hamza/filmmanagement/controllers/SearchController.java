@@ -0,0 +1,38 @@
+package com.hamza.filmmanagement.controllers;
+
+import com.hamza.filmmanagement.dto.ApiResponse;
+import com.hamza.filmmanagement.dto.FilmSearchHit;
+import com.hamza.filmmanagement.dto.SearchResultPage;
+import com.hamza.filmmanagement.services.FilmSearchService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// Contrôleur de la recherche plein texte sur les films
+@RestController
+public class SearchController {
+
+    private final FilmSearchService filmSearchService;
+
+    public SearchController(FilmSearchService filmSearchService) {
+        this.filmSearchService = filmSearchService;
+    }
+
+    // Recherche publique, classée par pertinence, ex : /films/search?q=nolan&page=0&size=20
+    @GetMapping("/films/search")
+    public ResponseEntity<SearchResultPage<FilmSearchHit>> searchFilms(@RequestParam String q,
+                                                                       @RequestParam(defaultValue = "0") int page,
+                                                                       @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(filmSearchService.search(q, page, size));
+    }
+
+    // Reconstruction complète de l'index à partir de la base (réservée aux administrateurs)
+    @PostMapping("/admin/search/reindex")
+    public ResponseEntity<ApiResponse<Long>> rebuildIndex() {
+        long indexed = filmSearchService.rebuildIndex();
+        return ResponseEntity.ok(new ApiResponse<>(indexed, "Search index rebuilt", HttpStatus.OK.value()));
+    }
+}
@@ -0,0 +1,15 @@
+package com.hamza.filmmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Résultat d'un upsert en masse : un id par élément reçu, dans l'ordre d'envoi
+// (les doublons et les personnes déjà connues reçoivent l'id existant), et le nombre de lignes créées
+@Getter
+@AllArgsConstructor
+public class BulkUpsertResult {
+    private List<Long> ids;
+    private int created;
+}
@@ -0,0 +1,16 @@
+package com.hamza.filmmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Page renvoyée par les endpoints paginés par curseur (keyset).
+// `nextCursor` est null quand il n'y a plus d'éléments à lire.
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private int limit;
+}
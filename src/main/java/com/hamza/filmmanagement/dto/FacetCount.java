@@ -0,0 +1,13 @@
+package com.hamza.filmmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Une valeur de facette (année, nationalité, réalisateur...) et le nombre de films correspondants
+@Getter
+@AllArgsConstructor
+public class FacetCount {
+    private String value;
+    private String label;
+    private long count;
+}
@@ -0,0 +1,49 @@
+package com.hamza.filmmanagement.dto;
+
+import com.hamza.filmmanagement.entities.Film;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+// Réponse de la fiche d'un film : réalisateur et distribution uniquement.
+// Contrairement à l'entité Film, elle ne parcourt jamais les notes (ratings) ni les utilisateurs,
+// donc sa sérialisation ne déclenche aucun chargement paresseux supplémentaire.
+@Getter
+@AllArgsConstructor
+public class FilmDetail {
+    private Long id;
+    private String title;
+    private String description;
+    private String poster;
+    // Adresses des tailles de l'affiche (voir PosterVariant)
+    private Map<String, String> posterVariants;
+    private LocalDate releaseDate;
+    private PersonSummary director;
+    private List<PersonSummary> actors;
+    // Lus dans les colonnes agrégées du film, sans charger les notes
+    private Double averageRating;
+    private long ratingCount;
+
+    public static FilmDetail from(Film film) {
+        List<PersonSummary> actors = film.getActors().stream()
+                .map(PersonSummary::from)
+                .sorted(Comparator.comparing(PersonSummary::getId))
+                .toList();
+        return new FilmDetail(
+                film.getId(),
+                film.getTitle(),
+                film.getDescription(),
+                film.getPoster(),
+                film.getPosterVariants(),
+                film.getReleaseDate(),
+                film.getDirector() == null ? null : PersonSummary.from(film.getDirector()),
+                actors,
+                film.getAverageRating(),
+                film.getRatingCount()
+        );
+    }
+}
@@ -0,0 +1,46 @@
+package com.hamza.filmmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+// Ligne écrite dans l'export du catalogue (une ligne NDJSON ou CSV par film)
+@Getter
+@AllArgsConstructor
+public class FilmExportRow {
+    public static final String CSV_HEADER = "id,title,description,releaseDate,poster,directorId,directorFirstName,directorLastName";
+
+    private Long id;
+    private String title;
+    private String description;
+    private LocalDate releaseDate;
+    private String poster;
+    private Long directorId;
+    private String directorFirstName;
+    private String directorLastName;
+
+    public String toCsvLine() {
+        return String.join(",",
+                csv(id),
+                csv(title),
+                csv(description),
+                csv(releaseDate),
+                csv(poster),
+                csv(directorId),
+                csv(directorFirstName),
+                csv(directorLastName));
+    }
+
+    // Échappement CSV (RFC 4180) : on entoure de guillemets dès qu'un séparateur, un guillemet ou un retour à la ligne apparaît
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
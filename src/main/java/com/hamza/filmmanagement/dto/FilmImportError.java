@@ -0,0 +1,12 @@
+package com.hamza.filmmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Ligne du fichier d'import rejetée et raison du rejet (numéro de ligne de données, à partir de 1)
+@Getter
+@AllArgsConstructor
+public class FilmImportError {
+    private long row;
+    private String message;
+}
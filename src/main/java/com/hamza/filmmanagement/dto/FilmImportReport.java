@@ -0,0 +1,18 @@
+package com.hamza.filmmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Bilan d'un import : lignes lues, films créés, lignes rejetées avec leur raison.
+// La liste des erreurs est bornée ; errorsTruncated indique que certaines n'y figurent pas.
+@Getter
+@AllArgsConstructor
+public class FilmImportReport {
+    private long rows;
+    private long imported;
+    private long failed;
+    private List<FilmImportError> errors;
+    private boolean errorsTruncated;
+}
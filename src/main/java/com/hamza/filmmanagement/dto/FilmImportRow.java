@@ -0,0 +1,23 @@
+package com.hamza.filmmanagement.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Un film à importer (une ligne NDJSON ou CSV du fichier d'import).
+// Le réalisateur et les acteurs sont référencés par identifiant ; l'affiche est une URL http(s) ou le nom d'une affiche déjà stockée dans uploads/.
+@Getter
+@Setter
+public class FilmImportRow {
+    public static final String CSV_HEADER = "title,description,releaseDate,directorId,actorIds,poster";
+
+    private String title;
+    private String description;
+    private LocalDate releaseDate;
+    private Long directorId;
+    private List<Long> actorIds = new ArrayList<>();
+    private String poster;
+}
@@ -0,0 +1,25 @@
+package com.hamza.filmmanagement.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+// Critères de filtrage des films (tous optionnels), lus depuis les paramètres de la requête
+@Getter
+@Setter
+public class FilmQueryFilter {
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate releasedFrom;
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate releasedTo;
+
+    private Long directorId;
+
+    private String directorNationality;
+
+    private Long actorId;
+}
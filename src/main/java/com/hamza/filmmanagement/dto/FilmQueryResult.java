@@ -0,0 +1,19 @@
+package com.hamza.filmmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Réponse de la recherche filtrée : une page de films et les compteurs de facettes calculés sur le même filtre
+@Getter
+@AllArgsConstructor
+public class FilmQueryResult {
+    private List<FilmDetail> items;
+    private long total;
+    private int page;
+    private int size;
+    private List<FacetCount> years;
+    private List<FacetCount> nationalities;
+    private List<FacetCount> directors;
+}
@@ -0,0 +1,14 @@
+package com.hamza.filmmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Un résultat de recherche : les champs stockés dans l'index et le score de pertinence
+@Getter
+@AllArgsConstructor
+public class FilmSearchHit {
+    private Long id;
+    private String title;
+    private String releaseDate;
+    private float score;
+}
@@ -0,0 +1,20 @@
+package com.hamza.filmmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Une ligne de classement : construite une fois à chaque changement des notes du film, puis renvoyée telle quelle
+@Getter
+@AllArgsConstructor
+public class LeaderboardEntry {
+    private long filmId;
+    private String title;
+    private Integer releaseYear;
+    private double averageRating;
+    private long ratingCount;
+
+    public static LeaderboardEntry of(long filmId, String title, Integer releaseYear, long ratingCount, long ratingSum) {
+        double average = ratingCount == 0 ? 0 : (double) ratingSum / ratingCount;
+        return new LeaderboardEntry(filmId, title, releaseYear, average, ratingCount);
+    }
+}
@@ -0,0 +1,12 @@
+package com.hamza.filmmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Suggestion renvoyée par l'autocomplétion des noms d'acteurs et de réalisateurs
+@Getter
+@AllArgsConstructor
+public class NameSuggestion {
+    private Long id;
+    private String name;
+}
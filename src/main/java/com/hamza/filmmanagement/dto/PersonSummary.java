@@ -0,0 +1,24 @@
+package com.hamza.filmmanagement.dto;
+
+import com.hamza.filmmanagement.entities.Actor;
+import com.hamza.filmmanagement.entities.Director;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Vue réduite d'un acteur ou d'un réalisateur, utilisée dans les réponses sur les films
+@Getter
+@AllArgsConstructor
+public class PersonSummary {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String nationality;
+
+    public static PersonSummary from(Actor actor) {
+        return new PersonSummary(actor.getId(), actor.getFirstName(), actor.getLastName(), actor.getNationality());
+    }
+
+    public static PersonSummary from(Director director) {
+        return new PersonSummary(director.getId(), director.getFirstName(), director.getLastName(), director.getNationality());
+    }
+}
@@ -0,0 +1,59 @@
+package com.hamza.filmmanagement.dto;
+
+import com.hamza.filmmanagement.exceptions.film.InvalidPosterSizeException;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Tailles d'affiche générées en arrière-plan à partir de l'original (voir PosterVariantService).
+// Chaque variante est un JPEG de largeur fixe, rangé à côté de l'original : <empreinte>-<nom>.jpg
+public enum PosterVariant {
+    THUMB("thumb", 160),
+    CARD("card", 400),
+    FULL("full", 1200);
+
+    private final String param;
+    private final int width;
+
+    PosterVariant(String param, int width) {
+        this.param = param;
+        this.width = width;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    // Nom du fichier de cette variante pour un original stocké par contenu
+    public String fileName(String hash) {
+        return hash + "-" + param + ".jpg";
+    }
+
+    // Adresse de chaque taille d'une affiche (relative à /api), vide si le film n'a pas d'affiche
+    public static Map<String, String> urls(String poster) {
+        if (poster == null || poster.isBlank()) {
+            return Map.of();
+        }
+        String path = "/posters/" + UriUtils.encodePathSegment(poster, StandardCharsets.UTF_8) + "?size=";
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (PosterVariant variant : values()) {
+            urls.put(variant.param, path + variant.param);
+        }
+        return urls;
+    }
+
+    public static PosterVariant fromParam(String value) {
+        for (PosterVariant variant : values()) {
+            if (variant.param.equalsIgnoreCase(value)) {
+                return variant;
+            }
+        }
+        throw new InvalidPosterSizeException("Unsupported poster size: " + value);
+    }
+}
@@ -0,0 +1,16 @@
+package com.hamza.filmmanagement.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class RatingRequest {
+    @NotNull
+    @Min(1)
+    @Max(5)
+    private Integer score;
+}
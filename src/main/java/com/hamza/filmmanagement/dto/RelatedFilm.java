@@ -0,0 +1,14 @@
+package com.hamza.filmmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Un film proche d'un autre : score de proximité, nombre d'acteurs en commun et même réalisateur ou non
+@Getter
+@AllArgsConstructor
+public class RelatedFilm {
+    private long filmId;
+    private double score;
+    private int sharedActors;
+    private boolean sameDirector;
+}
@@ -0,0 +1,21 @@
+package com.hamza.filmmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+
+// Validateurs HTTP d'une ressource : ETag fort et, si elle est connue, date de dernière modification
+@Getter
+@AllArgsConstructor
+public class ResourceVersion {
+    private String etag;
+    private Instant lastModified;
+
+    // Compare aux en-têtes If-None-Match / If-Modified-Since de la requête et pose ETag / Last-Modified sur la réponse.
+    // true : le client a déjà cette version, la réponse est un 304 sans corps
+    public boolean isNotModified(WebRequest request) {
+        return request.checkNotModified(etag, lastModified == null ? -1 : lastModified.toEpochMilli());
+    }
+}
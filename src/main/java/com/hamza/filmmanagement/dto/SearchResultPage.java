@@ -0,0 +1,16 @@
+package com.hamza.filmmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Page de résultats de recherche, triés par pertinence
+@Getter
+@AllArgsConstructor
+public class SearchResultPage<T> {
+    private List<T> items;
+    private long totalHits;
+    private int page;
+    private int size;
+}
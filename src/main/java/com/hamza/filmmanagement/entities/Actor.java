@@ -5,22 +5,49 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.ACTOR)
+// Clé naturelle : une même personne n'est enregistrée qu'une fois (upsert en masse, voir PersonBulkService)
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_actor_natural_key", columnNames = {"first_name", "last_name", "nationality"}))
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
 public class Actor {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "actor_id")
+    @TableGenerator(name = "actor_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.KEY_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = IdGenerators.ACTOR,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     private String firstName;
     private String lastName;
     private  String nationality;
+
+    // Version de la ligne (verrouillage optimiste), incrémentée par Hibernate à chaque modification ; sert d'ETag
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
+    // Date de dernière modification (en-tête Last-Modified)
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    public Actor(Long id, String firstName, String lastName, String nationality) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.nationality = nationality;
+    }
     //@ManyToMany(mappedBy = "actors")
     //private Set<Film> films = new HashSet<>();
 
@@ -0,0 +1,21 @@
+package com.hamza.filmmanagement.entities;
+
+// Noms des régions du cache de second niveau Hibernate (créées et dimensionnées par SecondLevelCacheConfig).
+// Entités de référence, lues bien plus souvent qu'écrites ; écritures en READ_WRITE : une modification
+// passant par Hibernate met à jour ou invalide l'entrée, sans lecture périmée possible.
+public final class CacheRegions {
+
+    public static final String ACTOR = "actor";
+    public static final String DIRECTOR = "director";
+    public static final String ROLE = "role";
+    // Collection Film.actors (ids des acteurs de chaque film)
+    public static final String FILM_ACTORS = "film-actors";
+    // Résultats des requêtes de liste d'acteurs et de réalisateurs (ids seulement, les entités viennent des régions ci-dessus)
+    public static final String PERSON_QUERIES = "person-queries";
+    // Régions internes de Hibernate pour le cache de requêtes
+    public static final String DEFAULT_QUERIES = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private CacheRegions() {
+    }
+}
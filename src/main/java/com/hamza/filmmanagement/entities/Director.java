@@ -5,24 +5,56 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.DIRECTOR)
+// Les réalisateurs référencés par une liste de films sont chargés par lots plutôt qu'un par un
+@BatchSize(size = 50)
+// Index sur la nationalité : filtre et facette "nationalité du réalisateur" de la recherche de films.
+// Clé naturelle unique : une même personne n'est enregistrée qu'une fois (upsert en masse, voir PersonBulkService)
+@Table(indexes = @Index(name = "idx_director_nationality", columnList = "nationality"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_director_natural_key", columnNames = {"first_name", "last_name", "nationality"}))
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
 public class Director {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "director_id")
+    @TableGenerator(name = "director_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.KEY_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = IdGenerators.DIRECTOR,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     private String firstName;  // Director's first name
     private String lastName;  // Director's last name
     private String nationality;  // Director's nationality
 
+    // Version de la ligne (verrouillage optimiste), incrémentée par Hibernate à chaque modification ; sert d'ETag
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
+    // Date de dernière modification (en-tête Last-Modified)
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    public Director(Long id, String firstName, String lastName, String nationality) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.nationality = nationality;
+    }
+
     //@OneToMany(mappedBy = "director", cascade = CascadeType.ALL, orphanRemoval = true)
     //private Set<Film> films = new HashSet<>();  // Films directed by this director
 
@@ -5,19 +5,43 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.hamza.filmmanagement.dto.PosterVariant;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 @Entity
+// Graphe de chargement utilisé par la fiche détaillée : réalisateur et acteurs en une seule requête,
+// sans jamais toucher aux notes (ratings) ni aux utilisateurs
+@NamedEntityGraph(name = Film.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("director"),
+        @NamedAttributeNode("actors")
+})
+// Index composites utilisés par la pagination par curseur (tri sur la colonne puis sur l'id)
+@Table(indexes = {
+        @Index(name = "idx_film_title_id", columnList = "title, id"),
+        @Index(name = "idx_film_release_date_id", columnList = "release_date, id")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
 public class Film {
+    public static final String DETAIL_GRAPH = "Film.detail";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "film_id")
+    @TableGenerator(name = "film_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.KEY_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = IdGenerators.FILM,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     private String title;  // Film title
@@ -25,11 +49,25 @@ public class Film {
     private String poster;  // Film poster image URL or path
     private LocalDate releaseDate;  // Film release date
 
+    // Version de la ligne (verrouillage optimiste), incrémentée par Hibernate à chaque modification du film,
+    // y compris de sa liste d'acteurs. Les agrégats des notes, modifiés par UPDATE directs, ne la font pas bouger.
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
+    // Date de dernière modification des champs du film (hors agrégats des notes)
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     @ManyToOne
     @JoinColumn(name = "director_id")
     private Director director;  // Director of the film
 
+    // Chargés par lots quand plusieurs films sont lus (listes), pour éviter une requête par film.
+    // Collection en cache de second niveau : les ids des acteurs, les acteurs eux-mêmes venant de la région "actor"
     @ManyToMany
+    @BatchSize(size = 50)
+    @org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.FILM_ACTORS)
     @JoinTable(
             name = "film_actor",
             joinColumns = @JoinColumn(name = "film_id"),
@@ -37,8 +75,52 @@ public class Film {
     )
     private Set<Actor> actors = new HashSet<>();  // Actors in the film
 
+    // Jamais sérialisées : la moyenne et le nombre de votes viennent des colonnes agrégées ci-dessous
+    @JsonIgnore
     @OneToMany(mappedBy = "film")
     private Set<Rating> ratings = new HashSet<>();  // Ratings for the film
 
+    // === Agrégats des notes, dénormalisés ===
+    // Maintenus par des UPDATE incrémentaux (RatingService) à chaque note ajoutée, modifiée ou supprimée,
+    // et recalculés périodiquement depuis la table rating. Jamais modifiés par l'entité elle-même.
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long ratingCount;  // Number of votes
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long ratingSum;  // Sum of all scores
+
+    // Histogramme : nombre de votes pour chaque note de 1 à 5
+    @Column(name = "rating_hist1", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long ratingHist1;
+
+    @Column(name = "rating_hist2", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long ratingHist2;
+
+    @Column(name = "rating_hist3", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long ratingHist3;
+
+    @Column(name = "rating_hist4", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long ratingHist4;
+
+    @Column(name = "rating_hist5", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long ratingHist5;
+
+    // Moyenne des notes (null tant qu'aucun vote n'a été enregistré)
+    public Double getAverageRating() {
+        return ratingCount == 0 ? null : (double) ratingSum / ratingCount;
+    }
+
+    // Adresses des tailles de l'affiche (miniature, carte, grand format) ; tant qu'une taille n'est pas générée,
+    // l'adresse renvoie l'original (voir PosterController)
+    public Map<String, String> getPosterVariants() {
+        return PosterVariant.urls(poster);
+    }
 
 }
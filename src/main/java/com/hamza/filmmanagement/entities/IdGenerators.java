@@ -0,0 +1,32 @@
+package com.hamza.filmmanagement.entities;
+
+import java.util.List;
+
+// Génération des identifiants : une table de compteurs (une ligne par entité) avec l'optimiseur "pooled".
+// Hibernate réserve ALLOCATION_SIZE identifiants à chaque lecture du compteur et les distribue en mémoire :
+// contrairement à IDENTITY, l'id est connu avant l'INSERT, ce qui permet de grouper les INSERT en lots JDBC.
+// Une table plutôt qu'une séquence : même comportement sur MySQL (pas de séquences) et sur H2 (profil de test).
+//
+// Sémantique "pooled" : la valeur stockée est la borne haute du prochain bloc. Lire la valeur N et la
+// remplacer par N + ALLOCATION_SIZE réserve les identifiants N - ALLOCATION_SIZE + 1 à N.
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generator";
+    public static final String KEY_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    // Clé de chaque entité dans la table des compteurs : le nom de la table dont elle génère les ids
+    public static final String ACTOR = "actor";
+    public static final String DIRECTOR = "director";
+    public static final String FILM = "film";
+    public static final String RATING = "rating";
+    public static final String USER = "users";
+    public static final String ROLE = "roles";
+    public static final String EMAIL_OUTBOX = "email_outbox";
+
+    public static final List<String> ALL = List.of(ACTOR, DIRECTOR, FILM, RATING, USER, ROLE, EMAIL_OUTBOX);
+
+    private IdGenerators() {
+    }
+}
@@ -0,0 +1,68 @@
+package com.hamza.filmmanagement.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Email à envoyer, enregistré dans la même transaction que la donnée qui le déclenche (inscription, mot de passe oublié).
+// L'envoi SMTP est fait plus tard par EmailOutboxDispatcher, hors de toute requête HTTP et de toute transaction.
+@Entity
+@Table(name = IdGenerators.EMAIL_OUTBOX, indexes = @Index(name = "idx_email_outbox_due", columnList = "status, next_attempt_at"))
+@NoArgsConstructor
+@Getter
+@Setter
+public class OutboxEmail {
+
+    public enum Status {
+        PENDING,
+        SENT,
+        // Abandonné après le nombre maximum de tentatives : reste en table pour analyse
+        DEAD
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "email_outbox_id")
+    @TableGenerator(name = "email_outbox_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.KEY_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = IdGenerators.EMAIL_OUTBOX,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Lob
+    @Column(nullable = false)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    private int attempts;
+
+    // Prochaine tentative (ou fin de la réservation par un dispatcher en cours d'envoi)
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant sentAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    public OutboxEmail(String recipient, String subject, String body, Instant now) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.createdAt = now;
+        this.nextAttemptAt = now;
+    }
+}
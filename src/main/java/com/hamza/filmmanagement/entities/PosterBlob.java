@@ -0,0 +1,43 @@
+package com.hamza.filmmanagement.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Fichier d'affiche stocké une seule fois sous un nom dérivé de son contenu (SHA-256), partagé par tous les films
+// qui ont envoyé les mêmes octets. refCount = nombre de films qui y font référence : le fichier n'est supprimé
+// qu'à la disparition de la dernière référence (voir FileStorageService).
+@Entity
+@Table(name = "poster_blob", uniqueConstraints = @UniqueConstraint(name = "uk_poster_blob_file_name", columnNames = "file_name"))
+@NoArgsConstructor
+@Getter
+@Setter
+public class PosterBlob {
+
+    // Empreinte SHA-256 du contenu, en hexadécimal
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    // Nom du fichier dans uploads/ (empreinte + extension), tel que stocké dans Film.poster
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    private long size;
+
+    private int refCount;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public PosterBlob(String hash, String fileName, long size) {
+        this.hash = hash;
+        this.fileName = fileName;
+        this.size = size;
+        this.refCount = 1;
+        this.createdAt = Instant.now();
+    }
+}
@@ -7,13 +7,18 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+// Un seul vote par utilisateur et par film : une nouvelle note remplace la précédente
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_rating_user_film", columnNames = {"user_id", "film_id"}))
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
 public class Rating {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "rating_id")
+    @TableGenerator(name = "rating_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.KEY_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = IdGenerators.RATING,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     private int score;  // Rating score, e.g., 1 to 5 stars
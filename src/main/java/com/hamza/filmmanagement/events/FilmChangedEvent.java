@@ -0,0 +1,35 @@
+package com.hamza.filmmanagement.events;
+
+// Événement publié par FilmService après l'ajout, la modification ou la suppression d'un film.
+// Les composants qui maintiennent une vue dérivée du catalogue (index de recherche, etc.) l'écoutent.
+public class FilmChangedEvent {
+
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+
+    private final Long filmId;
+    private final Type type;
+
+    public FilmChangedEvent(Long filmId, Type type) {
+        this.filmId = filmId;
+        this.type = type;
+    }
+
+    public static FilmChangedEvent saved(Long filmId) {
+        return new FilmChangedEvent(filmId, Type.SAVED);
+    }
+
+    public static FilmChangedEvent deleted(Long filmId) {
+        return new FilmChangedEvent(filmId, Type.DELETED);
+    }
+
+    public Long getFilmId() {
+        return filmId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+}
@@ -0,0 +1,18 @@
+package com.hamza.filmmanagement.events;
+
+import java.util.List;
+
+// Événement publié par FilmImportService après le commit de chaque paquet de films importés.
+// Permet aux vues dérivées du catalogue de traiter le paquet d'un coup au lieu d'un événement par film.
+public class FilmsImportedEvent {
+
+    private final List<Long> filmIds;
+
+    public FilmsImportedEvent(List<Long> filmIds) {
+        this.filmIds = List.copyOf(filmIds);
+    }
+
+    public List<Long> getFilmIds() {
+        return filmIds;
+    }
+}
@@ -0,0 +1,58 @@
+package com.hamza.filmmanagement.events;
+
+// Événement publié par ActorService et DirectorService après l'ajout, la modification ou la suppression
+// d'un acteur ou d'un réalisateur. Il transporte les noms pour que les écouteurs n'aient pas à relire la base.
+public class PersonChangedEvent {
+
+    public enum Kind {
+        ACTOR,
+        DIRECTOR
+    }
+
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+
+    private final Kind kind;
+    private final Type type;
+    private final Long id;
+    private final String firstName;
+    private final String lastName;
+
+    public PersonChangedEvent(Kind kind, Type type, Long id, String firstName, String lastName) {
+        this.kind = kind;
+        this.type = type;
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    public static PersonChangedEvent saved(Kind kind, Long id, String firstName, String lastName) {
+        return new PersonChangedEvent(kind, Type.SAVED, id, firstName, lastName);
+    }
+
+    public static PersonChangedEvent deleted(Kind kind, Long id) {
+        return new PersonChangedEvent(kind, Type.DELETED, id, null, null);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+}
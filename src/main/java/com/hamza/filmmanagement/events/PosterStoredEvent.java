@@ -0,0 +1,22 @@
+package com.hamza.filmmanagement.events;
+
+// Événement publié par FileStorageService quand un nouveau contenu d'affiche est écrit dans uploads/ :
+// ses variantes (miniature, carte...) sont à générer.
+public class PosterStoredEvent {
+
+    private final String hash;
+    private final String fileName;
+
+    public PosterStoredEvent(String hash, String fileName) {
+        this.hash = hash;
+        this.fileName = fileName;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+}
@@ -0,0 +1,33 @@
+package com.hamza.filmmanagement.events;
+
+import java.util.Set;
+
+// Événement publié après l'écriture de notes : les agrégats (nombre de votes, somme, histogramme)
+// des films listés ont changé. Les vues dérivées des notes (classements...) l'écoutent.
+public class RatingAggregatesChangedEvent {
+
+    private final Set<Long> filmIds;
+    private final boolean allFilms;
+
+    public RatingAggregatesChangedEvent(Set<Long> filmIds) {
+        this(filmIds, false);
+    }
+
+    private RatingAggregatesChangedEvent(Set<Long> filmIds, boolean allFilms) {
+        this.filmIds = Set.copyOf(filmIds);
+        this.allFilms = allFilms;
+    }
+
+    // Agrégats recalculés pour tout le catalogue (réconciliation)
+    public static RatingAggregatesChangedEvent allFilms() {
+        return new RatingAggregatesChangedEvent(Set.of(), true);
+    }
+
+    public Set<Long> getFilmIds() {
+        return filmIds;
+    }
+
+    public boolean isAllFilms() {
+        return allFilms;
+    }
+}
@@ -0,0 +1,16 @@
+package com.hamza.filmmanagement.events;
+
+// Événement publié par AuthService quand un compte change d'une façon qui touche l'authentification
+// (activation, désactivation, rôles, mot de passe). Les copies en mémoire de l'utilisateur doivent être oubliées.
+public class UserChangedEvent {
+
+    private final String email;
+
+    public UserChangedEvent(String email) {
+        this.email = email;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
@@ -1,13 +1,25 @@
 package com.hamza.filmmanagement.exceptions;
 
 import com.hamza.filmmanagement.dto.ApiResponse;
+import com.hamza.filmmanagement.exceptions.actor.ActorAlreadyExistsException;
 import com.hamza.filmmanagement.exceptions.actor.ActorNotFoundException;
 import com.hamza.filmmanagement.exceptions.actor.ActorRefencedByFilmException;
 import com.hamza.filmmanagement.exceptions.auth.*;
+import com.hamza.filmmanagement.exceptions.director.DirectorAlreadyExistsException;
 import com.hamza.filmmanagement.exceptions.director.DirectorNotFoundException;
 import com.hamza.filmmanagement.exceptions.email.SendingEmailException;
 import com.hamza.filmmanagement.exceptions.film.FilmNotFoundException;
+import com.hamza.filmmanagement.exceptions.film.InvalidPosterSizeException;
+import com.hamza.filmmanagement.exceptions.film.PosterNotFoundException;
+import com.hamza.filmmanagement.exceptions.bulk.InvalidBulkRequestException;
+import com.hamza.filmmanagement.exceptions.film.UnsupportedExportFormatException;
+import com.hamza.filmmanagement.exceptions.pagination.InvalidPageRequestException;
+import com.hamza.filmmanagement.exceptions.rating.InvalidRatingException;
+import com.hamza.filmmanagement.exceptions.rating.RatingQueueFullException;
+import com.hamza.filmmanagement.exceptions.search.InvalidSearchQueryException;
 import jakarta.mail.MessagingException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -84,18 +96,107 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(PosterNotFoundException.class)
+    public ResponseEntity<ApiResponse> handlePosterNotFoundException(PosterNotFoundException ex) {
+        ApiResponse response = new ApiResponse("Error", ex.getMessage(), HttpStatus.NOT_FOUND.value());
+        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(InvalidPosterSizeException.class)
+    public ResponseEntity<ApiResponse> handleInvalidPosterSizeException(InvalidPosterSizeException ex) {
+        ApiResponse response = new ApiResponse("Error", ex.getMessage(), HttpStatus.BAD_REQUEST.value());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(ActorRefencedByFilmException.class)
     public ResponseEntity<ApiResponse> handleActorRefencedByFilmException(ActorRefencedByFilmException ex) {
         ApiResponse response = new ApiResponse("Error", ex.getMessage(), HttpStatus.BAD_REQUEST.value());
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    // Même prénom, nom et nationalité qu'une personne déjà enregistrée (clé naturelle unique)
+    @ExceptionHandler(ActorAlreadyExistsException.class)
+    public ResponseEntity<ApiResponse> handleActorAlreadyExistsException(ActorAlreadyExistsException ex) {
+        ApiResponse response = new ApiResponse("Error", ex.getMessage(), HttpStatus.CONFLICT.value());
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(DirectorAlreadyExistsException.class)
+    public ResponseEntity<ApiResponse> handleDirectorAlreadyExistsException(DirectorAlreadyExistsException ex) {
+        ApiResponse response = new ApiResponse("Error", ex.getMessage(), HttpStatus.CONFLICT.value());
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(AccountIsNotEnabledException.class)
     public ResponseEntity<ApiResponse> handleAccountIsNotEnabledException(AccountIsNotEnabledException ex) {
         ApiResponse response = new ApiResponse("Error", ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value());
         return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(UnsupportedExportFormatException.class)
+    public ResponseEntity<ApiResponse> handleUnsupportedExportFormatException(UnsupportedExportFormatException ex) {
+        ApiResponse response = new ApiResponse("Error", ex.getMessage(), HttpStatus.BAD_REQUEST.value());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidSearchQueryException.class)
+    public ResponseEntity<ApiResponse> handleInvalidSearchQueryException(InvalidSearchQueryException ex) {
+        ApiResponse response = new ApiResponse("Error", ex.getMessage(), HttpStatus.BAD_REQUEST.value());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<ApiResponse> handleInvalidPageRequestException(InvalidPageRequestException ex) {
+        ApiResponse response = new ApiResponse("Error", ex.getMessage(), HttpStatus.BAD_REQUEST.value());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidBulkRequestException.class)
+    public ResponseEntity<ApiResponse> handleInvalidBulkRequestException(InvalidBulkRequestException ex) {
+        ApiResponse response = new ApiResponse("Error", ex.getMessage(), HttpStatus.BAD_REQUEST.value());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    // Modification concurrente : la ligne a changé de version entre sa lecture et son écriture
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        ApiResponse response = new ApiResponse("Error", "The resource was modified concurrently, please retry", HttpStatus.CONFLICT.value());
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(InvalidRatingException.class)
+    public ResponseEntity<ApiResponse> handleInvalidRatingException(InvalidRatingException ex) {
+        ApiResponse response = new ApiResponse("Error", ex.getMessage(), HttpStatus.BAD_REQUEST.value());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    // File d'écriture des notes saturée : le client peut réessayer un peu plus tard
+    @ExceptionHandler(RatingQueueFullException.class)
+    public ResponseEntity<ApiResponse> handleRatingQueueFullException(RatingQueueFullException ex) {
+        ApiResponse response = new ApiResponse("Error", ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS.value());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    // Pool de hachage des mots de passe saturé : le client peut réessayer un peu plus tard
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ApiResponse> handlePasswordHashingBusyException(PasswordHashingBusyException ex) {
+        ApiResponse response = new ApiResponse("Error", ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS.value());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    // Hachage non obtenu dans le délai imparti (pool en retard ou arrêt en cours)
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ApiResponse> handlePasswordHashingUnavailableException(PasswordHashingUnavailableException ex) {
+        ApiResponse response = new ApiResponse("Error", ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE.value());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "2")
+                .body(response);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ApiResponse> handleRuntimeException(RuntimeException e) {
         ApiResponse response = new ApiResponse("Internal Error", e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value());
@@ -0,0 +1,7 @@
+package com.hamza.filmmanagement.exceptions.actor;
+
+public class ActorAlreadyExistsException extends RuntimeException {
+    public ActorAlreadyExistsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hamza.filmmanagement.exceptions.auth;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
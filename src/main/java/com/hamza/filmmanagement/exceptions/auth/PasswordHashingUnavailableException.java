@@ -0,0 +1,7 @@
+package com.hamza.filmmanagement.exceptions.auth;
+
+public class PasswordHashingUnavailableException extends RuntimeException {
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
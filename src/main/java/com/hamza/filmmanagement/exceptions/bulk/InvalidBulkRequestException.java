@@ -0,0 +1,7 @@
+package com.hamza.filmmanagement.exceptions.bulk;
+
+public class InvalidBulkRequestException extends RuntimeException {
+    public InvalidBulkRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hamza.filmmanagement.exceptions.director;
+
+public class DirectorAlreadyExistsException extends RuntimeException {
+    public DirectorAlreadyExistsException(String message) {
+        super(message);
+    }
+}
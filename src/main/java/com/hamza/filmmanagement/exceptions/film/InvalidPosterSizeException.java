@@ -0,0 +1,7 @@
+package com.hamza.filmmanagement.exceptions.film;
+
+public class InvalidPosterSizeException extends RuntimeException {
+    public InvalidPosterSizeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hamza.filmmanagement.exceptions.film;
+
+public class PosterNotFoundException extends RuntimeException {
+    public PosterNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hamza.filmmanagement.exceptions.film;
+
+public class UnsupportedExportFormatException extends RuntimeException {
+    public UnsupportedExportFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hamza.filmmanagement.exceptions.pagination;
+
+public class InvalidPageRequestException extends RuntimeException {
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
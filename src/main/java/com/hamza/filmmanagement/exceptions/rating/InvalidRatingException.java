@@ -0,0 +1,7 @@
+package com.hamza.filmmanagement.exceptions.rating;
+
+public class InvalidRatingException extends RuntimeException {
+    public InvalidRatingException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hamza.filmmanagement.exceptions.rating;
+
+public class RatingQueueFullException extends RuntimeException {
+    public RatingQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hamza.filmmanagement.exceptions.search;
+
+public class InvalidSearchQueryException extends RuntimeException {
+    public InvalidSearchQueryException(String message) {
+        super(message);
+    }
+}
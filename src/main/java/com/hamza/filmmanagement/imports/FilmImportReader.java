@@ -0,0 +1,175 @@
+package com.hamza.filmmanagement.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hamza.filmmanagement.dto.ExportFormat;
+import com.hamza.filmmanagement.dto.FilmImportRow;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Lecture en flux d'un fichier d'import de films, NDJSON (un objet JSON par ligne) ou CSV avec en-tête.
+// Une ligne illisible ne stoppe pas la lecture : elle est renvoyée avec son message d'erreur.
+public class FilmImportReader implements Closeable {
+
+    // Ligne lue : soit un film, soit une erreur de lecture
+    public record ParsedRow(long rowNumber, FilmImportRow row, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final ExportFormat format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> csvColumns;
+    private long rowNumber;
+    private boolean finished;
+
+    public FilmImportReader(InputStream in, ExportFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    // Prochaine ligne de données, ou null en fin de fichier
+    public ParsedRow next() throws IOException {
+        return format == ExportFormat.CSV ? nextCsv() : nextNdjson();
+    }
+
+    private ParsedRow nextNdjson() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        rowNumber++;
+        try {
+            return new ParsedRow(rowNumber, objectMapper.readValue(line, FilmImportRow.class), null);
+        } catch (JsonProcessingException e) {
+            return new ParsedRow(rowNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private ParsedRow nextCsv() throws IOException {
+        if (csvColumns == null) {
+            List<String> header = readCsvRecord();
+            if (header == null) {
+                return null;
+            }
+            csvColumns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                csvColumns.put(header.get(i).trim(), i);
+            }
+        }
+
+        List<String> fields;
+        do {
+            fields = readCsvRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        rowNumber++;
+        if (fields == UNTERMINATED) {
+            return new ParsedRow(rowNumber, null, "Unterminated quoted field");
+        }
+        try {
+            FilmImportRow row = new FilmImportRow();
+            row.setTitle(field(fields, "title"));
+            row.setDescription(field(fields, "description"));
+            String releaseDate = field(fields, "releaseDate");
+            row.setReleaseDate(releaseDate == null ? null : LocalDate.parse(releaseDate));
+            String directorId = field(fields, "directorId");
+            row.setDirectorId(directorId == null ? null : Long.valueOf(directorId));
+            String actorIds = field(fields, "actorIds");
+            if (actorIds != null) {
+                // Plusieurs acteurs dans une même cellule, séparés par des points-virgules
+                for (String actorId : actorIds.split(";")) {
+                    if (!actorId.isBlank()) {
+                        row.getActorIds().add(Long.valueOf(actorId.trim()));
+                    }
+                }
+            }
+            row.setPoster(field(fields, "poster"));
+            return new ParsedRow(rowNumber, row, null);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return new ParsedRow(rowNumber, null, "Invalid value: " + e.getMessage());
+        }
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = csvColumns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static final List<String> UNTERMINATED = List.of();
+
+    // Lit un enregistrement CSV (RFC 4180) : champs entre guillemets pouvant contenir virgules,
+    // guillemets doublés et retours à la ligne. Renvoie null en fin de fichier.
+    private List<String> readCsvRecord() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int c = reader.read();
+        if (c == -1) {
+            finished = true;
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    finished = true;
+                    return UNTERMINATED;
+                }
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == -1 || c == '\n') {
+                finished = c == -1;
+                fields.add(field.toString());
+                return fields;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
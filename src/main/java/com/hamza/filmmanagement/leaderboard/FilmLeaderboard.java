@@ -0,0 +1,120 @@
+package com.hamza.filmmanagement.leaderboard;
+
+import com.hamza.filmmanagement.dto.LeaderboardEntry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Classements de films en mémoire ("mieux notés" et "plus notés"), global et par année de sortie.
+// Chaque classement est un ConcurrentSkipListSet trié par score : lire le top N parcourt N éléments
+// depuis la tête, sans verrou et sans jamais trier le catalogue. Une mise à jour retire l'ancienne
+// position du film et insère la nouvelle (O(log n) par classement).
+public class FilmLeaderboard {
+
+    public enum Ranking {
+        TOP_RATED,
+        MOST_RATED
+    }
+
+    // Moyenne décroissante, puis nombre de votes décroissant, puis id : ordre total (aucun doublon perdu)
+    private static final Comparator<LeaderboardEntry> BY_AVERAGE = Comparator
+            .comparingDouble(LeaderboardEntry::getAverageRating).reversed()
+            .thenComparing(Comparator.comparingLong(LeaderboardEntry::getRatingCount).reversed())
+            .thenComparingLong(LeaderboardEntry::getFilmId);
+
+    private static final Comparator<LeaderboardEntry> BY_COUNT = Comparator
+            .comparingLong(LeaderboardEntry::getRatingCount).reversed()
+            .thenComparing(Comparator.comparingDouble(LeaderboardEntry::getAverageRating).reversed())
+            .thenComparingLong(LeaderboardEntry::getFilmId);
+
+    // Nombre minimum de votes pour apparaître dans "mieux notés" (une seule note de 5 ne fait pas un classement)
+    private final long minVotesForTopRated;
+
+    // Position actuelle de chaque film classé
+    private final Map<Long, LeaderboardEntry> entries = new ConcurrentHashMap<>();
+
+    private final NavigableSet<LeaderboardEntry> topRated = new ConcurrentSkipListSet<>(BY_AVERAGE);
+    private final NavigableSet<LeaderboardEntry> mostRated = new ConcurrentSkipListSet<>(BY_COUNT);
+    private final Map<Integer, NavigableSet<LeaderboardEntry>> topRatedByYear = new ConcurrentHashMap<>();
+    private final Map<Integer, NavigableSet<LeaderboardEntry>> mostRatedByYear = new ConcurrentHashMap<>();
+
+    public FilmLeaderboard(long minVotesForTopRated) {
+        this.minVotesForTopRated = minVotesForTopRated;
+    }
+
+    // Ajoute, déplace ou retire (aucun vote) un film dans tous les classements qui le concernent
+    public void update(LeaderboardEntry entry) {
+        // compute verrouille la clé : deux mises à jour du même film ne s'entrelacent pas
+        entries.compute(entry.getFilmId(), (id, previous) -> {
+            if (previous != null) {
+                unlink(previous);
+            }
+            if (entry.getRatingCount() == 0) {
+                return null;
+            }
+            link(entry);
+            return entry;
+        });
+    }
+
+    public void remove(long filmId) {
+        entries.computeIfPresent(filmId, (id, previous) -> {
+            unlink(previous);
+            return null;
+        });
+    }
+
+    // Les `limit` premiers films d'un classement, global (year = null) ou pour une année de sortie
+    public List<LeaderboardEntry> top(Ranking ranking, Integer year, int limit) {
+        NavigableSet<LeaderboardEntry> set = ranking == Ranking.TOP_RATED
+                ? (year == null ? topRated : topRatedByYear.get(year))
+                : (year == null ? mostRated : mostRatedByYear.get(year));
+        if (set == null) {
+            return List.of();
+        }
+        List<LeaderboardEntry> result = new ArrayList<>(limit);
+        Iterator<LeaderboardEntry> iterator = set.iterator();
+        while (result.size() < limit && iterator.hasNext()) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void link(LeaderboardEntry entry) {
+        mostRated.add(entry);
+        if (entry.getReleaseYear() != null) {
+            mostRatedByYear.computeIfAbsent(entry.getReleaseYear(), y -> new ConcurrentSkipListSet<>(BY_COUNT)).add(entry);
+        }
+        if (entry.getRatingCount() >= minVotesForTopRated) {
+            topRated.add(entry);
+            if (entry.getReleaseYear() != null) {
+                topRatedByYear.computeIfAbsent(entry.getReleaseYear(), y -> new ConcurrentSkipListSet<>(BY_AVERAGE)).add(entry);
+            }
+        }
+    }
+
+    private void unlink(LeaderboardEntry entry) {
+        mostRated.remove(entry);
+        topRated.remove(entry);
+        if (entry.getReleaseYear() != null) {
+            NavigableSet<LeaderboardEntry> byCount = mostRatedByYear.get(entry.getReleaseYear());
+            if (byCount != null) {
+                byCount.remove(entry);
+            }
+            NavigableSet<LeaderboardEntry> byAverage = topRatedByYear.get(entry.getReleaseYear());
+            if (byAverage != null) {
+                byAverage.remove(entry);
+            }
+        }
+    }
+}
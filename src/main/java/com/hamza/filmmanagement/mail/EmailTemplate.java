@@ -0,0 +1,73 @@
+package com.hamza.filmmanagement.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Modèle d'email précompilé : le texte est découpé une fois pour toutes en segments littéraux et en variables ${nom}.
+// Le rendu ne fait que concaténer ces segments dans un tampon dimensionné d'avance, sans relire le modèle.
+// Mêmes règles que l'ancien StrSubstitutor : $${x} produit le texte ${x}, une variable absente reste telle quelle.
+public final class EmailTemplate {
+
+    private final String name;
+    // literals[i] précède variables[i] ; le dernier littéral termine le modèle (literals.length = variables.length + 1)
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalLength;
+
+    private EmailTemplate(String name, String[] literals, String[] variables) {
+        this.name = name;
+        this.literals = literals;
+        this.variables = variables;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static EmailTemplate compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '$' && source.startsWith("$${", i)) {
+                // Échappement : le texte ${ est gardé tel quel
+                literal.append("${");
+                i += 3;
+            } else if (c == '$' && source.startsWith("${", i) && source.indexOf('}', i + 2) > i + 2) {
+                int end = source.indexOf('}', i + 2);
+                literals.add(literal.toString());
+                literal.setLength(0);
+                variables.add(source.substring(i + 2, end));
+                i = end + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+        return new EmailTemplate(name, literals.toArray(String[]::new), variables.toArray(String[]::new));
+    }
+
+    public String render(Map<String, String> values) {
+        int length = literalLength;
+        String[] resolved = new String[variables.length];
+        for (int i = 0; i < variables.length; i++) {
+            String value = values.get(variables[i]);
+            resolved[i] = value != null ? value : "${" + variables[i] + "}";
+            length += resolved[i].length();
+        }
+        StringBuilder out = new StringBuilder(length);
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]).append(resolved[i]);
+        }
+        return out.append(literals[variables.length]).toString();
+    }
+
+    public String getName() {
+        return name;
+    }
+}
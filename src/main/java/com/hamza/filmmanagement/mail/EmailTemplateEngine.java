@@ -0,0 +1,86 @@
+package com.hamza.filmmanagement.mail;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Modèles d'emails (templates/emails/*.html) chargés une fois au démarrage et précompilés (voir EmailTemplate).
+// Lecture par flux du classpath : fonctionne aussi depuis le jar packagé.
+// En développement, film.mail.templates.dev-dir (ex : src/main/resources/templates/emails) active le rechargement à chaud :
+// un fichier modifié dans ce répertoire est recompilé au rendu suivant.
+@Component
+public class EmailTemplateEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailTemplateEngine.class);
+
+    private static final String LOCATION = "classpath*:templates/emails/*.html";
+    private static final String EXTENSION = ".html";
+
+    private record Entry(EmailTemplate template, long lastModified) {
+    }
+
+    private final Map<String, Entry> templates = new ConcurrentHashMap<>();
+    private final Path devDir;
+
+    public EmailTemplateEngine(@Value("${film.mail.templates.dev-dir:}") String devDir) {
+        this.devDir = devDir.isBlank() ? null : Path.of(devDir);
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            String filename = resource.getFilename();
+            if (filename == null) {
+                continue;
+            }
+            String name = filename.substring(0, filename.length() - EXTENSION.length());
+            try (InputStream in = resource.getInputStream()) {
+                String source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                templates.put(name, new Entry(EmailTemplate.compile(name, source), 0));
+            }
+        }
+        log.info("{} email templates loaded{}", templates.size(), devDir == null ? "" : ", hot reload from " + devDir);
+    }
+
+    // Rendu du modèle "name" (nom du fichier sans .html, ex : activation-email)
+    public String render(String name, Map<String, String> values) {
+        Entry entry = devDir != null ? reloadIfChanged(name) : templates.get(name);
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown email template: " + name);
+        }
+        return entry.template().render(values);
+    }
+
+    private Entry reloadIfChanged(String name) {
+        Path file = devDir.resolve(name + EXTENSION);
+        if (!Files.isRegularFile(file)) {
+            return templates.get(name);
+        }
+        return templates.compute(name, (key, current) -> {
+            try {
+                long lastModified = Files.getLastModifiedTime(file).toMillis();
+                if (current != null && current.lastModified() == lastModified) {
+                    return current;
+                }
+                String source = Files.readString(file, StandardCharsets.UTF_8);
+                log.debug("Email template {} reloaded from {}", name, file);
+                return new Entry(EmailTemplate.compile(name, source), lastModified);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
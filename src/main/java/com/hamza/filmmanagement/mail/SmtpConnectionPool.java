@@ -0,0 +1,176 @@
+package com.hamza.filmmanagement.mail;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Connexions SMTP gardées ouvertes (déjà authentifiées, STARTTLS déjà négocié) et réutilisées d'un envoi à l'autre.
+// Au plus "size" connexions ouvertes ; une connexion libre depuis plus de idleTimeoutMs est fermée, une connexion
+// qui a envoyé maxMessagesPerConnection messages est remplacée (limite imposée par la plupart des serveurs).
+// Les connexions libres sont reprises dans l'ordre inverse de leur retour : un expéditeur qui enchaîne les envois
+// (EmailOutboxDispatcher) garde la même connexion, les autres restent froides et finissent fermées.
+public class SmtpConnectionPool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SmtpConnectionPool.class);
+
+    private static final class Connection {
+        private final Transport transport;
+        private int sent;
+        private long lastUsed;
+
+        private Connection(Transport transport) {
+            this.transport = transport;
+            this.lastUsed = System.currentTimeMillis();
+        }
+    }
+
+    private final JavaMailSenderImpl mailSender;
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutMs;
+    private final long borrowTimeoutMs;
+    private final BlockingDeque<Connection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private volatile boolean closed;
+
+    public SmtpConnectionPool(JavaMailSenderImpl mailSender, int size, int maxMessagesPerConnection,
+                              long idleTimeoutMs, long borrowTimeoutMs) {
+        this.mailSender = mailSender;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.permits = new Semaphore(size, true);
+    }
+
+    // Envoie le message sur une connexion du pool. Si une connexion réutilisée s'avère coupée par le serveur,
+    // le message est renvoyé une fois sur une connexion neuve ; un refus d'adresse (SendFailedException) n'est pas rejoué.
+    public void send(MimeMessage message) throws MessagingException {
+        message.saveChanges();
+        acquire();
+        try {
+            Connection connection = borrow();
+            boolean reused = connection.sent > 0;
+            try {
+                connection.transport.sendMessage(message, message.getAllRecipients());
+            } catch (MessagingException e) {
+                // Une connexion coupée pendant l'envoi remonte aussi en SendFailedException ([EOF]) :
+                // c'est un refus d'adresse seulement si la connexion est toujours ouverte
+                if (e instanceof SendFailedException && connection.transport.isConnected()) {
+                    release(connection);
+                    throw e;
+                }
+                discard(connection);
+                if (!reused) {
+                    throw e;
+                }
+                log.debug("Pooled SMTP connection failed, retrying on a new one: {}", e.getMessage());
+                connection = open();
+                try {
+                    connection.transport.sendMessage(message, message.getAllRecipients());
+                } catch (MessagingException retryFailure) {
+                    discard(connection);
+                    throw retryFailure;
+                }
+            }
+            connection.sent++;
+            release(connection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Ferme les connexions inutilisées depuis plus de idleTimeoutMs
+    public void evictIdle() {
+        long limit = System.currentTimeMillis() - idleTimeoutMs;
+        List<Connection> expired = new ArrayList<>();
+        for (Connection connection : idle) {
+            if (connection.lastUsed < limit && idle.removeFirstOccurrence(connection)) {
+                expired.add(connection);
+            }
+        }
+        expired.forEach(this::discard);
+    }
+
+    public int idleCount() {
+        return idle.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            discard(connection);
+        }
+    }
+
+    private void acquire() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("No SMTP connection available within " + borrowTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+    }
+
+    // Connexion libre la plus récente encore valable, sinon une nouvelle connexion
+    private Connection borrow() throws MessagingException {
+        long limit = System.currentTimeMillis() - idleTimeoutMs;
+        Connection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            if (connection.lastUsed >= limit && connection.transport.isConnected()) {
+                return connection;
+            }
+            discard(connection);
+        }
+        return open();
+    }
+
+    private void release(Connection connection) {
+        if (closed || connection.sent >= maxMessagesPerConnection) {
+            discard(connection);
+            return;
+        }
+        connection.lastUsed = System.currentTimeMillis();
+        idle.offerFirst(connection);
+    }
+
+    // Même connexion que JavaMailSenderImpl.send (hôte, port, identifiants et propriétés de session de spring.mail.*)
+    private Connection open() throws MessagingException {
+        Session session = mailSender.getSession();
+        String protocol = mailSender.getProtocol();
+        if (protocol == null) {
+            protocol = session.getProperty("mail.transport.protocol");
+        }
+        Transport transport = session.getTransport(protocol == null ? JavaMailSenderImpl.DEFAULT_PROTOCOL : protocol);
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        if (username == null || username.isEmpty()) {
+            username = null;
+            password = null;
+        }
+        transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        return new Connection(transport);
+    }
+
+    private void discard(Connection connection) {
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close SMTP connection: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.hamza.filmmanagement.pagination;
+
+import com.hamza.filmmanagement.exceptions.pagination.InvalidPageRequestException;
+
+// Colonnes sur lesquelles la liste des films peut être parcourue par curseur.
+// Chaque tri est adossé à un index (colonne, id) déclaré sur l'entité Film.
+public enum FilmSortField {
+    ID("id"),
+    TITLE("title"),
+    RELEASE_DATE("releaseDate");
+
+    private final String param;
+
+    FilmSortField(String param) {
+        this.param = param;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public static FilmSortField fromParam(String value) {
+        for (FilmSortField field : values()) {
+            if (field.param.equalsIgnoreCase(value)) {
+                return field;
+            }
+        }
+        throw new InvalidPageRequestException("Unknown sort field: " + value);
+    }
+}
@@ -0,0 +1,60 @@
+package com.hamza.filmmanagement.pagination;
+
+import com.hamza.filmmanagement.exceptions.pagination.InvalidPageRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Curseur opaque transmis au client : il encode le tri utilisé, l'id du dernier élément
+// renvoyé et la valeur de la colonne de tri pour cet élément.
+// Format avant encodage Base64 URL : "<tri>:<id>:<valeur>", ou "<tri>:<id>" si la valeur est NULL
+public final class KeysetCursor {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private final String sort;
+    private final long lastId;
+    private final String lastValue;
+
+    public KeysetCursor(String sort, long lastId, String lastValue) {
+        this.sort = sort;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public String getLastValue() {
+        return lastValue;
+    }
+
+    public String encode() {
+        String raw = sort + ":" + lastId + (lastValue == null ? "" : ":" + lastValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Décode un curseur reçu du client et vérifie qu'il a bien été produit pour le même tri
+    public static KeysetCursor decode(String cursor, String expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length < 2 || !parts[0].equals(expectedSort)) {
+                throw new InvalidPageRequestException("Cursor does not match the requested sort");
+            }
+            return new KeysetCursor(parts[0], Long.parseLong(parts[1]), parts.length == 3 ? parts[2] : null);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("Invalid cursor");
+        }
+    }
+
+    // Ramène la taille de page demandée dans l'intervalle autorisé
+    public static int clampLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
@@ -0,0 +1,518 @@
+package com.hamza.filmmanagement.related;
+
+import com.hamza.filmmanagement.dto.RelatedFilm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+// Graphe films <-> acteurs / réalisateurs en tableaux de primitifs, pour répondre à
+// "films proches du film X" (distribution et réalisateur communs).
+//
+// Chaque film, acteur et réalisateur reçoit un indice dense (LongIntHashMap). Le graphe garde :
+//  - castOf[film]            : indices des acteurs du film (triés)
+//  - directorOf[film]        : indice du réalisateur (-1 si aucun)
+//  - filmsOfActor[acteur]    : indices des films de l'acteur (triés)
+//  - filmsOfDirector[réal.]  : indices des films du réalisateur (triés)
+// Une ligne par film / personne plutôt qu'un CSR d'un seul bloc : une modification de distribution
+// ne remplace que les quelques lignes concernées.
+//
+// Score d'un film voisin = somme, sur les acteurs communs, de 1 / ln(e + nombre de films de l'acteur)
+// + DIRECTOR_WEIGHT fois la même pondération pour le réalisateur commun : un acteur rare rapproche
+// davantage deux films qu'un acteur présent partout.
+//
+// Lectures sous verrou de lecture (partagé), modifications incrémentales sous verrou d'écriture.
+public class RelatedFilmsGraph {
+
+    static final float DIRECTOR_WEIGHT = 2.0f;
+
+    // Borne le coût d'une requête quand un acteur ou un réalisateur a un nombre de films démesuré
+    private static final int MAX_POSTINGS_SCANNED = 10_000;
+
+    private static final int[] EMPTY = new int[0];
+    private static final long NONE = -1L;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongIntHashMap filmIndex;
+    private final LongIntHashMap actorIndex;
+    private final LongIntHashMap directorIndex;
+
+    private long[] filmIds;
+    private int filmCount;
+    private int[][] castOf;
+    private int[] directorOf;
+
+    private int[][] filmsOfActor;
+    private int actorCount;
+
+    private int[][] filmsOfDirector;
+    private int directorCount;
+
+    private RelatedFilmsGraph(LongIntHashMap filmIndex, long[] filmIds, int[][] castOf, int[] directorOf,
+                              LongIntHashMap actorIndex, int[][] filmsOfActor,
+                              LongIntHashMap directorIndex, int[][] filmsOfDirector) {
+        this.filmIndex = filmIndex;
+        this.filmIds = filmIds;
+        this.filmCount = filmIds.length;
+        this.castOf = castOf;
+        this.directorOf = directorOf;
+        this.actorIndex = actorIndex;
+        this.filmsOfActor = filmsOfActor;
+        this.actorCount = filmsOfActor.length;
+        this.directorIndex = directorIndex;
+        this.filmsOfDirector = filmsOfDirector;
+        this.directorCount = filmsOfDirector.length;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // === Requête : les k films les plus proches ===
+    public List<RelatedFilm> related(long filmId, int k) {
+        lock.readLock().lock();
+        try {
+            int film = filmIndex.get(filmId);
+            if (film == LongIntHashMap.MISSING || k <= 0) {
+                return List.of();
+            }
+            int[] cast = castOf[film];
+            int director = directorOf[film];
+
+            int expected = 0;
+            for (int actor : cast) {
+                expected += Math.min(filmsOfActor[actor].length, MAX_POSTINGS_SCANNED);
+            }
+            if (director >= 0) {
+                expected += Math.min(filmsOfDirector[director].length, MAX_POSTINGS_SCANNED);
+            }
+            if (expected == 0) {
+                return List.of();
+            }
+
+            ScoreAccumulator scores = new ScoreAccumulator(expected);
+            for (int actor : cast) {
+                int[] films = filmsOfActor[actor];
+                float weight = weight(films.length);
+                int limit = Math.min(films.length, MAX_POSTINGS_SCANNED);
+                for (int i = 0; i < limit; i++) {
+                    if (films[i] != film) {
+                        scores.addActor(films[i], weight);
+                    }
+                }
+            }
+            if (director >= 0) {
+                int[] films = filmsOfDirector[director];
+                float weight = DIRECTOR_WEIGHT * weight(films.length);
+                int limit = Math.min(films.length, MAX_POSTINGS_SCANNED);
+                for (int i = 0; i < limit; i++) {
+                    if (films[i] != film) {
+                        scores.addDirector(films[i], weight);
+                    }
+                }
+            }
+            return scores.top(k, filmIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // === Modification incrémentale : distribution et réalisateur d'un film (ajout ou mise à jour) ===
+    public void update(long filmId, Long directorId, long[] actorIds) {
+        lock.writeLock().lock();
+        try {
+            int film = filmIndex.get(filmId);
+            if (film == LongIntHashMap.MISSING) {
+                film = addFilm(filmId);
+            }
+
+            int[] newCast = new int[actorIds.length];
+            for (int i = 0; i < actorIds.length; i++) {
+                newCast[i] = actorIndexOrAdd(actorIds[i]);
+            }
+            newCast = IntStream.of(newCast).sorted().distinct().toArray();
+            relink(film, castOf[film], newCast);
+            castOf[film] = newCast;
+
+            int newDirector = directorId == null ? -1 : directorIndexOrAdd(directorId);
+            int oldDirector = directorOf[film];
+            if (oldDirector != newDirector) {
+                if (oldDirector >= 0) {
+                    filmsOfDirector[oldDirector] = without(filmsOfDirector[oldDirector], film);
+                }
+                if (newDirector >= 0) {
+                    filmsOfDirector[newDirector] = with(filmsOfDirector[newDirector], film);
+                }
+                directorOf[film] = newDirector;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Film supprimé : il disparaît de toutes les listes et n'a plus de voisins
+    public void remove(long filmId) {
+        lock.readLock().lock();
+        try {
+            if (filmIndex.get(filmId) == LongIntHashMap.MISSING) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        update(filmId, null, new long[0]);
+    }
+
+    public int filmCount() {
+        lock.readLock().lock();
+        try {
+            return filmCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static float weight(int degree) {
+        return (float) (1.0 / Math.log(Math.E + degree));
+    }
+
+    // Différence entre l'ancienne et la nouvelle distribution (deux tableaux triés) :
+    // seules les listes des acteurs ajoutés ou retirés sont modifiées
+    private void relink(int film, int[] oldCast, int[] newCast) {
+        int i = 0;
+        int j = 0;
+        while (i < oldCast.length || j < newCast.length) {
+            if (j == newCast.length || (i < oldCast.length && oldCast[i] < newCast[j])) {
+                filmsOfActor[oldCast[i]] = without(filmsOfActor[oldCast[i]], film);
+                i++;
+            } else if (i == oldCast.length || newCast[j] < oldCast[i]) {
+                filmsOfActor[newCast[j]] = with(filmsOfActor[newCast[j]], film);
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+    }
+
+    private int addFilm(long filmId) {
+        if (filmCount == filmIds.length) {
+            int capacity = Math.max(16, filmCount + (filmCount >> 1));
+            filmIds = Arrays.copyOf(filmIds, capacity);
+            castOf = Arrays.copyOf(castOf, capacity);
+            directorOf = Arrays.copyOf(directorOf, capacity);
+        }
+        int film = filmCount++;
+        filmIds[film] = filmId;
+        castOf[film] = EMPTY;
+        directorOf[film] = -1;
+        filmIndex.put(filmId, film);
+        return film;
+    }
+
+    private int actorIndexOrAdd(long actorId) {
+        int actor = actorIndex.get(actorId);
+        if (actor != LongIntHashMap.MISSING) {
+            return actor;
+        }
+        if (actorCount == filmsOfActor.length) {
+            filmsOfActor = Arrays.copyOf(filmsOfActor, Math.max(16, actorCount + (actorCount >> 1)));
+        }
+        actor = actorCount++;
+        filmsOfActor[actor] = EMPTY;
+        actorIndex.put(actorId, actor);
+        return actor;
+    }
+
+    private int directorIndexOrAdd(long directorId) {
+        int director = directorIndex.get(directorId);
+        if (director != LongIntHashMap.MISSING) {
+            return director;
+        }
+        if (directorCount == filmsOfDirector.length) {
+            filmsOfDirector = Arrays.copyOf(filmsOfDirector, Math.max(16, directorCount + (directorCount >> 1)));
+        }
+        director = directorCount++;
+        filmsOfDirector[director] = EMPTY;
+        directorIndex.put(directorId, director);
+        return director;
+    }
+
+    // Les lignes ne sont jamais modifiées sur place : on en construit une nouvelle
+    private static int[] with(int[] row, int value) {
+        int position = Arrays.binarySearch(row, value);
+        if (position >= 0) {
+            return row;
+        }
+        int insertAt = -position - 1;
+        int[] copy = new int[row.length + 1];
+        System.arraycopy(row, 0, copy, 0, insertAt);
+        copy[insertAt] = value;
+        System.arraycopy(row, insertAt, copy, insertAt + 1, row.length - insertAt);
+        return copy;
+    }
+
+    private static int[] without(int[] row, int value) {
+        int position = Arrays.binarySearch(row, value);
+        if (position < 0) {
+            return row;
+        }
+        int[] copy = new int[row.length - 1];
+        System.arraycopy(row, 0, copy, 0, position);
+        System.arraycopy(row, position + 1, copy, position, row.length - position - 1);
+        return copy;
+    }
+
+    // === Construction complète ===
+    // Les paires (film, acteur) sont encodées dans des long (indice haut << 32 | indice bas) puis triées
+    // avec Arrays.parallelSort (fork/join) : chaque ligne de la table devient une tranche contiguë du tableau trié.
+    // Les tranches sont ensuite découpées en parallèle.
+    public static class Builder {
+
+        private long[] films = new long[1024];
+        private long[] directors = new long[1024];
+        private int filmSize;
+
+        private long[] castFilms = new long[4096];
+        private long[] castActors = new long[4096];
+        private int castSize;
+
+        public Builder addFilm(long filmId, Long directorId) {
+            if (filmSize == films.length) {
+                films = Arrays.copyOf(films, filmSize * 2);
+                directors = Arrays.copyOf(directors, filmSize * 2);
+            }
+            films[filmSize] = filmId;
+            directors[filmSize] = directorId == null ? NONE : directorId;
+            filmSize++;
+            return this;
+        }
+
+        public Builder addCast(long filmId, long actorId) {
+            if (castSize == castFilms.length) {
+                castFilms = Arrays.copyOf(castFilms, castSize * 2);
+                castActors = Arrays.copyOf(castActors, castSize * 2);
+            }
+            castFilms[castSize] = filmId;
+            castActors[castSize] = actorId;
+            castSize++;
+            return this;
+        }
+
+        public RelatedFilmsGraph build() {
+            // Films : indice dense = rang dans la liste triée des identifiants
+            long[] filmIds = Arrays.copyOf(films, filmSize);
+            Arrays.parallelSort(filmIds);
+            LongIntHashMap filmIndex = indexOf(filmIds);
+
+            long[] directorIds = distinct(Arrays.copyOf(directors, filmSize));
+            LongIntHashMap directorIndex = indexOf(directorIds);
+            long[] actorIds = distinct(Arrays.copyOf(castActors, castSize));
+            LongIntHashMap actorIndex = indexOf(actorIds);
+
+            int[] directorOf = new int[filmSize];
+            long[] filmsByDirector = new long[filmSize];
+            IntStream.range(0, filmSize).parallel().forEach(i -> {
+                int film = filmIndex.get(films[i]);
+                int director = directors[i] == NONE ? -1 : directorIndex.get(directors[i]);
+                directorOf[film] = director;
+                filmsByDirector[i] = director < 0 ? Long.MAX_VALUE : pack(director, film);
+            });
+
+            // Paires (acteur, film) et (film, acteur) ; une paire dont le film est inconnu est écartée
+            long[] byActor = new long[castSize];
+            long[] byFilm = new long[castSize];
+            IntStream.range(0, castSize).parallel().forEach(i -> {
+                int film = filmIndex.get(castFilms[i]);
+                int actor = actorIndex.get(castActors[i]);
+                byActor[i] = film < 0 ? Long.MAX_VALUE : pack(actor, film);
+                byFilm[i] = film < 0 ? Long.MAX_VALUE : pack(film, actor);
+            });
+            Arrays.parallelSort(byActor);
+            Arrays.parallelSort(byFilm);
+            Arrays.parallelSort(filmsByDirector);
+
+            return new RelatedFilmsGraph(
+                    filmIndex, filmIds, rows(byFilm, filmIds.length), directorOf,
+                    actorIndex, rows(byActor, actorIds.length),
+                    directorIndex, rows(filmsByDirector, directorIds.length));
+        }
+
+        private static long pack(int high, int low) {
+            return ((long) high << 32) | (low & 0xFFFFFFFFL);
+        }
+
+        // Découpe un tableau trié de paires (ligne << 32 | valeur) en une ligne triée et dédoublonnée par indice
+        private static int[][] rows(long[] sortedPairs, int rowCount) {
+            int[] start = new int[rowCount + 1];
+            int valid = 0;
+            while (valid < sortedPairs.length && sortedPairs[valid] != Long.MAX_VALUE) {
+                start[(int) (sortedPairs[valid] >>> 32) + 1]++;
+                valid++;
+            }
+            for (int r = 0; r < rowCount; r++) {
+                start[r + 1] += start[r];
+            }
+            int[][] rows = new int[rowCount][];
+            IntStream.range(0, rowCount).parallel().forEach(r -> {
+                int from = start[r];
+                int to = start[r + 1];
+                if (from == to) {
+                    rows[r] = EMPTY;
+                    return;
+                }
+                int[] row = new int[to - from];
+                int size = 0;
+                for (int i = from; i < to; i++) {
+                    int value = (int) sortedPairs[i];
+                    if (size == 0 || row[size - 1] != value) {
+                        row[size++] = value;
+                    }
+                }
+                rows[r] = size == row.length ? row : Arrays.copyOf(row, size);
+            });
+            return rows;
+        }
+
+        private static long[] distinct(long[] values) {
+            Arrays.parallelSort(values);
+            int size = 0;
+            for (long value : values) {
+                if (value != NONE && (size == 0 || values[size - 1] != value)) {
+                    values[size++] = value;
+                }
+            }
+            return Arrays.copyOf(values, size);
+        }
+
+        private static LongIntHashMap indexOf(long[] sortedIds) {
+            LongIntHashMap index = new LongIntHashMap(sortedIds.length);
+            for (int i = 0; i < sortedIds.length; i++) {
+                index.put(sortedIds[i], i);
+            }
+            return index;
+        }
+    }
+
+    // Scores accumulés pendant une requête, par indice de film voisin (adressage ouvert, tableaux primitifs)
+    private static final class ScoreAccumulator {
+
+        private final int[] keys;
+        private final float[] scores;
+        private final int[] sharedActors;
+        private final boolean[] sameDirector;
+        private final int mask;
+        private int size;
+
+        ScoreAccumulator(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+            keys = new int[capacity];
+            Arrays.fill(keys, -1);
+            scores = new float[capacity];
+            sharedActors = new int[capacity];
+            sameDirector = new boolean[capacity];
+            mask = capacity - 1;
+        }
+
+        void addActor(int film, float weight) {
+            int slot = slot(film);
+            scores[slot] += weight;
+            sharedActors[slot]++;
+        }
+
+        void addDirector(int film, float weight) {
+            int slot = slot(film);
+            scores[slot] += weight;
+            sameDirector[slot] = true;
+        }
+
+        private int slot(int film) {
+            int slot = (film * 0x9E3779B9) & mask;
+            while (keys[slot] != -1 && keys[slot] != film) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == -1) {
+                keys[slot] = film;
+                size++;
+            }
+            return slot;
+        }
+
+        // Sélection des k meilleurs avec un tas-min de taille k (O(n log k)), puis tri des k retenus
+        List<RelatedFilm> top(int k, long[] filmIds) {
+            int[] heap = new int[Math.min(k, size)];
+            int heapSize = 0;
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] == -1) {
+                    continue;
+                }
+                if (heapSize < heap.length) {
+                    heap[heapSize] = slot;
+                    siftUp(heap, heapSize++, filmIds);
+                } else if (better(slot, heap[0], filmIds)) {
+                    heap[0] = slot;
+                    siftDown(heap, heapSize, filmIds);
+                }
+            }
+            List<RelatedFilm> result = new ArrayList<>(heapSize);
+            while (heapSize > 0) {
+                int slot = heap[0];
+                result.add(new RelatedFilm(filmIds[keys[slot]], scores[slot], sharedActors[slot], sameDirector[slot]));
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize, filmIds);
+            }
+            // Le tas rend les films du moins bon au meilleur
+            Collections.reverse(result);
+            return result;
+        }
+
+        // Score décroissant, puis identifiant croissant pour un ordre stable
+        private boolean better(int a, int b, long[] filmIds) {
+            if (scores[a] != scores[b]) {
+                return scores[a] > scores[b];
+            }
+            return filmIds[keys[a]] < filmIds[keys[b]];
+        }
+
+        private void siftUp(int[] heap, int index, long[] filmIds) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!better(heap[parent], heap[index], filmIds)) {
+                    break;
+                }
+                swap(heap, parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int size, long[] filmIds) {
+            int index = 0;
+            while (true) {
+                int left = 2 * index + 1;
+                if (left >= size) {
+                    return;
+                }
+                int worst = left;
+                int right = left + 1;
+                if (right < size && better(heap[left], heap[right], filmIds)) {
+                    worst = right;
+                }
+                if (!better(heap[index], heap[worst], filmIds)) {
+                    return;
+                }
+                swap(heap, index, worst);
+                index = worst;
+            }
+        }
+
+        private static void swap(int[] heap, int i, int j) {
+            int tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+        }
+    }
+}
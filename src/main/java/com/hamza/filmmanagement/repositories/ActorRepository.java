@@ -1,17 +1,54 @@
 package com.hamza.filmmanagement.repositories;
 
+import com.hamza.filmmanagement.entities.CacheRegions;
 import com.hamza.filmmanagement.entities.Actor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository // Cette annotation indique à Spring que cette interface est un composant DAO (Data Access Object) et qu'elle est responsable de l'accès aux données. Spring va automatiquement gérer cette interface comme un bean de type repository.
 public interface ActorRepository extends JpaRepository<Actor, Long> {
 
 
     @Query("SELECT COUNT(f) FROM Film f JOIN f.actors a WHERE a.id = :actorId")
     long countFilmsByActorId(@Param("actorId") Long actorId);
+
+    // Liste complète triée par id (ordre d'insertion) : sans ORDER BY, la base peut parcourir
+    // l'index unique de la clé naturelle et renvoyer les lignes triées par prénom.
+    // Résultat en cache de requêtes (invalidé par Hibernate à chaque écriture sur la table)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PERSON_QUERIES)
+    })
+    @Query("SELECT a FROM Actor a ORDER BY a.id ASC")
+    List<Actor> findAll();
+
+    // Page suivante par curseur : les acteurs dont l'id est supérieur au dernier id lu (parcours de l'index primaire)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PERSON_QUERIES)
+    })
+    List<Actor> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    // Noms de tous les acteurs, lus en flux sans créer d'entités (construction de l'index d'autocomplétion)
+    @Query("SELECT a.id AS id, a.firstName AS firstName, a.lastName AS lastName FROM Actor a")
+    Stream<PersonNameView> streamAllNames();
+
+    // Validateurs HTTP (ETag / Last-Modified), calculés sans charger d'entité
+    @Query("SELECT COUNT(a) AS count, MAX(a.id) AS maxId, SUM(a.version) AS versionSum FROM Actor a")
+    TableVersionView findTableVersion();
+
+    @Query("SELECT a.version AS version, a.updatedAt AS updatedAt FROM Actor a WHERE a.id = :id")
+    Optional<RowVersionView> findVersionById(@Param("id") Long id);
     // JpaRepository fournit des méthodes de gestion de base de données sans avoir à les implémenter manuellement.
     // Cette interface étend JpaRepository, qui est une interface de Spring Data JPA, permettant d'effectuer des opérations CRUD (Create, Read, Update, Delete) de manière simple et sans code supplémentaire.
 
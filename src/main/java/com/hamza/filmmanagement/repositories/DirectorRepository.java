@@ -1,7 +1,46 @@
 package com.hamza.filmmanagement.repositories;
 
+import com.hamza.filmmanagement.entities.CacheRegions;
 import com.hamza.filmmanagement.entities.Director;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface DirectorRepository extends JpaRepository<Director, Long> {
+
+    // Liste complète triée par id (ordre d'insertion) : sans ORDER BY, la base peut parcourir
+    // l'index unique de la clé naturelle et renvoyer les lignes triées par prénom.
+    // Résultat en cache de requêtes (invalidé par Hibernate à chaque écriture sur la table)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PERSON_QUERIES)
+    })
+    @Query("SELECT d FROM Director d ORDER BY d.id ASC")
+    List<Director> findAll();
+
+    // Page suivante par curseur : les réalisateurs dont l'id est supérieur au dernier id lu
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PERSON_QUERIES)
+    })
+    List<Director> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    // Noms de tous les réalisateurs, lus en flux sans créer d'entités (construction de l'index d'autocomplétion)
+    @Query("SELECT d.id AS id, d.firstName AS firstName, d.lastName AS lastName FROM Director d")
+    Stream<PersonNameView> streamAllNames();
+
+    // Validateurs HTTP (ETag / Last-Modified), calculés sans charger d'entité
+    @Query("SELECT COUNT(d) AS count, MAX(d.id) AS maxId, SUM(d.version) AS versionSum FROM Director d")
+    TableVersionView findTableVersion();
+
+    @Query("SELECT d.version AS version, d.updatedAt AS updatedAt FROM Director d WHERE d.id = :id")
+    Optional<RowVersionView> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,82 @@
+package com.hamza.filmmanagement.repositories;
+
+import com.hamza.filmmanagement.dto.FilmExportRow;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+
+// Lecture JDBC en flux du catalogue pour l'export (FilmExportService).
+// Les requêtes passent par un petit pool de connexions réservé à l'export, dont l'URL active le curseur côté serveur
+// (MySQL : useCursorFetch) : le résultat est lu par paquets de FETCH_SIZE lignes au lieu d'être chargé en entier.
+// Le pool principal garde des requêtes préparées côté client ; ce pool n'est pas un bean DataSource
+// et ne remplace donc pas celui de Spring Boot.
+@Repository
+public class FilmExportRepository {
+
+    // Nombre de lignes lues par aller-retour avec la base
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_CATALOG = "SELECT f.id, f.title, f.description, f.release_date, f.poster, "
+            + "d.id AS director_id, d.first_name AS director_first_name, d.last_name AS director_last_name "
+            + "FROM film f LEFT JOIN director d ON d.id = f.director_id ORDER BY f.id ASC";
+
+    // Reçoit chaque ligne au fil de la lecture
+    @FunctionalInterface
+    public interface RowWriter {
+        void write(FilmExportRow row) throws IOException;
+    }
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public FilmExportRepository(@Value("${film.export.datasource.url:${spring.datasource.url}}") String url,
+                                @Value("${spring.datasource.username:}") String username,
+                                @Value("${spring.datasource.password:}") String password,
+                                @Value("${film.export.datasource.max-pool-size:2}") int maxPoolSize) {
+        // Connexions ouvertes à la première demande d'export seulement
+        this.dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password).build();
+        this.dataSource.setPoolName("film-export");
+        this.dataSource.setMaximumPoolSize(maxPoolSize);
+        this.dataSource.setMinimumIdle(0);
+        this.dataSource.setReadOnly(true);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    // Parcourt tout le catalogue par id croissant ; une erreur d'écriture interrompt la lecture
+    public void forEachFilm(RowWriter writer) throws IOException {
+        try {
+            jdbcTemplate.query(SELECT_CATALOG, rs -> {
+                FilmExportRow row = new FilmExportRow(
+                        rs.getLong("id"),
+                        rs.getString("title"),
+                        rs.getString("description"),
+                        rs.getObject("release_date", LocalDate.class),
+                        rs.getString("poster"),
+                        rs.getObject("director_id", Long.class),
+                        rs.getString("director_first_name"),
+                        rs.getString("director_last_name"));
+                try {
+                    writer.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        dataSource.close();
+    }
+}
@@ -0,0 +1,16 @@
+package com.hamza.filmmanagement.repositories;
+
+import com.hamza.filmmanagement.dto.FacetCount;
+import com.hamza.filmmanagement.dto.FilmQueryFilter;
+
+import java.util.List;
+
+// Compteurs de facettes sur les films, calculés en base par des GROUP BY (aucune entité n'est chargée)
+public interface FilmFacetRepository {
+
+    List<FacetCount> countByReleaseYear(FilmQueryFilter filter);
+
+    List<FacetCount> countByDirectorNationality(FilmQueryFilter filter);
+
+    List<FacetCount> countByDirector(FilmQueryFilter filter, int limit);
+}
@@ -0,0 +1,99 @@
+package com.hamza.filmmanagement.repositories;
+
+import com.hamza.filmmanagement.dto.FacetCount;
+import com.hamza.filmmanagement.dto.FilmQueryFilter;
+import com.hamza.filmmanagement.entities.Director;
+import com.hamza.filmmanagement.entities.Film;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.List;
+
+// Implémentation Criteria des compteurs de facettes (fragment de FilmRepository).
+// Chaque facette est une requête d'agrégation qui reprend les critères du filtre courant.
+class FilmFacetRepositoryImpl implements FilmFacetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<FacetCount> countByReleaseYear(FilmQueryFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Film> root = query.from(Film.class);
+        Expression<Integer> year = cb.function("year", Integer.class, root.get("releaseDate"));
+        Expression<Long> count = cb.count(root);
+
+        query.multiselect(year.alias("year"), count.alias("count"))
+                .where(filterPredicate(filter, root, query, cb), cb.isNotNull(root.get("releaseDate")))
+                .groupBy(year)
+                .orderBy(cb.asc(year));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(row -> {
+                    String value = String.valueOf(row.get("year", Integer.class));
+                    return new FacetCount(value, value, row.get("count", Long.class));
+                })
+                .toList();
+    }
+
+    @Override
+    public List<FacetCount> countByDirectorNationality(FilmQueryFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Film> root = query.from(Film.class);
+        Join<Film, Director> director = root.join("director", JoinType.INNER);
+        Expression<String> nationality = director.get("nationality");
+        Expression<Long> count = cb.count(root);
+
+        query.multiselect(nationality.alias("nationality"), count.alias("count"))
+                .where(filterPredicate(filter, root, query, cb))
+                .groupBy(nationality)
+                .orderBy(cb.desc(count));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(row -> {
+                    String value = row.get("nationality", String.class);
+                    return new FacetCount(value, value, row.get("count", Long.class));
+                })
+                .toList();
+    }
+
+    @Override
+    public List<FacetCount> countByDirector(FilmQueryFilter filter, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Film> root = query.from(Film.class);
+        Join<Film, Director> director = root.join("director", JoinType.INNER);
+        Expression<Long> count = cb.count(root);
+
+        query.multiselect(
+                        director.get("id").alias("id"),
+                        director.get("firstName").alias("firstName"),
+                        director.get("lastName").alias("lastName"),
+                        count.alias("count"))
+                .where(filterPredicate(filter, root, query, cb))
+                .groupBy(director.get("id"), director.get("firstName"), director.get("lastName"))
+                .orderBy(cb.desc(count));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList().stream()
+                .map(row -> new FacetCount(
+                        String.valueOf(row.get("id", Long.class)),
+                        row.get("firstName", String.class) + " " + row.get("lastName", String.class),
+                        row.get("count", Long.class)))
+                .toList();
+    }
+
+    private Predicate filterPredicate(FilmQueryFilter filter, Root<Film> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Predicate predicate = FilmSpecifications.matching(filter).toPredicate(root, query, cb);
+        return predicate == null ? cb.conjunction() : predicate;
+    }
+}
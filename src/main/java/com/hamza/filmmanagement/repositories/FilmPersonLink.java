@@ -0,0 +1,8 @@
+package com.hamza.filmmanagement.repositories;
+
+// Projection d'un lien film -> personne (acteur ou réalisateur), sans charger d'entités
+public interface FilmPersonLink {
+    Long getFilmId();
+
+    Long getPersonId();
+}
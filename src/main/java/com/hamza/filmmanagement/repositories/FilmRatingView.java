@@ -0,0 +1,16 @@
+package com.hamza.filmmanagement.repositories;
+
+import java.time.LocalDate;
+
+// Projection des agrégats de notes d'un film, utilisée pour alimenter les classements sans charger d'entités
+public interface FilmRatingView {
+    Long getId();
+
+    String getTitle();
+
+    LocalDate getReleaseDate();
+
+    long getRatingCount();
+
+    long getRatingSum();
+}
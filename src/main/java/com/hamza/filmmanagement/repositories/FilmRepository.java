@@ -1,11 +1,131 @@
 package com.hamza.filmmanagement.repositories;
 
 import com.hamza.filmmanagement.entities.Film;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface FilmRepository extends JpaRepository<Film, Long> {
+public interface FilmRepository extends JpaRepository<Film, Long>, JpaSpecificationExecutor<Film>, FilmFacetRepository {
 
     List<Film> findAll();
+
+    // Charge un film avec son réalisateur et ses acteurs en une seule requête (jointures),
+    // quel que soit le nombre d'acteurs
+    @EntityGraph(Film.DETAIL_GRAPH)
+    Optional<Film> findDetailById(Long id);
+
+    // Même chargement pour un paquet de films (films importés)
+    @EntityGraph(Film.DETAIL_GRAPH)
+    List<Film> findDetailByIdIn(Collection<Long> ids);
+
+    // === Pagination par curseur (keyset) ===
+    // Chaque requête reprend là où la page précédente s'est arrêtée (WHERE sur la clé de tri)
+    // au lieu d'utiliser un OFFSET : le coût d'une page ne dépend pas de sa position.
+    // Le Pageable passé est toujours la page 0, il ne sert qu'à poser le LIMIT.
+
+    @Query("SELECT f FROM Film f WHERE f.id > :afterId ORDER BY f.id ASC")
+    List<Film> findPageById(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Tris sur une colonne nullable (titre, date de sortie) : les films ayant une valeur sont parcourus seuls,
+    // par comparaison de tuples (valeur, id) que MySQL sert par un intervalle de l'index composite ; les films sans
+    // valeur viennent ensuite, par id (FilmService passe d'une requête à l'autre)
+
+    @Query("SELECT f FROM Film f WHERE f.title IS NOT NULL ORDER BY f.title ASC, f.id ASC")
+    List<Film> findFirstPageByTitle(Pageable pageable);
+
+    @Query("SELECT f FROM Film f WHERE f.title IS NOT NULL AND (f.title, f.id) > (:title, :afterId) " +
+            "ORDER BY f.title ASC, f.id ASC")
+    List<Film> findPageByTitle(@Param("title") String title, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT f FROM Film f WHERE f.title IS NULL AND f.id > :afterId ORDER BY f.id ASC")
+    List<Film> findPageWithoutTitle(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT f FROM Film f WHERE f.releaseDate IS NOT NULL ORDER BY f.releaseDate ASC, f.id ASC")
+    List<Film> findFirstPageByReleaseDate(Pageable pageable);
+
+    @Query("SELECT f FROM Film f WHERE f.releaseDate IS NOT NULL AND (f.releaseDate, f.id) > (:releaseDate, :afterId) " +
+            "ORDER BY f.releaseDate ASC, f.id ASC")
+    List<Film> findPageByReleaseDate(@Param("releaseDate") LocalDate releaseDate, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT f FROM Film f WHERE f.releaseDate IS NULL AND f.id > :afterId ORDER BY f.id ASC")
+    List<Film> findPageWithoutReleaseDate(@Param("afterId") Long afterId, Pageable pageable);
+
+    // === Agrégats des notes ===
+
+    // Applique une variation aux agrégats d'un film par incrément SQL (atomique, sans lecture préalable) :
+    // +1/-1 sur le nombre de votes et sur la case de l'histogramme, +/- score sur la somme
+    @Modifying
+    @Query("UPDATE Film f SET f.ratingCount = f.ratingCount + :countDelta, f.ratingSum = f.ratingSum + :sumDelta, " +
+            "f.ratingHist1 = f.ratingHist1 + :hist1, f.ratingHist2 = f.ratingHist2 + :hist2, f.ratingHist3 = f.ratingHist3 + :hist3, " +
+            "f.ratingHist4 = f.ratingHist4 + :hist4, f.ratingHist5 = f.ratingHist5 + :hist5 WHERE f.id = :filmId")
+    int applyRatingDelta(@Param("filmId") Long filmId, @Param("countDelta") long countDelta, @Param("sumDelta") long sumDelta,
+                         @Param("hist1") long hist1, @Param("hist2") long hist2, @Param("hist3") long hist3,
+                         @Param("hist4") long hist4, @Param("hist5") long hist5);
+
+    // Recalcule les agrégats d'une tranche de films à partir de la table rating (job de réconciliation)
+    @Modifying
+    @Query("UPDATE Film f SET " +
+            "f.ratingCount = (SELECT COUNT(r) FROM Rating r WHERE r.film = f), " +
+            "f.ratingSum = (SELECT COALESCE(SUM(r.score), 0) FROM Rating r WHERE r.film = f), " +
+            "f.ratingHist1 = (SELECT COUNT(r) FROM Rating r WHERE r.film = f AND r.score = 1), " +
+            "f.ratingHist2 = (SELECT COUNT(r) FROM Rating r WHERE r.film = f AND r.score = 2), " +
+            "f.ratingHist3 = (SELECT COUNT(r) FROM Rating r WHERE r.film = f AND r.score = 3), " +
+            "f.ratingHist4 = (SELECT COUNT(r) FROM Rating r WHERE r.film = f AND r.score = 4), " +
+            "f.ratingHist5 = (SELECT COUNT(r) FROM Rating r WHERE r.film = f AND r.score = 5) " +
+            "WHERE f.id > :afterId AND f.id <= :toId")
+    int reconcileRatingAggregates(@Param("afterId") Long afterId, @Param("toId") Long toId);
+
+    // Films ayant au moins un vote, lus en flux pour (re)construire les classements
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT f.id AS id, f.title AS title, f.releaseDate AS releaseDate, f.ratingCount AS ratingCount, f.ratingSum AS ratingSum " +
+            "FROM Film f WHERE f.ratingCount > 0")
+    Stream<FilmRatingView> streamRatedFilms();
+
+    @Query("SELECT f.id AS id, f.title AS title, f.releaseDate AS releaseDate, f.ratingCount AS ratingCount, f.ratingSum AS ratingSum " +
+            "FROM Film f WHERE f.id IN :ids")
+    List<FilmRatingView> findRatingViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // === Liens films / personnes pour le graphe des films proches (projections lues en flux) ===
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT f.id AS filmId, f.director.id AS personId FROM Film f")
+    Stream<FilmPersonLink> streamDirectorLinks();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT f.id AS filmId, a.id AS personId FROM Film f JOIN f.actors a")
+    Stream<FilmPersonLink> streamActorLinks();
+
+    // Films d'une personne, à réindexer quand son nom change
+    @Query("SELECT f.id FROM Film f WHERE f.director.id = :directorId")
+    List<Long> findIdsByDirectorId(@Param("directorId") Long directorId);
+
+    @Query("SELECT f.id FROM Film f JOIN f.actors a WHERE a.id = :actorId")
+    List<Long> findIdsByActorId(@Param("actorId") Long actorId);
+
+    @Query("SELECT COALESCE(MAX(f.id), 0) FROM Film f")
+    Long findMaxId();
+
+    // === Validateurs HTTP (ETag), calculés par agrégats sans charger de film ===
+
+    @Query("SELECT COUNT(f) AS count, MAX(f.id) AS maxId, SUM(f.version) AS versionSum, " +
+            "SUM(f.id * (f.ratingCount + 8 * f.ratingSum)) AS ratingChecksum FROM Film f")
+    FilmTableVersionView findTableVersion();
+
+    @Query("SELECT f.version AS version, f.ratingCount AS ratingCount, f.ratingSum AS ratingSum, d.version AS directorVersion, " +
+            "(SELECT COALESCE(SUM(a.version), 0) FROM Film f2 JOIN f2.actors a WHERE f2.id = f.id) AS actorsVersion " +
+            "FROM Film f LEFT JOIN f.director d WHERE f.id = :id")
+    Optional<FilmVersionView> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,70 @@
+package com.hamza.filmmanagement.repositories;
+
+import com.hamza.filmmanagement.dto.FilmQueryFilter;
+import com.hamza.filmmanagement.entities.Actor;
+import com.hamza.filmmanagement.entities.Film;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Critères JPA réutilisables pour filtrer les films.
+// Ils servent à la fois à la page de résultats (FilmRepository) et aux compteurs de facettes (FilmFacetRepository).
+public final class FilmSpecifications {
+
+    private FilmSpecifications() {
+    }
+
+    public static Specification<Film> releasedFrom(LocalDate from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("releaseDate"), from);
+    }
+
+    public static Specification<Film> releasedTo(LocalDate to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("releaseDate"), to);
+    }
+
+    public static Specification<Film> directedBy(Long directorId) {
+        return (root, query, cb) -> cb.equal(root.get("director").get("id"), directorId);
+    }
+
+    public static Specification<Film> directorNationality(String nationality) {
+        return (root, query, cb) -> cb.equal(root.get("director").get("nationality"), nationality);
+    }
+
+    // Sous-requête sur la table de jointure film_actor plutôt qu'une jointure directe :
+    // un film n'apparaît qu'une fois et les GROUP BY des facettes ne sont pas faussés
+    public static Specification<Film> withActor(Long actorId) {
+        return (root, query, cb) -> {
+            Subquery<Long> filmsOfActor = query.subquery(Long.class);
+            Root<Film> film = filmsOfActor.from(Film.class);
+            Join<Film, Actor> actor = film.join("actors");
+            filmsOfActor.select(film.get("id")).where(cb.equal(actor.get("id"), actorId));
+            return root.get("id").in(filmsOfActor);
+        };
+    }
+
+    // Combine les critères renseignés du filtre (aucun critère = tous les films)
+    public static Specification<Film> matching(FilmQueryFilter filter) {
+        List<Specification<Film>> specifications = new ArrayList<>();
+        if (filter.getReleasedFrom() != null) {
+            specifications.add(releasedFrom(filter.getReleasedFrom()));
+        }
+        if (filter.getReleasedTo() != null) {
+            specifications.add(releasedTo(filter.getReleasedTo()));
+        }
+        if (filter.getDirectorId() != null) {
+            specifications.add(directedBy(filter.getDirectorId()));
+        }
+        if (filter.getDirectorNationality() != null && !filter.getDirectorNationality().isBlank()) {
+            specifications.add(directorNationality(filter.getDirectorNationality()));
+        }
+        if (filter.getActorId() != null) {
+            specifications.add(withActor(filter.getActorId()));
+        }
+        return Specification.allOf(specifications);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hamza.filmmanagement.repositories;
+
+// Résumé de la table film, complété par une somme des agrégats de notes pondérée par l'id du film
+// (les notes ne font pas bouger la version des films)
+public interface FilmTableVersionView extends TableVersionView {
+    Long getRatingChecksum();
+}
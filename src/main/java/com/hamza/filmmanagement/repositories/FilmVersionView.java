@@ -0,0 +1,15 @@
+package com.hamza.filmmanagement.repositories;
+
+// Tout ce dont dépend la fiche d'un film : sa version, ses agrégats de notes,
+// et les versions de son réalisateur et de ses acteurs (leurs noms y figurent)
+public interface FilmVersionView {
+    long getVersion();
+
+    long getRatingCount();
+
+    long getRatingSum();
+
+    Long getDirectorVersion();
+
+    Long getActorsVersion();
+}
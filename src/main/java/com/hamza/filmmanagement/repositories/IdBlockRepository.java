@@ -0,0 +1,69 @@
+package com.hamza.filmmanagement.repositories;
+
+import com.hamza.filmmanagement.entities.IdGenerators;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Accès JDBC à la table des compteurs d'identifiants (IdGenerators), partagée avec Hibernate.
+// Sert aux écritures hors JPA (INSERT JDBC en lots) et à l'alignement des compteurs sur les lignes existantes.
+// Chaque opération s'exécute dans sa propre transaction, comme la lecture du compteur par Hibernate :
+// le verrou sur la ligne du compteur n'est jamais gardé jusqu'à la fin de la transaction appelante.
+@Repository
+public class IdBlockRepository {
+
+    private static final String SELECT_FOR_UPDATE = "SELECT " + IdGenerators.VALUE_COLUMN + " FROM " + IdGenerators.TABLE
+            + " WHERE " + IdGenerators.KEY_COLUMN + " = ? FOR UPDATE";
+    private static final String UPDATE = "UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN + " = ? WHERE "
+            + IdGenerators.KEY_COLUMN + " = ?";
+    private static final String INSERT = "INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.KEY_COLUMN + ", "
+            + IdGenerators.VALUE_COLUMN + ") VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public IdBlockRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Réserve count identifiants consécutifs pour la table donnée et renvoie le premier.
+    // Le compteur avance d'un nombre entier de blocs, exactement comme autant de réservations Hibernate :
+    // les blocs distribués ensuite par Hibernate commencent après ceux-ci.
+    public long allocate(String table, int count) {
+        int blocks = (count + IdGenerators.ALLOCATION_SIZE - 1) / IdGenerators.ALLOCATION_SIZE;
+        return transactionTemplate.execute(status -> {
+            long hi = lockCounter(table);
+            jdbcTemplate.update(UPDATE, hi + (long) blocks * IdGenerators.ALLOCATION_SIZE, table);
+            return hi - IdGenerators.ALLOCATION_SIZE + 1;
+        });
+    }
+
+    // Place le compteur de la table après son plus grand id (lignes créées avant le passage de IDENTITY
+    // aux compteurs, ou insérées sans passer par le compteur). Ne recule jamais un compteur.
+    // Renvoie la valeur du compteur après alignement.
+    public long alignWithTable(String table) {
+        return transactionTemplate.execute(status -> lockCounter(table));
+    }
+
+    // Verrouille la ligne du compteur et renvoie sa valeur, après l'avoir créée ou avancée au-delà de MAX(id) si besoin
+    private long lockCounter(String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        long required = maxId + IdGenerators.ALLOCATION_SIZE;
+        List<Long> current = jdbcTemplate.queryForList(SELECT_FOR_UPDATE, Long.class, table);
+        if (current.isEmpty()) {
+            jdbcTemplate.update(INSERT, table, required);
+            return required;
+        }
+        if (current.get(0) < required) {
+            jdbcTemplate.update(UPDATE, required, table);
+            return required;
+        }
+        return current.get(0);
+    }
+}
@@ -0,0 +1,30 @@
+package com.hamza.filmmanagement.repositories;
+
+import com.hamza.filmmanagement.entities.OutboxEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+    // Emails à envoyer maintenant, les plus anciens d'abord
+    @Query("SELECT e.id FROM OutboxEmail e WHERE e.status = com.hamza.filmmanagement.entities.OutboxEmail.Status.PENDING " +
+            "AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<Long> findDueIds(@Param("now") Instant now, Pageable pageable);
+
+    // Réservation d'un email pour un envoi : repousse sa prochaine tentative à la fin du bail.
+    // 0 ligne modifiée = déjà réservé par un autre dispatcher (autre nœud) ou déjà traité.
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.nextAttemptAt = :leaseUntil WHERE e.id = :id " +
+            "AND e.status = com.hamza.filmmanagement.entities.OutboxEmail.Status.PENDING AND e.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") Instant now, @Param("leaseUntil") Instant leaseUntil);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEmail e WHERE e.status = com.hamza.filmmanagement.entities.OutboxEmail.Status.SENT AND e.sentAt < :before")
+    int deleteSentBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,88 @@
+package com.hamza.filmmanagement.repositories;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Accès JDBC en lots aux tables actor et director (mêmes colonnes), utilisé par l'upsert en masse.
+// La clé naturelle (prénom, nom, nationalité) est couverte par un index unique sur chaque table.
+// Les méthodes doivent être appelées dans une transaction.
+@Repository
+public class PersonBatchRepository {
+
+    // Tables autorisées : le nom est concaténé dans le SQL
+    private static final Set<String> TABLES = Set.of("actor", "director");
+
+    // Clé naturelle d'une personne. La comparaison ignore la casse et les accents,
+    // comme la collation par défaut de MySQL (utf8mb4_0900_ai_ci) qui porte l'index unique.
+    public record PersonKey(String firstName, String lastName, String nationality) {
+
+        private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+        public String normalized() {
+            String key = firstName + '\u0000' + lastName + '\u0000' + nationality;
+            return COMBINING_MARKS.matcher(Normalizer.normalize(key, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public PersonBatchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Ids des personnes déjà enregistrées parmi les clés données, indexés par clé normalisée.
+    // Une seule requête : filtre large sur les noms, puis correspondance exacte en mémoire.
+    public Map<String, Long> findIds(String table, Collection<PersonKey> keys) {
+        checkTable(table);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("lastNames", keys.stream().map(PersonKey::lastName).collect(Collectors.toSet()))
+                .addValue("firstNames", keys.stream().map(PersonKey::firstName).collect(Collectors.toSet()));
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, first_name, last_name, nationality FROM " + table
+                        + " WHERE last_name IN (:lastNames) AND first_name IN (:firstNames)", params,
+                rs -> {
+                    PersonKey key = new PersonKey(rs.getString("first_name"), rs.getString("last_name"), rs.getString("nationality"));
+                    ids.putIfAbsent(key.normalized(), rs.getLong("id"));
+                });
+        return ids;
+    }
+
+    // Insère les personnes en un seul lot JDBC avec les ids fournis (ids[i] pour keys[i]).
+    // updated_at est posé ici, @UpdateTimestamp n'étant appliqué que par Hibernate : sans lui, pas de Last-Modified sur la fiche
+    public void insert(String table, List<PersonKey> keys, List<Long> ids) {
+        checkTable(table);
+        Timestamp now = Timestamp.from(Instant.now());
+        List<MapSqlParameterSource> rows = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            PersonKey key = keys.get(i);
+            rows.add(new MapSqlParameterSource()
+                    .addValue("id", ids.get(i))
+                    .addValue("firstName", key.firstName())
+                    .addValue("lastName", key.lastName())
+                    .addValue("nationality", key.nationality())
+                    .addValue("updatedAt", now));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO " + table + " (id, first_name, last_name, nationality, updated_at) "
+                + "VALUES (:id, :firstName, :lastName, :nationality, :updatedAt)", rows.toArray(MapSqlParameterSource[]::new));
+    }
+
+    private static void checkTable(String table) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("Unsupported person table: " + table);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.hamza.filmmanagement.repositories;
+
+// Projection minimale (id + nom) utilisée pour construire l'index d'autocomplétion sans charger d'entités
+public interface PersonNameView {
+    Long getId();
+
+    String getFirstName();
+
+    String getLastName();
+}
@@ -0,0 +1,54 @@
+package com.hamza.filmmanagement.repositories;
+
+import com.hamza.filmmanagement.entities.PosterBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PosterBlobRepository extends JpaRepository<PosterBlob, String> {
+
+    // Ligne verrouillée jusqu'à la fin de la transaction : ajout et retrait de références sur un même fichier
+    // s'exécutent l'un après l'autre (un fichier ne peut pas être supprimé pendant qu'une référence est ajoutée)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM PosterBlob b WHERE b.hash = :hash")
+    Optional<PosterBlob> findForUpdate(@Param("hash") String hash);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM PosterBlob b WHERE b.fileName = :fileName")
+    Optional<PosterBlob> findForUpdateByFileName(@Param("fileName") String fileName);
+
+    // Ajout d'une référence par incrément SQL (atomique, sans lecture préalable) ; la ligne reste verrouillée
+    // jusqu'au commit. 0 ligne modifiée = contenu encore inconnu.
+    @Modifying
+    @Query("UPDATE PosterBlob b SET b.refCount = b.refCount + 1 WHERE b.hash = :hash")
+    int incrementRefCount(@Param("hash") String hash);
+
+    // Référence supplémentaire sur un fichier désigné par son nom (import de films). 0 ligne modifiée = aucun fichier stocké sous ce nom.
+    @Modifying
+    @Query("UPDATE PosterBlob b SET b.refCount = b.refCount + 1 WHERE b.fileName = :fileName")
+    int incrementRefCountByFileName(@Param("fileName") String fileName);
+
+    @Query("SELECT b.fileName FROM PosterBlob b WHERE b.fileName IN :fileNames")
+    List<String> findFileNamesIn(@Param("fileNames") Collection<String> fileNames);
+
+    // Première référence d'un contenu : INSERT simple (jamais de fusion avec une ligne insérée entre-temps par une autre
+    // requête, qui écraserait son compteur) ; clé en double si le même contenu vient d'être enregistré
+    @Modifying
+    @Query(value = "INSERT INTO poster_blob (hash, file_name, size, ref_count, created_at) VALUES (:hash, :fileName, :size, 1, :createdAt)",
+            nativeQuery = true)
+    int insert(@Param("hash") String hash, @Param("fileName") String fileName, @Param("size") long size,
+               @Param("createdAt") Instant createdAt);
+
+    // Retrait d'une référence qui n'est pas la dernière. 0 ligne modifiée = dernière référence, ou ancien nom sans PosterBlob.
+    @Modifying
+    @Query("UPDATE PosterBlob b SET b.refCount = b.refCount - 1 WHERE b.fileName = :fileName AND b.refCount > 1")
+    int decrementRefCount(@Param("fileName") String fileName);
+}
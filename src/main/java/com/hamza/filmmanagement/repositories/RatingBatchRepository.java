@@ -0,0 +1,125 @@
+package com.hamza.filmmanagement.repositories;
+
+import com.hamza.filmmanagement.entities.IdGenerators;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Accès JDBC en lots à la table rating, utilisé par l'écriture différée des notes (RatingIngestionService).
+// Une poignée de requêtes par lot de votes, quel que soit le nombre de votes, au lieu d'une transaction JPA par vote.
+// Les méthodes doivent être appelées dans une transaction.
+@Repository
+public class RatingBatchRepository {
+
+    // Note déjà enregistrée pour un couple (utilisateur, film)
+    public record ExistingRating(long id, long userId, long filmId, int score) {
+    }
+
+    // Nouvelle note à insérer, ou note existante (id, note lue previousScore) à modifier
+    public record RatingWrite(Long id, long userId, long filmId, Integer previousScore, int score) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final IdBlockRepository idBlockRepository;
+
+    public RatingBatchRepository(NamedParameterJdbcTemplate jdbcTemplate, IdBlockRepository idBlockRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idBlockRepository = idBlockRepository;
+    }
+
+    public Map<String, Long> findUserIdsByEmail(Collection<String> emails) {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, email FROM users WHERE email IN (:emails)",
+                new MapSqlParameterSource("emails", emails),
+                rs -> {
+                    ids.put(rs.getString("email"), rs.getLong("id"));
+                });
+        return ids;
+    }
+
+    public Set<Long> findExistingFilmIds(Collection<Long> filmIds) {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM film WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", filmIds), Long.class));
+    }
+
+    // Sur-ensemble des couples demandés (produit utilisateurs x films), filtré ensuite par l'appelant :
+    // reste une seule requête servie par l'index unique (user_id, film_id)
+    public List<ExistingRating> findRatings(Collection<Long> userIds, Collection<Long> filmIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userIds", userIds)
+                .addValue("filmIds", filmIds);
+        return jdbcTemplate.query("SELECT id, user_id, film_id, score FROM rating WHERE user_id IN (:userIds) AND film_id IN (:filmIds)",
+                params,
+                (rs, rowNum) -> new ExistingRating(rs.getLong("id"), rs.getLong("user_id"), rs.getLong("film_id"), rs.getInt("score")));
+    }
+
+    // Upsert en lots : UPDATE pour les notes existantes, INSERT pour les nouvelles.
+    // L'UPDATE ne s'applique qu'à la note lue (même id, même score) : une note supprimée ou modifiée entre-temps
+    // (RatingService.removeRating) laisse un compteur à 0 et fait échouer le lot, pour que l'appelant relise
+    // avant d'écrire ; les variations d'agrégats ne correspondent ainsi qu'à des lignes effectivement écrites.
+    // Une note insérée entre-temps par un autre nœud fait échouer l'INSERT sur l'index unique (user_id, film_id).
+    public void upsert(List<RatingWrite> writes) {
+        List<MapSqlParameterSource> updates = new ArrayList<>();
+        List<MapSqlParameterSource> inserts = new ArrayList<>();
+        for (RatingWrite write : writes) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("id", write.id())
+                    .addValue("userId", write.userId())
+                    .addValue("filmId", write.filmId())
+                    .addValue("previousScore", write.previousScore())
+                    .addValue("score", write.score());
+            (write.id() == null ? inserts : updates).add(params);
+        }
+        if (!updates.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate("UPDATE rating SET score = :score WHERE id = :id AND score = :previousScore",
+                    updates.toArray(MapSqlParameterSource[]::new));
+            for (int count : counts) {
+                if (count == 0) {
+                    throw new OptimisticLockingFailureException("Rating changed or removed while its batch was being written");
+                }
+            }
+        }
+        if (!inserts.isEmpty()) {
+            // Les ids des nouvelles notes sont réservés d'un coup sur le compteur partagé avec Hibernate
+            long nextId = idBlockRepository.allocate(IdGenerators.RATING, inserts.size());
+            for (MapSqlParameterSource params : inserts) {
+                params.addValue("id", nextId++);
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO rating (id, score, user_id, film_id) VALUES (:id, :score, :userId, :filmId)",
+                    inserts.toArray(MapSqlParameterSource[]::new));
+        }
+    }
+
+    // Incréments des agrégats de notes, un par film : [nombre, somme, histo 1..5]
+    public void applyAggregateDeltas(Map<Long, long[]> deltasByFilm) {
+        if (deltasByFilm.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource[] batch = deltasByFilm.entrySet().stream()
+                .map(entry -> {
+                    long[] delta = entry.getValue();
+                    return new MapSqlParameterSource()
+                            .addValue("filmId", entry.getKey())
+                            .addValue("count", delta[0])
+                            .addValue("sum", delta[1])
+                            .addValue("h1", delta[2])
+                            .addValue("h2", delta[3])
+                            .addValue("h3", delta[4])
+                            .addValue("h4", delta[5])
+                            .addValue("h5", delta[6]);
+                })
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("UPDATE film SET rating_count = rating_count + :count, rating_sum = rating_sum + :sum, " +
+                "rating_hist1 = rating_hist1 + :h1, rating_hist2 = rating_hist2 + :h2, rating_hist3 = rating_hist3 + :h3, " +
+                "rating_hist4 = rating_hist4 + :h4, rating_hist5 = rating_hist5 + :h5 WHERE id = :filmId", batch);
+    }
+}
@@ -0,0 +1,10 @@
+package com.hamza.filmmanagement.repositories;
+
+import com.hamza.filmmanagement.entities.Rating;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface RatingRepository extends JpaRepository<Rating, Long> {
+    Optional<Rating> findByUserIdAndFilmId(Long userId, Long filmId);
+}
@@ -0,0 +1,10 @@
+package com.hamza.filmmanagement.repositories;
+
+import java.time.Instant;
+
+// Version et date de modification d'une ligne, lues sans charger l'entité (ETag / Last-Modified d'une fiche)
+public interface RowVersionView {
+    long getVersion();
+
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,11 @@
+package com.hamza.filmmanagement.repositories;
+
+// Résumé de l'état d'une table (nombre de lignes, plus grand id, somme des versions), calculé en une requête d'agrégat
+// sans charger d'entités : il change dès qu'une ligne est ajoutée, supprimée ou modifiée. Sert d'ETag aux listes.
+public interface TableVersionView {
+    Long getCount();
+
+    Long getMaxId();
+
+    Long getVersionSum();
+}
@@ -0,0 +1,377 @@
+package com.hamza.filmmanagement.search;
+
+import com.hamza.filmmanagement.dto.FilmSearchHit;
+import com.hamza.filmmanagement.dto.SearchResultPage;
+import com.hamza.filmmanagement.entities.Director;
+import com.hamza.filmmanagement.entities.Film;
+import com.hamza.filmmanagement.exceptions.search.InvalidSearchQueryException;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Index plein texte des films, embarqué dans l'application et stocké sur disque (Lucene).
+// Les écritures sont visibles immédiatement par la recherche (réouverture quasi temps réel du SearcherManager),
+// et sont rendues durables par un commit périodique.
+// Une reconstruction complète se fait dans un index à part (<index-dir>-rebuild), substitué d'un bloc
+// à l'index servi une fois terminé : la recherche ne voit jamais un index vide ou partiel.
+@Component
+public class FilmSearchIndex {
+
+    static final String FIELD_ID = "id";
+    static final String FIELD_TITLE = "title";
+    static final String FIELD_DESCRIPTION = "description";
+    static final String FIELD_DIRECTOR = "director";
+    static final String FIELD_ACTORS = "actors";
+    static final String FIELD_RELEASE_DATE = "releaseDate";
+
+    // Poids de chaque champ dans le classement : un titre qui correspond compte plus qu'une description
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            FIELD_TITLE, 3.0f,
+            FIELD_DIRECTOR, 2.0f,
+            FIELD_ACTORS, 2.0f,
+            FIELD_DESCRIPTION, 1.0f
+    );
+
+    public static final int MAX_PAGE_SIZE = 100;
+    // Au-delà, la pagination par page devient coûteuse : les clients doivent affiner leur requête
+    private static final int MAX_RESULT_WINDOW = 10_000;
+
+    private final FoldingAnalyzer analyzer = new FoldingAnalyzer();
+    private final Directory directory;
+    // Rouverts seulement si la substitution d'une reconstruction échoue (retour au dernier commit)
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    private final Path rebuildPath;
+
+    // Écritures incrémentales, substitution et commits : jamais de rafraîchissement entre le vidage et la recopie
+    private final Object lock = new Object();
+    // Reconstruction en cours (null sinon) et films modifiés depuis son début
+    private Directory rebuildDirectory;
+    private IndexWriter rebuildWriter;
+    private final Set<String> changedDuringRebuild = new HashSet<>();
+
+    public FilmSearchIndex(@Value("${film.search.index-dir:data/search-index}") String indexDir) throws IOException {
+        Path path = Paths.get(indexDir).toAbsolutePath();
+        this.rebuildPath = path.resolveSibling(path.getFileName() + "-rebuild");
+        Files.createDirectories(path);
+        this.directory = FSDirectory.open(path);
+        openWriter();
+    }
+
+    private void openWriter() throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    // Ajoute ou remplace le document d'un film (les acteurs et le réalisateur doivent être chargés)
+    public void index(Film film) {
+        String id = film.getId().toString();
+        try {
+            Document document = toDocument(film);
+            synchronized (lock) {
+                writer.updateDocument(new Term(FIELD_ID, id), document);
+                if (rebuildWriter != null) {
+                    // Plus récent que ce que la reconstruction a pu lire : il remplace sa version du film
+                    rebuildWriter.updateDocument(new Term(FIELD_ID, id), document);
+                    changedDuringRebuild.add(id);
+                }
+                searcherManager.maybeRefresh();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not index film " + film.getId(), e);
+        }
+    }
+
+    // Ajoute un lot de films sans rafraîchir la recherche (import en masse)
+    public void indexBatch(List<Film> films) {
+        try {
+            for (Film film : films) {
+                Document document = toDocument(film);
+                synchronized (lock) {
+                    writer.updateDocument(new Term(FIELD_ID, film.getId().toString()), document);
+                    if (rebuildWriter != null) {
+                        rebuildWriter.updateDocument(new Term(FIELD_ID, film.getId().toString()), document);
+                        changedDuringRebuild.add(film.getId().toString());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not index films", e);
+        }
+    }
+
+    // Rend visibles les documents ajoutés par indexBatch, sans commit (la durabilité reste au commit périodique)
+    public void refresh() {
+        try {
+            synchronized (lock) {
+                searcherManager.maybeRefresh();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not refresh the search index", e);
+        }
+    }
+
+    public void delete(Long filmId) {
+        String id = filmId.toString();
+        try {
+            synchronized (lock) {
+                writer.deleteDocuments(new Term(FIELD_ID, id));
+                if (rebuildWriter != null) {
+                    rebuildWriter.deleteDocuments(new Term(FIELD_ID, id));
+                    changedDuringRebuild.add(id);
+                }
+                searcherManager.maybeRefresh();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not remove film " + filmId + " from the index", e);
+        }
+    }
+
+    // === Reconstruction complète ===
+    // beginRebuild, puis rebuildBatch pour chaque page du catalogue, puis finishRebuild (ou abortRebuild en cas d'échec).
+    // Pendant ce temps, l'index servi reste intact et continue de recevoir les mises à jour incrémentales.
+
+    public void beginRebuild() {
+        try {
+            synchronized (lock) {
+                if (rebuildWriter != null) {
+                    throw new IllegalStateException("A search index rebuild is already running");
+                }
+                deleteRebuildFiles();
+                Files.createDirectories(rebuildPath);
+                rebuildDirectory = FSDirectory.open(rebuildPath);
+                IndexWriterConfig config = new IndexWriterConfig(analyzer);
+                config.setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+                rebuildWriter = new IndexWriter(rebuildDirectory, config);
+                changedDuringRebuild.clear();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the search index rebuild", e);
+        }
+    }
+
+    // Films lus par la reconstruction ; ceux déjà écrits par une mise à jour incrémentale depuis son début sont ignorés
+    public void rebuildBatch(List<Film> films) {
+        try {
+            for (Film film : films) {
+                Document document = toDocument(film);
+                synchronized (lock) {
+                    if (!changedDuringRebuild.contains(film.getId().toString())) {
+                        rebuildWriter.updateDocument(new Term(FIELD_ID, film.getId().toString()), document);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not index films", e);
+        }
+    }
+
+    // Remplace le contenu de l'index servi par l'index reconstruit, en un seul commit puis un seul rafraîchissement
+    public void finishRebuild() {
+        synchronized (lock) {
+            try {
+                rebuildWriter.commit();
+                rebuildWriter.close();
+                // Point de retour : les mises à jour incrémentales déjà reçues ne peuvent pas être perdues par un rollback
+                writer.commit();
+            } catch (IOException e) {
+                abortRebuild();
+                throw new UncheckedIOException("Could not finish the search index rebuild", e);
+            }
+            try {
+                writer.deleteAll();
+                writer.addIndexes(rebuildDirectory);
+                writer.commit();
+                searcherManager.maybeRefresh();
+            } catch (IOException e) {
+                restoreLastCommit();
+                throw new UncheckedIOException("Could not swap in the rebuilt search index", e);
+            } finally {
+                closeRebuild();
+            }
+        }
+    }
+
+    // Abandon : l'index servi n'a pas été modifié, l'index partiel est supprimé
+    public void abortRebuild() {
+        synchronized (lock) {
+            try {
+                if (rebuildWriter != null && rebuildWriter.isOpen()) {
+                    rebuildWriter.rollback();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not abort the search index rebuild", e);
+            } finally {
+                closeRebuild();
+            }
+        }
+    }
+
+    // Annule le vidage non commité de l'index servi (rollback ferme l'IndexWriter : il est rouvert sur le dernier commit)
+    private void restoreLastCommit() {
+        SearcherManager previous = searcherManager;
+        try {
+            writer.rollback();
+            openWriter();
+            previous.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not reopen the search index", e);
+        }
+    }
+
+    private void closeRebuild() {
+        try {
+            if (rebuildDirectory != null) {
+                rebuildDirectory.close();
+            }
+            deleteRebuildFiles();
+        } catch (IOException e) {
+            // Fichiers temporaires : supprimés au prochain début de reconstruction
+        } finally {
+            rebuildWriter = null;
+            rebuildDirectory = null;
+            changedDuringRebuild.clear();
+        }
+    }
+
+    private void deleteRebuildFiles() throws IOException {
+        if (!Files.exists(rebuildPath)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(rebuildPath)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // Recherche classée par pertinence, paginée par numéro de page (0 = première page)
+    public SearchResultPage<FilmSearchHit> search(String text, int page, int size) {
+        if (text == null || text.isBlank()) {
+            throw new InvalidSearchQueryException("Search query must not be empty");
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int pageNumber = Math.max(page, 0);
+        int window = (pageNumber + 1) * pageSize;
+        if (window > MAX_RESULT_WINDOW) {
+            throw new InvalidSearchQueryException("Result window is too large, please refine the query");
+        }
+
+        Query query = parse(text);
+        try {
+            SearcherManager manager = searcherManager;
+            IndexSearcher searcher = manager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, window);
+                List<FilmSearchHit> hits = new ArrayList<>(pageSize);
+                ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+                for (int i = pageNumber * pageSize; i < scoreDocs.length; i++) {
+                    Document document = searcher.storedFields().document(scoreDocs[i].doc);
+                    hits.add(new FilmSearchHit(
+                            Long.valueOf(document.get(FIELD_ID)),
+                            document.get(FIELD_TITLE),
+                            document.get(FIELD_RELEASE_DATE),
+                            scoreDocs[i].score));
+                }
+                return new SearchResultPage<>(hits, topDocs.totalHits.value, pageNumber, pageSize);
+            } finally {
+                manager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        }
+    }
+
+    // Les caractères spéciaux de la syntaxe Lucene sont échappés : la saisie est traitée comme du texte libre,
+    // tous les mots devant apparaître (dans n'importe quel champ)
+    private Query parse(String text) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                FIELD_BOOSTS.keySet().toArray(new String[0]), analyzer, FIELD_BOOSTS);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            return parser.parse(QueryParser.escape(text.trim()));
+        } catch (ParseException e) {
+            throw new InvalidSearchQueryException("Invalid search query");
+        }
+    }
+
+    private Document toDocument(Film film) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, film.getId().toString(), Field.Store.YES));
+        document.add(new TextField(FIELD_TITLE, nullToEmpty(film.getTitle()), Field.Store.YES));
+        document.add(new TextField(FIELD_DESCRIPTION, nullToEmpty(film.getDescription()), Field.Store.NO));
+
+        Director director = film.getDirector();
+        if (director != null) {
+            document.add(new TextField(FIELD_DIRECTOR, director.getFirstName() + " " + director.getLastName(), Field.Store.NO));
+        }
+        String actors = film.getActors().stream()
+                .map(actor -> actor.getFirstName() + " " + actor.getLastName())
+                .collect(Collectors.joining(" "));
+        document.add(new TextField(FIELD_ACTORS, actors, Field.Store.NO));
+
+        if (film.getReleaseDate() != null) {
+            document.add(new StoredField(FIELD_RELEASE_DATE, film.getReleaseDate().toString()));
+        }
+        return document;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    // Commit périodique : en cas d'arrêt brutal, on ne perd au plus que les dernières secondes de mises à jour
+    @Scheduled(fixedDelayString = "${film.search.commit-interval:30000}")
+    public void periodicCommit() throws IOException {
+        synchronized (lock) {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (rebuildWriter != null) {
+            abortRebuild();
+        }
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+}
@@ -0,0 +1,289 @@
+package com.hamza.filmmanagement.search;
+
+import com.hamza.filmmanagement.dto.NameSuggestion;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Index de préfixes en mémoire pour l'autocomplétion de noms (acteurs ou réalisateurs).
+//
+// La base est un tableau trié de clés normalisées (minuscules, sans accents), deux clés par personne :
+// "prenom nom" et "nom prenom". Une recherche est une dichotomie sur le préfixe suivie d'un parcours
+// des clés suivantes : le coût ne dépend que du nombre de suggestions demandées.
+// Les modifications faites depuis la dernière construction sont gardées dans une petite couche de deltas
+// (ids remplacés ou supprimés + nouvelles clés triées), fusionnée dans la base quand elle devient trop grande.
+public class NameAutocompleteIndex {
+
+    private static final char KEY_SEPARATOR = '\u0000';
+    // Nombre d'ids modifiés au-delà duquel on reconstruit la base triée
+    private static final int COMPACTION_THRESHOLD = 10_000;
+
+    // Une personne indexée : son id, le libellé affiché et ses clés normalisées
+    private record Person(long id, String label, String[] keys) {
+    }
+
+    // Clé de la base triée et indice de la personne correspondante
+    private record KeyRef(String key, int person) {
+    }
+
+    // Une suggestion candidate, avec la clé qui a permis de la trouver (pour la fusion base / deltas)
+    private record Match(String key, long id, String label) {
+    }
+
+    // Base triée : keys[i] appartient à la personne personIndex[i] (ids et libellés en tableaux parallèles)
+    private record Base(String[] keys, int[] personIndex, long[] ids, String[] labels) {
+    }
+
+    // État publié atomiquement : une compaction remplace base et deltas d'un seul coup
+    private record State(Base base,
+                         ConcurrentHashMap<Long, Person> overrides,
+                         ConcurrentSkipListMap<String, Person> delta) {
+    }
+
+    // Personne supprimée depuis la construction de la base
+    private static final Person TOMBSTONE = new Person(-1L, null, new String[0]);
+
+    private volatile State state = emptyState(new Base(new String[0], new int[0], new long[0], new String[0]));
+
+    // === Construction complète ===
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public synchronized void replaceAll(Builder builder) {
+        List<Person> people = builder.people;
+        long[] ids = new long[people.size()];
+        String[] labels = new String[people.size()];
+        List<KeyRef> refs = new ArrayList<>(people.size() * 2);
+        for (int p = 0; p < people.size(); p++) {
+            Person person = people.get(p);
+            ids[p] = person.id();
+            labels[p] = person.label();
+            for (String key : person.keys()) {
+                refs.add(new KeyRef(key, p));
+            }
+        }
+        state = emptyState(buildBase(ids, labels, refs));
+    }
+
+    // === Mises à jour incrémentales ===
+    public synchronized void put(long id, String firstName, String lastName) {
+        State current = state;
+        Person person = newPerson(id, firstName, lastName);
+        for (String key : person.keys()) {
+            current.delta().put(key + KEY_SEPARATOR + id, person);
+        }
+        Person previous = current.overrides().put(id, person);
+        if (previous != null) {
+            removeDeltaKeys(current, previous, person);
+        }
+        compactIfNeeded();
+    }
+
+    public synchronized void remove(long id) {
+        State current = state;
+        Person previous = current.overrides().put(id, TOMBSTONE);
+        if (previous != null) {
+            removeDeltaKeys(current, previous, TOMBSTONE);
+        }
+        compactIfNeeded();
+    }
+
+    // === Recherche ===
+    // Renvoie au plus `limit` personnes dont le prénom ou le nom commence par le texte saisi, par ordre alphabétique
+    public List<NameSuggestion> suggest(String text, int limit) {
+        String prefix = normalize(text);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        State current = state;
+        List<Match> matches = new ArrayList<>(limit * 2);
+        collectFromBase(current, prefix, limit, matches);
+        collectFromDelta(current, prefix, limit, matches);
+        matches.sort(Comparator.comparing(Match::key));
+
+        List<NameSuggestion> suggestions = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        for (Match match : matches) {
+            if (suggestions.size() == limit) {
+                break;
+            }
+            if (seen.add(match.id())) {
+                suggestions.add(new NameSuggestion(match.id(), match.label()));
+            }
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        State current = state;
+        int removedOrReplaced = 0;
+        for (long id : current.base().ids()) {
+            if (current.overrides().containsKey(id)) {
+                removedOrReplaced++;
+            }
+        }
+        int added = (int) current.overrides().values().stream().filter(person -> person != TOMBSTONE).count();
+        return current.base().ids().length - removedOrReplaced + added;
+    }
+
+    // Minuscules, accents retirés, espaces multiples réduits : "  Émile   ZOLA " -> "emile zola"
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                pendingSpace = normalized.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                normalized.append(' ');
+                pendingSpace = false;
+            }
+            normalized.append(Character.toLowerCase(c));
+        }
+        return normalized.toString();
+    }
+
+    private void collectFromBase(State current, String prefix, int limit, List<Match> matches) {
+        Base base = current.base();
+        String[] keys = base.keys();
+        Set<Long> seen = new HashSet<>();
+        for (int i = lowerBound(keys, prefix); i < keys.length && seen.size() < limit && keys[i].startsWith(prefix); i++) {
+            int person = base.personIndex()[i];
+            long id = base.ids()[person];
+            // Les ids présents dans les deltas ont été modifiés ou supprimés : la base n'est plus à jour pour eux
+            if (!current.overrides().containsKey(id) && seen.add(id)) {
+                matches.add(new Match(keys[i], id, base.labels()[person]));
+            }
+        }
+    }
+
+    private void collectFromDelta(State current, String prefix, int limit, List<Match> matches) {
+        Set<Long> seen = new HashSet<>();
+        for (Map.Entry<String, Person> entry : current.delta().tailMap(prefix, true).entrySet()) {
+            if (seen.size() >= limit || !entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            Person person = entry.getValue();
+            if (seen.add(person.id())) {
+                matches.add(new Match(entry.getKey(), person.id(), person.label()));
+            }
+        }
+    }
+
+    // Retire de la couche de deltas les clés d'une ancienne version qui ne sont plus portées par la nouvelle
+    private void removeDeltaKeys(State current, Person previous, Person replacement) {
+        List<String> kept = Arrays.asList(replacement.keys());
+        for (String key : previous.keys()) {
+            if (!kept.contains(key)) {
+                current.delta().remove(key + KEY_SEPARATOR + previous.id());
+            }
+        }
+    }
+
+    private void compactIfNeeded() {
+        State current = state;
+        if (current.overrides().size() < COMPACTION_THRESHOLD) {
+            return;
+        }
+        Base base = current.base();
+        int[] remap = new int[base.ids().length];
+        List<Long> ids = new ArrayList<>(base.ids().length);
+        List<String> labels = new ArrayList<>(base.ids().length);
+        for (int p = 0; p < base.ids().length; p++) {
+            if (current.overrides().containsKey(base.ids()[p])) {
+                remap[p] = -1;
+            } else {
+                remap[p] = ids.size();
+                ids.add(base.ids()[p]);
+                labels.add(base.labels()[p]);
+            }
+        }
+        List<KeyRef> refs = new ArrayList<>(base.keys().length + current.delta().size());
+        for (int i = 0; i < base.keys().length; i++) {
+            int person = remap[base.personIndex()[i]];
+            if (person >= 0) {
+                refs.add(new KeyRef(base.keys()[i], person));
+            }
+        }
+        for (Person person : current.overrides().values()) {
+            if (person == TOMBSTONE) {
+                continue;
+            }
+            for (String key : person.keys()) {
+                refs.add(new KeyRef(key, ids.size()));
+            }
+            ids.add(person.id());
+            labels.add(person.label());
+        }
+        state = emptyState(buildBase(ids.stream().mapToLong(Long::longValue).toArray(), labels.toArray(new String[0]), refs));
+    }
+
+    private static Base buildBase(long[] ids, String[] labels, List<KeyRef> refs) {
+        KeyRef[] sorted = refs.toArray(new KeyRef[0]);
+        Arrays.parallelSort(sorted, Comparator.comparing(KeyRef::key));
+        String[] keys = new String[sorted.length];
+        int[] personIndex = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = sorted[i].key();
+            personIndex[i] = sorted[i].person();
+        }
+        return new Base(keys, personIndex, ids, labels);
+    }
+
+    private static State emptyState(Base base) {
+        return new State(base, new ConcurrentHashMap<>(), new ConcurrentSkipListMap<>());
+    }
+
+    // Premier indice dont la clé est >= au préfixe
+    private static int lowerBound(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Person newPerson(long id, String firstName, String lastName) {
+        String first = normalize(firstName);
+        String last = normalize(lastName);
+        String label = ((firstName == null ? "" : firstName.trim()) + " " + (lastName == null ? "" : lastName.trim())).trim();
+        String firstLast = (first + " " + last).trim();
+        String lastFirst = (last + " " + first).trim();
+        String[] keys = firstLast.equals(lastFirst) ? new String[]{firstLast} : new String[]{firstLast, lastFirst};
+        return new Person(id, label, keys);
+    }
+
+    // Accumule les personnes d'une construction complète
+    public static final class Builder {
+        private final List<Person> people = new ArrayList<>();
+
+        public Builder add(long id, String firstName, String lastName) {
+            people.add(newPerson(id, firstName, lastName));
+            return this;
+        }
+    }
+}
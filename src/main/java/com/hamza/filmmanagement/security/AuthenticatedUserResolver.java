@@ -0,0 +1,89 @@
+package com.hamza.filmmanagement.security;
+
+import com.hamza.filmmanagement.events.UserChangedEvent;
+import com.hamza.filmmanagement.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Utilisateur et droits d'une requête portant un JWT valide, selon film.security.auth-mode (voir AuthenticationMode).
+// En mode "cached-user", chaque utilisateur est lu une fois en base puis gardé en mémoire jusqu'à
+// film.security.user-cache.ttl-seconds, et oublié dès qu'un UserChangedEvent le concerne : en régime établi,
+// l'authentification d'une requête ne fait aucune requête SQL. Sur plusieurs nœuds, la durée de vie borne le délai
+// de prise en compte d'un changement fait sur un autre nœud.
+@Component
+public class AuthenticatedUserResolver {
+
+    // Générations des utilisateurs, réparties par hachage du nom sur un nombre fixe de cases (mémoire bornée) :
+    // un changement fait seulement relire les utilisateurs de la même case
+    private static final int GENERATION_SLOTS = 1024;
+
+    private final UserDetailsServiceImpl userDetailsService;
+    private final AuthenticationMode mode;
+    private final long ttlMillis;
+    private final ExpiringCache<String, UserDetails> users;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_SLOTS);
+
+    public AuthenticatedUserResolver(UserDetailsServiceImpl userDetailsService,
+                                     @Value("${film.security.auth-mode:cached-user}") String mode,
+                                     @Value("${film.security.user-cache.size:10000}") int cacheSize,
+                                     @Value("${film.security.user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userDetailsService = userDetailsService;
+        this.mode = AuthenticationMode.fromProperty(mode);
+        this.ttlMillis = ttlSeconds * 1000;
+        this.users = new ExpiringCache<>(cacheSize);
+    }
+
+    // Utilisateur authentifié par ces claims (déjà vérifiés), ou null si le compte n'existe plus ou n'est pas activé
+    public UserDetails resolve(Claims claims) {
+        String username = claims.getSubject();
+        return switch (mode) {
+            case CLAIMS -> fromClaims(username, claims);
+            case DATABASE -> userDetailsService.loadActiveUser(username);
+            case CACHED_USER -> {
+                UserDetails user = users.get(username);
+                if (user == null) {
+                    int slot = generationSlot(username);
+                    long generation = generations.get(slot);
+                    user = userDetailsService.loadActiveUser(username);
+                    if (user != null) {
+                        users.put(username, user, System.currentTimeMillis() + ttlMillis);
+                        // Utilisateur changé pendant la lecture : l'état lu est peut-être celui d'avant, on ne le garde pas.
+                        // Vérifié après le put : un changement signalé plus tard retire l'entrée de lui-même.
+                        if (generations.get(slot) != generation) {
+                            users.remove(username);
+                        }
+                    }
+                }
+                yield user;
+            }
+        };
+    }
+
+    // Après le commit : une requête concurrente ne peut plus remettre en cache l'état d'avant
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        generations.incrementAndGet(generationSlot(event.getEmail()));
+        users.remove(event.getEmail());
+    }
+
+    private static int generationSlot(String username) {
+        return Math.floorMod(username.hashCode(), GENERATION_SLOTS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static UserDetails fromClaims(String username, Claims claims) {
+        List<String> roles = claims.get("roles", List.class);
+        return User.withUsername(username)
+                .password("")
+                .authorities(roles == null ? List.of() : roles.stream().map(SimpleGrantedAuthority::new).toList())
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.hamza.filmmanagement.security;
+
+// Origine des droits d'une requête portant un JWT valide (propriété film.security.auth-mode)
+public enum AuthenticationMode {
+    // Rôles lus dans le claim "roles" du jeton : aucune requête SQL, mais un changement de rôles
+    // ou une désactivation ne prend effet qu'à l'expiration du jeton
+    CLAIMS,
+    // Utilisateur lu en base puis gardé en mémoire quelques minutes, oublié dès qu'il change (UserChangedEvent)
+    CACHED_USER,
+    // Utilisateur relu en base à chaque requête
+    DATABASE;
+
+    // Valeur de la propriété, ex : "claims", "cached-user", "database"
+    public static AuthenticationMode fromProperty(String value) {
+        return valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+}
@@ -0,0 +1,125 @@
+package com.hamza.filmmanagement.security;
+
+import com.hamza.filmmanagement.exceptions.auth.PasswordHashingBusyException;
+import com.hamza.filmmanagement.exceptions.auth.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Encodeur BCrypt dont le travail (volontairement coûteux en CPU) s'exécute sur un pool dédié de taille fixe,
+// précédé d'une file bornée. Une rafale de connexions ne peut donc occuper que ces threads-là : le reste du
+// trafic garde le CPU. File pleine = 429 immédiat ; attente trop longue (ou arrêt en cours) = 503.
+// Un mot de passe haché avec un autre coût que celui configuré est signalé par upgradeEncoding :
+// DaoAuthenticationProvider le hache à nouveau à la prochaine connexion réussie.
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    // Préfixe d'un hash BCrypt : $2a$10$...
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final BCryptPasswordEncoder delegate;
+    private final int cost;
+    private final long maxWaitMs;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+    private final Counter timedOutCounter;
+
+    public BoundedPasswordEncoder(int cost, int threads, int queueCapacity, long maxWaitMs, MeterRegistry meterRegistry) {
+        this.delegate = new BCryptPasswordEncoder(cost);
+        this.cost = cost;
+        this.maxWaitMs = maxWaitMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.password.hash.latency")
+                .description("Time spent in BCrypt per operation")
+                .tags("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hash.latency")
+                .description("Time spent in BCrypt per operation")
+                .tags("operation", "matches")
+                .register(meterRegistry);
+        this.rejectedCounter = meterRegistry.counter("auth.password.rejected", "reason", "queue-full");
+        this.timedOutCounter = meterRegistry.counter("auth.password.rejected", "reason", "timeout");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    // Vrai si le hash a été calculé avec un autre coût que celui configuré (plus faible ou plus fort)
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != cost;
+    }
+
+    private <T> T run(Supplier<T> work) {
+        Future<T> future;
+        try {
+            future = executor.submit(work::get);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingBusyException("Too many authentication requests in progress, please retry later");
+        }
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Tâche encore en file : annulée, le pool la sautera ; déjà commencée : BCrypt ne s'interrompt pas, elle se termine pour rien
+            future.cancel(true);
+            timedOutCounter.increment();
+            throw new PasswordHashingUnavailableException("Authentication is temporarily unavailable, please retry later");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Authentication is temporarily unavailable, please retry later");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -1,16 +1,19 @@
 package com.hamza.filmmanagement.security;
 
-import com.hamza.filmmanagement.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.util.UrlPathHelper;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
@@ -21,7 +24,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private AuthenticatedUserResolver authenticatedUserResolver;
+
+    // Chemins publics servis sans jamais regarder le jeton (fichiers statiques), ex : /uploads/**
+    @Value("${film.security.jwt.skip-paths:/uploads/**,/posters/**}")
+    private String[] skipPaths;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Chemin relatif au DispatcherServlet (sans le préfixe /api), comme les règles de SecurityConfig
+        String path = UrlPathHelper.defaultInstance.getPathWithinServletMapping(request);
+        for (String pattern : skipPaths) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -36,22 +57,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = authHeader.substring(7);
 
-        if (jwtUtils.validateToken(token)) {
-            String username = jwtUtils.extractUsername(token);
-
-            // Charger les infos utilisateur depuis la base (avec rôles inclus)
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        // Une seule vérification du jeton (mise en cache pour les requêtes suivantes portant le même jeton)
+        Claims claims = jwtUtils.verify(token);
+        if (claims != null) {
+            // Utilisateur et rôles : depuis le jeton, le cache mémoire ou la base selon film.security.auth-mode
+            UserDetails userDetails = authenticatedUserResolver.resolve(claims);
 
-            // Créer un objet Authentication avec les autorités récupérées depuis la base
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities() // Autorités récupérées de la base
-                    );
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(
+                                userDetails,
+                                null,
+                                userDetails.getAuthorities()
+                        );
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
 
         filterChain.doFilter(request, response);
@@ -0,0 +1,46 @@
+package com.hamza.filmmanagement.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+// Claims des jetons déjà vérifiés (signature HMAC + expiration), pour ne vérifier chaque jeton qu'une fois.
+// La clé est l'empreinte SHA-256 du jeton (le jeton lui-même, qui vaut identifiant, n'est pas gardé en mémoire).
+// Une entrée n'est plus servie passé l'expiration du jeton.
+public class VerifiedTokenCache {
+
+    private final ExpiringCache<String, Claims> entries;
+
+    public VerifiedTokenCache(int maxEntries) {
+        this.entries = new ExpiringCache<>(maxEntries);
+    }
+
+    // Claims du jeton s'il a déjà été vérifié et n'a pas expiré depuis, sinon null
+    public Claims get(String token) {
+        return entries.isEnabled() ? entries.get(digest(token)) : null;
+    }
+
+    // Mémorise les claims d'un jeton qui vient d'être vérifié, jusqu'à son expiration
+    public void put(String token, Claims claims) {
+        if (entries.isEnabled() && claims.getExpiration() != null) {
+            entries.put(digest(token), claims, claims.getExpiration().getTime());
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 est garanti par toute JVM
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package com.hamza.filmmanagement.services;
 
+import com.hamza.filmmanagement.dto.CursorPage;
 import com.hamza.filmmanagement.entities.Actor;
+import com.hamza.filmmanagement.events.PersonChangedEvent;
+import com.hamza.filmmanagement.exceptions.actor.ActorAlreadyExistsException;
 import com.hamza.filmmanagement.exceptions.actor.ActorNotFoundException;
 import com.hamza.filmmanagement.exceptions.actor.ActorRefencedByFilmException;
+import com.hamza.filmmanagement.pagination.KeysetCursor;
 import com.hamza.filmmanagement.repositories.ActorRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,16 +23,27 @@ public class ActorService {
     // ActorRepository est une interface qui étend JpaRepository ou une autre interface Spring Data pour accéder aux acteurs.
     private final ActorRepository actorRepository;
 
+    // Publication des changements d'acteurs (tenue à jour de l'autocomplétion des noms)
+    private final ApplicationEventPublisher eventPublisher;
+
     // Constructeur permettant l'injection de dépendances dans la classe.
     // Spring va automatiquement injecter une instance de ActorRepository lorsque cette classe est instanciée.
-    public ActorService(ActorRepository actorRepository) {
+    public ActorService(ActorRepository actorRepository, ApplicationEventPublisher eventPublisher) {
         this.actorRepository = actorRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     // Méthode permettant d'ajouter un nouvel acteur à la base de données.
     public void saveActor(Actor actor) {
         // La méthode 'save' de JpaRepository permet de sauvegarder un acteur dans la base de données.
-        actorRepository.save(actor);
+        // Pour un nouvel acteur, l'id généré est affecté à l'instance passée.
+        // Un homonyme de même nationalité viole la clé naturelle unique au commit de 'save'.
+        try {
+            actorRepository.save(actor);
+        } catch (DataIntegrityViolationException ex) {
+            throw new ActorAlreadyExistsException("An actor with the same name and nationality already exists");
+        }
+        eventPublisher.publishEvent(PersonChangedEvent.saved(PersonChangedEvent.Kind.ACTOR, actor.getId(), actor.getFirstName(), actor.getLastName()));
     }
 
     // Méthode permettant de mettre à jour un acteur existant dans la base de données.
@@ -42,13 +59,19 @@ public class ActorService {
         existingActor.setNationality(actor.getNationality());
 
         // Sauvegarde de l'acteur mis à jour dans la base de données.
-        actorRepository.save(existingActor);
+        try {
+            actorRepository.save(existingActor);
+        } catch (DataIntegrityViolationException ex) {
+            throw new ActorAlreadyExistsException("An actor with the same name and nationality already exists");
+        }
+        eventPublisher.publishEvent(PersonChangedEvent.saved(PersonChangedEvent.Kind.ACTOR, id, existingActor.getFirstName(), existingActor.getLastName()));
     }
 
     // Méthode permettant de supprimer un acteur de la base de données en utilisant son identifiant.
     public void deleteActor(Long id) {
         try {
             actorRepository.deleteById(id);
+            eventPublisher.publishEvent(PersonChangedEvent.deleted(PersonChangedEvent.Kind.ACTOR, id));
         } catch (DataIntegrityViolationException ex) {
             throw new ActorRefencedByFilmException("Cannot delete actor: still referenced by one or more films");
         }
@@ -61,6 +84,20 @@ public class ActorService {
         return actorRepository.findAll();
     }
 
+    // Méthode permettant de récupérer une page d'acteurs triés par id, à partir d'un curseur.
+    // On lit limit + 1 lignes pour savoir s'il reste une page après celle-ci.
+    public CursorPage<Actor> getActorsPage(String after, Integer limit) {
+        int pageSize = KeysetCursor.clampLimit(limit);
+        long afterId = after == null || after.isBlank() ? 0L : KeysetCursor.decode(after, "id").getLastId();
+
+        List<Actor> actors = actorRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(pageSize + 1));
+        if (actors.size() <= pageSize) {
+            return new CursorPage<>(actors, null, pageSize);
+        }
+        List<Actor> page = actors.subList(0, pageSize);
+        return new CursorPage<>(page, new KeysetCursor("id", page.get(pageSize - 1).getId(), "").encode(), pageSize);
+    }
+
     public Actor getActorById(Long id) {
          Actor actor= actorRepository.findById(id).orElseThrow(() -> new ActorNotFoundException("Actor not found"));
          return actor;
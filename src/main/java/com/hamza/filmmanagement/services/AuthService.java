@@ -6,12 +6,13 @@ import com.hamza.filmmanagement.dto.RegisterRequest;
 import com.hamza.filmmanagement.entities.Role;
 import com.hamza.filmmanagement.entities.RoleName;
 import com.hamza.filmmanagement.entities.User;
+import com.hamza.filmmanagement.events.UserChangedEvent;
 import com.hamza.filmmanagement.exceptions.auth.*;
-import com.hamza.filmmanagement.exceptions.email.SendingEmailException;
+import com.hamza.filmmanagement.mail.EmailTemplateEngine;
 import com.hamza.filmmanagement.repositories.RoleRepository;
 import com.hamza.filmmanagement.repositories.UserRepository;
-import jakarta.mail.MessagingException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -35,7 +36,10 @@ public class AuthService {
     private PasswordEncoder passwordEncoder;
 
     @Autowired
-    private EmailService emailService;
+    private EmailTemplateEngine emailTemplateEngine;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
 
     @Autowired
     private AuthenticationManager authenticationManager;
@@ -43,6 +47,9 @@ public class AuthService {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public ApiResponse<String> register(RegisterRequest request) throws Exception {
         // Vérifier si l'utilisateur existe déjà
@@ -82,16 +89,13 @@ public class AuthService {
         String activationLink = "http://localhost:4200/auth/activate-account?token=" + user.getActivationToken();
 
 
-        // Charger et personnaliser le modèle d'email
+        // Personnaliser le modèle d'email (chargé et précompilé au démarrage)
         Map<String, String> emailVariables = Map.of("activationLink", activationLink);
-        String emailContent = emailService.loadEmailTemplate("templates/emails/activation-email.html", emailVariables);
+        String emailContent = emailTemplateEngine.render("activation-email", emailVariables);
 
-        // Envoyer l'email
-        try {
-            emailService.sendEmail(user.getEmail(), "Activation de votre compte", emailContent);
-        } catch (MessagingException e) {
-            throw new SendingEmailException("Erreur lors de l'envoi de l'email d'activation.");
-        }
+        // Email déposé dans la table d'envoi, dans la même transaction que l'utilisateur :
+        // envoyé en arrière-plan par EmailOutboxDispatcher, la requête n'attend pas le serveur SMTP
+        emailOutboxService.enqueue(user.getEmail(), "Activation de votre compte", emailContent);
 
         return new ApiResponse<>("User registered successfully! Please check your email to activate your account.", HttpStatus.OK.value());
     }
@@ -125,10 +129,13 @@ public class AuthService {
         user.setEnabled(true);
         user.setActivationToken(null);
         userRepository.save(user);
+        // Compte activé : la copie en cache (absente ou refusée) doit être relue
+        eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
 
         return new ApiResponse<>("User registered successfully! Please check your email to activate your account.", HttpStatus.OK.value());
     }
 
+    @Transactional
     public void forgotPassword(String email) throws Exception {
         // Check if the user exists with the provided email
         Optional<User> userOptional = userRepository.findByEmail(email);
@@ -146,11 +153,11 @@ public class AuthService {
         // Générer le lien de réinitialisation
         String resetLink = "http://localhost:4200/auth/reset-password?token=" + resetToken;
 
-        // Charger et personnaliser le modèle d'email
+        // Personnaliser le modèle d'email (chargé et précompilé au démarrage)
         Map<String, String> emailVariables = Map.of("resetLink", resetLink);
-        String emailContent = emailService.loadEmailTemplate("templates/emails/reset-password-email.html", emailVariables);
-        // Send the reset email
-        emailService.sendEmail(user.getEmail(), "Réinitialisation du mot de passe", emailContent);
+        String emailContent = emailTemplateEngine.render("reset-password-email", emailVariables);
+        // Send the reset email (table d'envoi, même transaction que le jeton de réinitialisation)
+        emailOutboxService.enqueue(user.getEmail(), "Réinitialisation du mot de passe", emailContent);
     }
 
     public void resetPassword(String token, String newPassword) {
@@ -166,5 +173,6 @@ public class AuthService {
         user.setPassword(passwordEncoder.encode(newPassword));  // Set new password
         user.setActivationToken(null);  // Remove token after use
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
     }
 }
@@ -0,0 +1,217 @@
+package com.hamza.filmmanagement.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hamza.filmmanagement.dto.CursorPage;
+import com.hamza.filmmanagement.dto.FilmDetail;
+import com.hamza.filmmanagement.entities.Film;
+import com.hamza.filmmanagement.events.FilmChangedEvent;
+import com.hamza.filmmanagement.events.FilmsImportedEvent;
+import com.hamza.filmmanagement.events.PersonChangedEvent;
+import com.hamza.filmmanagement.events.RatingAggregatesChangedEvent;
+import com.hamza.filmmanagement.pagination.FilmSortField;
+import com.hamza.filmmanagement.pagination.KeysetCursor;
+import com.hamza.filmmanagement.repositories.FilmRepository;
+import com.hamza.filmmanagement.snapshot.CatalogSnapshot;
+import com.hamza.filmmanagement.snapshot.EncodedBody;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Catalogue public déjà sérialisé : la liste des films et les max-pages premières pages triées par id sont gardées
+// en JSON encodé, brut et gzip, et écrites telles quelles dans la réponse. Une lecture ne coûte qu'une copie mémoire,
+// sans requête SQL ni passage par Jackson. Les pages suivantes, moins demandées, sont lues en base : la mémoire
+// occupée reste bornée par la liste complète plus max-pages x page-size films, dans les deux encodages.
+// La photographie est reconstruite en arrière-plan après chaque écriture (films, personnes), puis remplacée
+// d'un bloc. Les écritures rapprochées sont regroupées en une seule reconstruction. Les notes arrivent en continu :
+// elles ne déclenchent au plus qu'une reconstruction par rating-rebuild-interval-ms, les agrégats servis
+// peuvent donc avoir jusqu'à cet intervalle de retard.
+// Les ETags sont ceux de ResourceVersionService, lus dans la même transaction que les films : une même version
+// du catalogue a le même ETag qu'elle soit servie par la photographie ou lue en base.
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private final FilmRepository filmRepository;
+    private final ResourceVersionService resourceVersionService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int pageSize;
+    private final int maxPages;
+    private final long rebuildDelayMs;
+    private final long ratingRebuildIntervalMs;
+
+    // Un seul thread : deux reconstructions ne se chevauchent jamais
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Une reconstruction est déjà programmée et n'a pas encore commencé à lire la base
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    // Une reconstruction due aux notes est déjà programmée pour la fin de l'intervalle en cours
+    private final AtomicBoolean ratingRebuildPending = new AtomicBoolean();
+
+    // null tant que la première construction n'est pas terminée (les lectures passent alors par la base)
+    private volatile CatalogSnapshot snapshot;
+
+    public CatalogSnapshotService(FilmRepository filmRepository, ResourceVersionService resourceVersionService,
+                                  ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                  @Value("${film.catalog.snapshot.enabled:true}") boolean enabled,
+                                  @Value("${film.catalog.snapshot.page-size:20}") int pageSize,
+                                  @Value("${film.catalog.snapshot.max-pages:50}") int maxPages,
+                                  @Value("${film.catalog.snapshot.rebuild-delay-ms:1000}") long rebuildDelayMs,
+                                  @Value("${film.catalog.snapshot.rating-rebuild-interval-ms:60000}") long ratingRebuildIntervalMs) {
+        this.filmRepository = filmRepository;
+        this.resourceVersionService = resourceVersionService;
+        this.objectMapper = objectMapper;
+        // Nouvelle transaction en lecture seule : les acteurs des films sont chargés pendant la sérialisation
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.pageSize = KeysetCursor.clampLimit(pageSize);
+        this.maxPages = Math.max(1, maxPages);
+        this.rebuildDelayMs = rebuildDelayMs;
+        this.ratingRebuildIntervalMs = ratingRebuildIntervalMs;
+    }
+
+    // Corps de GET /admin/films, ou null si la photographie n'est pas (encore) disponible
+    public EncodedBody listing() {
+        CatalogSnapshot current = snapshot;
+        return current == null ? null : current.listing();
+    }
+
+    // Corps de GET /admin/films?limit=..., ou null si cette page n'a pas été précalculée (taille différente,
+    // ou au-delà des max-pages premières pages)
+    public EncodedBody page(String sort, String after, Integer limit) {
+        CatalogSnapshot current = snapshot;
+        if (current == null || FilmSortField.fromParam(sort) != FilmSortField.ID) {
+            return null;
+        }
+        return current.page(KeysetCursor.clampLimit(limit), after == null || after.isBlank() ? null : after);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        requestRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFilmChanged(FilmChangedEvent event) {
+        requestRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFilmsImported(FilmsImportedEvent event) {
+        requestRebuild();
+    }
+
+    // Les noms des réalisateurs et des acteurs figurent dans la liste
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        requestRebuild();
+    }
+
+    // Les agrégats des notes figurent aussi dans la liste, mais changent à chaque lot de votes (toutes les 200 ms
+    // sous charge) : les lots d'un même intervalle sont regroupés en une seule reconstruction à sa fin
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingAggregatesChanged(RatingAggregatesChangedEvent event) {
+        if (enabled && ratingRebuildPending.compareAndSet(false, true)) {
+            executor.schedule(() -> {
+                ratingRebuildPending.set(false);
+                requestRebuild();
+            }, ratingRebuildIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Programme une reconstruction dans rebuildDelayMs, sauf si une reconstruction est déjà en attente :
+    // elle lira la base après ce commit et en tiendra donc compte
+    public void requestRebuild() {
+        if (enabled && rebuildPending.compareAndSet(false, true)) {
+            executor.schedule(this::rebuildPending, rebuildDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rebuildPending() {
+        // Remis à false avant la lecture : une écriture validée pendant la construction en programme une autre
+        rebuildPending.set(false);
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // L'ancienne photographie reste servie jusqu'à la prochaine écriture
+            log.error("Catalog snapshot rebuild failed", e);
+        }
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        CatalogSnapshot rebuilt = transactionTemplate.execute(status -> build());
+        snapshot = rebuilt;
+        log.info("Catalog snapshot built: {} films, {} KB in {} ms",
+                rebuilt.filmCount(), rebuilt.size() / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private CatalogSnapshot build() {
+        // Version lue avant les films, dans la même transaction : elle décrit exactement ce qui est sérialisé
+        String etag = resourceVersionService.films().getEtag();
+        // Même liste et même sérialisation que la lecture directe (FilmService.getAllFilms)
+        List<Film> films = filmRepository.findAll();
+        EncodedBody listing = EncodedBody.of(toJson(films), etag);
+
+        // Premières pages triées par id, chaînées par leurs curseurs exactement comme FilmService.getFilmsPage ;
+        // comme en lecture directe, elles partagent l'ETag de la liste. Le curseur de la dernière page gardée
+        // mène à une page absente de la photographie, lue en base.
+        List<Film> byId = new ArrayList<>(films);
+        byId.sort(Comparator.comparing(Film::getId));
+        Map<String, EncodedBody> pages = new HashMap<>();
+        String after = "";
+        int from = 0;
+        do {
+            List<Film> slice = byId.subList(from, Math.min(from + pageSize, byId.size()));
+            from += pageSize;
+            String next = from < byId.size()
+                    ? new KeysetCursor(FilmSortField.ID.getParam(), slice.get(slice.size() - 1).getId(), "").encode()
+                    : null;
+            CursorPage<FilmDetail> page = new CursorPage<>(slice.stream().map(FilmDetail::from).toList(), next, pageSize);
+            pages.put(after, EncodedBody.of(toJson(page), etag));
+            after = next;
+        } while (after != null && pages.size() < maxPages);
+
+        return new CatalogSnapshot(listing, pageSize, pages, films.size());
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
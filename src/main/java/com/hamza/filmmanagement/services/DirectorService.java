@@ -1,8 +1,15 @@
 package com.hamza.filmmanagement.services;
 
+import com.hamza.filmmanagement.dto.CursorPage;
 import com.hamza.filmmanagement.entities.Director;
+import com.hamza.filmmanagement.events.PersonChangedEvent;
+import com.hamza.filmmanagement.exceptions.director.DirectorAlreadyExistsException;
 import com.hamza.filmmanagement.exceptions.director.DirectorNotFoundException;
+import com.hamza.filmmanagement.pagination.KeysetCursor;
 import com.hamza.filmmanagement.repositories.DirectorRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -11,13 +18,21 @@ import java.util.List;
 public class DirectorService {
 
     private final DirectorRepository directorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public DirectorService(DirectorRepository directorRepository) {
+    public DirectorService(DirectorRepository directorRepository, ApplicationEventPublisher eventPublisher) {
         this.directorRepository = directorRepository;
+        this.eventPublisher = eventPublisher;
     }
 
+    // Un homonyme de même nationalité viole la clé naturelle unique au commit de 'save'
     public void saveDirector(Director director) {
-        directorRepository.save(director);
+        try {
+            directorRepository.save(director);
+        } catch (DataIntegrityViolationException ex) {
+            throw new DirectorAlreadyExistsException("A director with the same name and nationality already exists");
+        }
+        eventPublisher.publishEvent(PersonChangedEvent.saved(PersonChangedEvent.Kind.DIRECTOR, director.getId(), director.getFirstName(), director.getLastName()));
     }
 
     public void updateDirector(Long id, Director director) {
@@ -26,17 +41,36 @@ public class DirectorService {
         existingDirector.setFirstName(director.getFirstName());
         existingDirector.setLastName(director.getLastName());
         existingDirector.setNationality(director.getNationality());
-        directorRepository.save(existingDirector);
+        try {
+            directorRepository.save(existingDirector);
+        } catch (DataIntegrityViolationException ex) {
+            throw new DirectorAlreadyExistsException("A director with the same name and nationality already exists");
+        }
+        eventPublisher.publishEvent(PersonChangedEvent.saved(PersonChangedEvent.Kind.DIRECTOR, id, existingDirector.getFirstName(), existingDirector.getLastName()));
     }
 
     public void deleteDirector(Long id) {
         directorRepository.deleteById(id);
+        eventPublisher.publishEvent(PersonChangedEvent.deleted(PersonChangedEvent.Kind.DIRECTOR, id));
     }
 
     public List<Director> getAllDirectors() {
         return directorRepository.findAll();
     }
 
+    // Page de réalisateurs triés par id, à partir du curseur de la page précédente
+    public CursorPage<Director> getDirectorsPage(String after, Integer limit) {
+        int pageSize = KeysetCursor.clampLimit(limit);
+        long afterId = after == null || after.isBlank() ? 0L : KeysetCursor.decode(after, "id").getLastId();
+
+        List<Director> directors = directorRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(pageSize + 1));
+        if (directors.size() <= pageSize) {
+            return new CursorPage<>(directors, null, pageSize);
+        }
+        List<Director> page = directors.subList(0, pageSize);
+        return new CursorPage<>(page, new KeysetCursor("id", page.get(pageSize - 1).getId(), "").encode(), pageSize);
+    }
+
     public Director getDirectorById(Long id) {
         return directorRepository.findById(id)
                 .orElseThrow(() -> new DirectorNotFoundException("Director not found"));
@@ -0,0 +1,153 @@
+package com.hamza.filmmanagement.services;
+
+import com.hamza.filmmanagement.entities.OutboxEmail;
+import com.hamza.filmmanagement.repositories.OutboxEmailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Envoi en arrière-plan des emails de la table d'envoi (voir EmailOutboxService).
+// À chaque passage, un lot d'emails dus est lu ; chaque email est d'abord réservé (UPDATE conditionnel,
+// sans risque de double envoi entre nœuds), puis envoyé hors transaction. Échec = nouvelle tentative
+// après un délai doublé à chaque fois (plafonné) ; après max-attempts échecs, l'email passe en DEAD.
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Duration retention;
+
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter deadCounter;
+
+    public EmailOutboxDispatcher(OutboxEmailRepository outboxEmailRepository,
+                                 EmailService emailService,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${film.mail.outbox.batch-size:50}") int batchSize,
+                                 @Value("${film.mail.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${film.mail.outbox.initial-backoff-ms:30000}") long initialBackoffMs,
+                                 @Value("${film.mail.outbox.max-backoff-ms:3600000}") long maxBackoffMs,
+                                 @Value("${film.mail.outbox.lease-ms:60000}") long leaseMs,
+                                 @Value("${film.mail.outbox.retention-hours:72}") long retentionHours) {
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.lease = Duration.ofMillis(leaseMs);
+        this.retention = Duration.ofHours(retentionHours);
+
+        this.sentCounter = meterRegistry.counter("mail.outbox.emails", "outcome", "sent");
+        this.retriedCounter = meterRegistry.counter("mail.outbox.emails", "outcome", "retried");
+        this.deadCounter = meterRegistry.counter("mail.outbox.emails", "outcome", "dead");
+    }
+
+    // Un passage : envoie les emails dus (au plus un lot) et renvoie le nombre d'emails envoyés
+    @Scheduled(fixedDelayString = "${film.mail.outbox.poll-interval-ms:1000}")
+    public int dispatch() {
+        List<Long> dueIds = outboxEmailRepository.findDueIds(Instant.now(), PageRequest.of(0, batchSize));
+        int sent = 0;
+        for (Long id : dueIds) {
+            OutboxEmail email = claim(id);
+            if (email != null && send(email)) {
+                sent++;
+            }
+        }
+        return sent;
+    }
+
+    // Les emails envoyés ne sont gardés que quelques jours
+    @Scheduled(cron = "${film.mail.outbox.purge-cron:0 0 4 * * *}")
+    public void purgeSent() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEmailRepository.deleteSentBefore(Instant.now().minus(retention)));
+        log.info("Email outbox: {} sent emails purged", deleted);
+    }
+
+    // Réserve l'email pour la durée du bail ; null s'il a été pris entre-temps par un autre dispatcher
+    private OutboxEmail claim(Long id) {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            if (outboxEmailRepository.claim(id, now, now.plus(lease)) == 0) {
+                return null;
+            }
+            return outboxEmailRepository.findById(id).orElse(null);
+        });
+    }
+
+    private boolean send(OutboxEmail email) {
+        try {
+            emailService.sendEmail(email.getRecipient(), email.getSubject(), email.getBody());
+        } catch (MessagingException | MailException e) {
+            recordFailure(email.getId(), e);
+            return false;
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxEmailRepository.findById(email.getId()).ifPresent(sent -> {
+            sent.setStatus(OutboxEmail.Status.SENT);
+            sent.setAttempts(sent.getAttempts() + 1);
+            sent.setSentAt(Instant.now());
+            sent.setLastError(null);
+        }));
+        sentCounter.increment();
+        return true;
+    }
+
+    private void recordFailure(Long id, Exception error) {
+        transactionTemplate.executeWithoutResult(status -> outboxEmailRepository.findById(id).ifPresent(email -> {
+            int attempts = email.getAttempts() + 1;
+            email.setAttempts(attempts);
+            email.setLastError(truncate(error.getMessage()));
+            if (attempts >= maxAttempts) {
+                email.setStatus(OutboxEmail.Status.DEAD);
+                deadCounter.increment();
+                log.error("Email {} to {} abandoned after {} attempts: {}", id, email.getRecipient(), attempts, error.getMessage());
+            } else {
+                Duration delay = backoff(attempts);
+                email.setNextAttemptAt(Instant.now().plus(delay));
+                retriedCounter.increment();
+                log.warn("Email {} failed (attempt {}), retrying in {}s: {}", id, attempts, delay.toSeconds(), error.getMessage());
+            }
+        }));
+    }
+
+    // initial-backoff, puis le double à chaque échec, sans dépasser max-backoff
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff;
+        for (int i = 1; i < attempts && delay.compareTo(maxBackoff) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
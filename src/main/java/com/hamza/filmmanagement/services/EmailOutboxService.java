@@ -0,0 +1,25 @@
+package com.hamza.filmmanagement.services;
+
+import com.hamza.filmmanagement.entities.OutboxEmail;
+import com.hamza.filmmanagement.repositories.OutboxEmailRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+// Dépôt d'un email dans la table d'envoi (outbox). Appelé dans la transaction de l'appelant :
+// l'email n'existe que si la transaction est validée, et la requête HTTP n'attend jamais le serveur SMTP.
+@Service
+public class EmailOutboxService {
+
+    private final OutboxEmailRepository outboxEmailRepository;
+
+    public EmailOutboxService(OutboxEmailRepository outboxEmailRepository) {
+        this.outboxEmailRepository = outboxEmailRepository;
+    }
+
+    @Transactional
+    public OutboxEmail enqueue(String to, String subject, String content) {
+        return outboxEmailRepository.save(new OutboxEmail(to, subject, content, Instant.now()));
+    }
+}
@@ -1,33 +1,33 @@
 package com.hamza.filmmanagement.services;
 
 
+import com.hamza.filmmanagement.mail.SmtpConnectionPool;
+import jakarta.annotation.PreDestroy;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.apache.commons.lang3.text.StrSubstitutor;
-
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.util.Map;
 
 @Service
 public class EmailService {
     private final JavaMailSender mailSender;
 
-    public EmailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
-    }
+    // Connexions SMTP réutilisées d'un email à l'autre (null si film.mail.pool.size=0 : une connexion par email)
+    private final SmtpConnectionPool connectionPool;
 
-    public String loadEmailTemplate(String templatePath, Map<String, String> values) throws Exception {
-        // Charger le fichier HTML
-        String content = Files.readString(new ClassPathResource(templatePath).getFile().toPath(), StandardCharsets.UTF_8);
-
-        // Remplacer les variables dynamiques
-        StrSubstitutor substitutor = new StrSubstitutor(values);
-        return substitutor.replace(content);
+    public EmailService(JavaMailSender mailSender,
+                        @Value("${film.mail.pool.size:2}") int poolSize,
+                        @Value("${film.mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                        @Value("${film.mail.pool.idle-timeout-ms:30000}") long idleTimeoutMs,
+                        @Value("${film.mail.pool.borrow-timeout-ms:10000}") long borrowTimeoutMs) {
+        this.mailSender = mailSender;
+        this.connectionPool = poolSize > 0 && mailSender instanceof JavaMailSenderImpl impl
+                ? new SmtpConnectionPool(impl, poolSize, maxMessagesPerConnection, idleTimeoutMs, borrowTimeoutMs)
+                : null;
     }
 
     public void sendEmail(String to, String subject, String content) throws MessagingException {
@@ -38,6 +38,25 @@ public class EmailService {
         helper.setSubject(subject);
         helper.setText(content, true);
 
-        mailSender.send(message);
+        if (connectionPool != null) {
+            connectionPool.send(message);
+        } else {
+            mailSender.send(message);
+        }
+    }
+
+    // Les connexions inutilisées sont fermées avant que le serveur ne les coupe de son côté
+    @Scheduled(fixedDelayString = "${film.mail.pool.evict-interval-ms:10000}")
+    public void evictIdleConnections() {
+        if (connectionPool != null) {
+            connectionPool.evictIdle();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionPool != null) {
+            connectionPool.close();
+        }
     }
 }
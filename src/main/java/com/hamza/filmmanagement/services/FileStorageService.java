@@ -1,64 +1,291 @@
 package com.hamza.filmmanagement.services;
 
 
+import com.hamza.filmmanagement.dto.PosterVariant;
+import com.hamza.filmmanagement.entities.PosterBlob;
+import com.hamza.filmmanagement.events.PosterStoredEvent;
+import com.hamza.filmmanagement.exceptions.film.PosterNotFoundException;
+import com.hamza.filmmanagement.repositories.PosterBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 
-// Service annoté avec @Service pour indiquer qu'il s'agit d'un composant Spring responsable du stockage de fichiers
+// Service annoté avec @Service pour indiquer qu'il s'agit d'un composant Spring responsable du stockage de fichiers.
+// Stockage par contenu : chaque fichier est nommé d'après l'empreinte SHA-256 de ses octets (plus son extension),
+// une même affiche envoyée plusieurs fois n'occupe donc qu'un fichier, partagé grâce au compteur de références de PosterBlob.
 @Service
 public class FileStorageService {
 
-    // Chemin du répertoire où les fichiers seront stockés. Ici, le dossier est nommé "uploads".
-    private final String uploadDir = "uploads/";
+    private static final Logger log = LoggerFactory.getLogger(FileStorageService.class);
+
+    // Taille du tampon (hors tas) utilisé pour recopier et hacher le fichier reçu
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Extensions gardées telles quelles (le serveur de fichiers statiques en déduit le type MIME)
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+
+    // Nom d'un fichier stocké par contenu : empreinte SHA-256 puis extension éventuelle
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("([0-9a-f]{64})(\\.[a-z0-9]{1,10})?");
+
+    // Tentatives d'enregistrement d'un contenu envoyé simultanément par plusieurs requêtes
+    private static final int MAX_STORE_ATTEMPTS = 5;
+
+    private final PosterBlobRepository posterBlobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Chemin du répertoire où les fichiers seront stockés (servi sous /posters/** et /uploads/** par PosterController)
+    private final Path uploadPath;
+
+    // Fichiers en cours de réception, à côté du répertoire de stockage (même système de fichiers : déplacement atomique)
+    private final Path tempPath;
+
+    public FileStorageService(PosterBlobRepository posterBlobRepository, PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${film.storage.upload-dir:uploads}") String uploadDir,
+                              @Value("${film.storage.temp-dir:uploads-tmp}") String tempDir) {
+        this.posterBlobRepository = posterBlobRepository;
+        // Les compteurs de références sont validés indépendamment de l'appelant : FilmService retire une référence
+        // après le commit de l'écriture du film, là où la transaction de celle-ci ne peut plus servir
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        this.uploadPath = Paths.get(uploadDir);
+        this.tempPath = Paths.get(tempDir);
+    }
 
     // === Méthode pour stocker un fichier ===
-    // Cette méthode prend un fichier MultipartFile, le sauvegarde dans un répertoire spécifié et retourne son nom de fichier unique
+    // Le fichier est recopié par canaux NIO dans un fichier temporaire et haché au passage (une seule lecture),
+    // puis déplacé atomiquement sous son nom définitif, ou abandonné si ce contenu est déjà stocké.
+    // Retourne le nom du fichier (à enregistrer dans Film.poster).
     public String storeFile(MultipartFile file) throws IOException {
+        Files.createDirectories(uploadPath);
+        Files.createDirectories(tempPath);
 
-        // Assurer que le répertoire de téléchargement existe
-        // On crée le répertoire "uploads" s'il n'existe pas déjà
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {  // Si le répertoire n'existe pas
-            Files.createDirectories(uploadPath);  // Créer le répertoire
+        Path temp = Files.createTempFile(tempPath, "upload-", ".part");
+        try {
+            String hash = copyAndHash(file, temp);
+            String fileName = hash + extension(file.getOriginalFilename());
+            long size = Files.size(temp);
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return transactionTemplate.execute(status -> addReference(hash, fileName, size, temp));
+                } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+                    // Le même contenu est enregistré en même temps par une autre requête (clé en double, ou interblocage
+                    // MySQL entre les deux insertions) : la tentative suivante ajoute simplement une référence
+                    if (attempt == MAX_STORE_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            Files.deleteIfExists(temp);
         }
+    }
 
-        // Générer un nom de fichier unique
-        // Utilisation d'un UUID pour générer un identifiant unique et préfixer avec le nom original du fichier pour éviter les conflits
-        String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();  // Générer un nouveau nom unique
+    // === Méthode pour supprimer un fichier ===
+    // Retire une référence ; le fichier n'est effacé qu'avec la dernière.
+    // Les affiches antérieures au stockage par contenu (nom UUID, sans PosterBlob) appartiennent à un seul film : supprimées directement.
+    public void deleteFile(String fileName) {
+        if (isExternalUrl(fileName)) {
+            return;  // Affiche hébergée ailleurs (import) : rien à supprimer
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (posterBlobRepository.decrementRefCount(fileName) == 1) {
+                return;
+            }
+            Optional<PosterBlob> blob = posterBlobRepository.findForUpdateByFileName(fileName);
+            if (blob.isEmpty()) {
+                deleteFromDisk(fileName);
+                return;
+            }
+            PosterBlob posterBlob = blob.get();
+            if (posterBlob.getRefCount() > 1) {
+                // Référence ajoutée entre-temps : ce n'est plus la dernière
+                posterBlobRepository.decrementRefCount(fileName);
+                return;
+            }
+            posterBlobRepository.delete(posterBlob);
+            posterBlobRepository.flush();
+            // En dernier, ligne toujours verrouillée : un envoi concurrent du même contenu attend notre commit
+            // puis recrée le fichier
+            deleteFromDisk(fileName);
+            for (PosterVariant variant : PosterVariant.values()) {
+                deleteFromDisk(variant.fileName(posterBlob.getHash()));
+            }
+        });
+    }
 
-        // Définir le chemin complet où le fichier sera stocké dans le répertoire "uploads"
-        Path filePath = uploadPath.resolve(fileName);  // Résoudre le chemin complet
+    // === Références prises par l'import de films ===
 
-        // Sauvegarder le fichier
-        // On copie le fichier depuis le flux d'entrée (inputStream) dans le chemin de stockage défini
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);  // Si un fichier existe déjà à cet emplacement, il est remplacé
+    // Noms parmi ceux donnés qui désignent un fichier stocké par contenu (les seuls qu'un import peut partager)
+    public Set<String> storedFileNames(Collection<String> fileNames) {
+        List<String> candidates = fileNames.stream().filter(fileName -> contentHash(fileName) != null).distinct().toList();
+        return candidates.isEmpty() ? Set.of() : new HashSet<>(posterBlobRepository.findFileNamesIn(candidates));
+    }
 
-        // Retourner le nom du fichier (et non son chemin complet) pour une utilisation ultérieure
-        return fileName;  // Le nom du fichier est renvoyé, cela permet de l'utiliser dans d'autres parties du code
+    // Ajoute une référence à un fichier déjà stocké, dans la transaction de l'appelant : annulée avec elle si l'insertion
+    // du film échoue. false si aucun fichier n'est stocké sous ce nom (supprimé entre-temps, ou nom invalide).
+    public boolean addReference(String fileName) {
+        return contentHash(fileName) != null && posterBlobRepository.incrementRefCountByFileName(fileName) == 1;
     }
 
-    // === Méthode pour supprimer un fichier ===
-    // Cette méthode supprime un fichier en fonction de son nom de fichier
-    public void deleteFile(String fileName) {
-        // Construire le chemin complet du fichier à partir du nom fourni
-        Path filePath = Paths.get(uploadDir).resolve(fileName);  // Résoudre le chemin du fichier à supprimer
+    // URL http(s) d'une affiche hébergée ailleurs, conservée telle quelle dans Film.poster
+    public static boolean isExternalUrl(String poster) {
+        String lower = poster.toLowerCase(Locale.ROOT);
+        return lower.startsWith("http://") || lower.startsWith("https://");
+    }
+
+    // === Accès aux fichiers pour le service des affiches et la génération des variantes ===
+
+    // Chemin d'un fichier existant de uploads/ ; PosterNotFoundException si le nom est invalide ou le fichier absent
+    public Path existingFile(String fileName) {
+        Path filePath = uploadPath.resolve(fileName).normalize();
+        if (fileName.isBlank() || !uploadPath.normalize().equals(filePath.getParent()) || !Files.isRegularFile(filePath)) {
+            throw new PosterNotFoundException("Poster not found: " + fileName);
+        }
+        return filePath;
+    }
+
+    public Path uploadedFile(String fileName) {
+        return uploadPath.resolve(fileName);
+    }
+
+    // Fichier temporaire sur le même système de fichiers que uploads/, à y déplacer avec moveIntoUploads
+    public Path newTempFile() throws IOException {
+        Files.createDirectories(tempPath);
+        return Files.createTempFile(tempPath, "variant-", ".part");
+    }
 
+    public void moveIntoUploads(Path temp, String fileName) throws IOException {
+        try {
+            move(temp, uploadPath.resolve(fileName));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Empreinte d'un fichier stocké par contenu, null pour les anciens noms (UUID)
+    public static String contentHash(String fileName) {
+        Matcher matcher = CONTENT_ADDRESSED.matcher(fileName);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    // Dans une transaction : incrément atomique si le contenu est connu, insertion sinon
+    private String addReference(String hash, String fileName, long size, Path temp) {
+        if (posterBlobRepository.incrementRefCount(hash) == 1) {
+            PosterBlob posterBlob = posterBlobRepository.findById(hash).orElseThrow();
+            Path target = uploadPath.resolve(posterBlob.getFileName());
+            if (!Files.exists(target)) {
+                // Fichier effacé hors de l'application : le contenu reçu le remplace
+                move(temp, target);
+                eventPublisher.publishEvent(new PosterStoredEvent(hash, posterBlob.getFileName()));
+            }
+            return posterBlob.getFileName();
+        }
+        posterBlobRepository.insert(hash, fileName, size, Instant.now());
+        move(temp, uploadPath.resolve(fileName));
+        // Variantes générées après le commit (voir PosterVariantService)
+        eventPublisher.publishEvent(new PosterStoredEvent(hash, fileName));
+        return fileName;
+    }
+
+    private static String copyAndHash(MultipartFile file, Path temp) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (ReadableByteChannel in = Channels.newChannel(file.getInputStream());
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+            out.force(false);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void move(Path source, Path target) {
+        try {
+            try {
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Seuls les fichiers situés directement dans uploads/ sont supprimés (même contrôle que existingFile) :
+    // un nom venu d'ailleurs (URL, "../...") est ignoré
+    private void deleteFromDisk(String fileName) {
+        Path filePath = uploadPath.resolve(fileName).normalize();  // Résoudre le chemin du fichier à supprimer
+        if (fileName.isBlank() || !uploadPath.normalize().equals(filePath.getParent())) {
+            log.warn("Refusing to delete a file outside of the upload directory: {}", fileName);
+            return;
+        }
         try {
-            // Essayer de supprimer le fichier
-            // La méthode deleteIfExists permet de supprimer le fichier s'il existe, sinon elle ne fait rien
             Files.deleteIfExists(filePath);  // Suppression du fichier
         } catch (IOException e) {
-            // Si une erreur survient lors de la suppression, une exception est levée avec un message explicite
             throw new RuntimeException("Could not delete file: " + fileName, e);  // Lancer une exception si la suppression échoue
         }
     }
-}
 
+    // ".jpg", ".png"... ou "" si le nom d'origine n'a pas d'extension exploitable
+    private static String extension(String originalFilename) {
+        if (originalFilename == null) {
+            return "";
+        }
+        int dot = originalFilename.lastIndexOf('.');
+        String extension = dot < 0 ? "" : originalFilename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? "." + extension : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
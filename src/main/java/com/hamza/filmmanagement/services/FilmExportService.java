@@ -0,0 +1,50 @@
+package com.hamza.filmmanagement.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hamza.filmmanagement.dto.ExportFormat;
+import com.hamza.filmmanagement.dto.FilmExportRow;
+import com.hamza.filmmanagement.repositories.FilmExportRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// Service d'export du catalogue complet.
+// Les films sont lus avec un curseur en avant seulement (FilmExportRepository) et écrits au fil de l'eau dans la réponse :
+// la mémoire utilisée ne dépend pas de la taille du catalogue.
+@Service
+public class FilmExportService {
+
+    // Nombre de lignes après lequel on pousse le tampon vers le client
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final FilmExportRepository filmExportRepository;
+    private final ObjectMapper objectMapper;
+
+    public FilmExportService(FilmExportRepository filmExportRepository, ObjectMapper objectMapper) {
+        this.filmExportRepository = filmExportRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void export(ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(FilmExportRow.CSV_HEADER);
+            writer.write('\n');
+        }
+
+        int[] count = {0};
+        filmExportRepository.forEachFilm(row -> {
+            writer.write(format == ExportFormat.CSV ? row.toCsvLine() : objectMapper.writeValueAsString(row));
+            writer.write('\n');
+            if (++count[0] % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        });
+        writer.flush();
+    }
+}
@@ -0,0 +1,252 @@
+package com.hamza.filmmanagement.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hamza.filmmanagement.dto.ExportFormat;
+import com.hamza.filmmanagement.dto.FilmImportError;
+import com.hamza.filmmanagement.dto.FilmImportReport;
+import com.hamza.filmmanagement.dto.FilmImportRow;
+import com.hamza.filmmanagement.entities.Actor;
+import com.hamza.filmmanagement.entities.Director;
+import com.hamza.filmmanagement.entities.Film;
+import com.hamza.filmmanagement.events.FilmsImportedEvent;
+import com.hamza.filmmanagement.imports.FilmImportReader;
+import com.hamza.filmmanagement.imports.FilmImportReader.ParsedRow;
+import com.hamza.filmmanagement.repositories.ActorRepository;
+import com.hamza.filmmanagement.repositories.DirectorRepository;
+import com.hamza.filmmanagement.repositories.FilmRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Import en masse de films depuis un fichier NDJSON ou CSV lu en flux.
+// Les lignes sont traitées par paquets : références (réalisateurs, acteurs, affiches) vérifiées en trois requêtes IN
+// par paquet, puis insertion du paquet dans une transaction courte. Une ligne invalide est rejetée
+// et reportée dans le bilan sans interrompre l'import.
+@Service
+public class FilmImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(FilmImportService.class);
+
+    // Nombre de lignes par paquet (une transaction et une résolution des références par paquet)
+    static final int CHUNK_SIZE = 500;
+    // Au-delà, les erreurs sont seulement comptées
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final FilmRepository filmRepository;
+    private final ActorRepository actorRepository;
+    private final DirectorRepository directorRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final FileStorageService fileStorageService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public FilmImportService(FilmRepository filmRepository, ActorRepository actorRepository, DirectorRepository directorRepository,
+                             ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager, FileStorageService fileStorageService) {
+        this.filmRepository = filmRepository;
+        this.actorRepository = actorRepository;
+        this.directorRepository = directorRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fileStorageService = fileStorageService;
+    }
+
+    public FilmImportReport importFilms(ExportFormat format, InputStream in) throws IOException {
+        long start = System.nanoTime();
+        ImportProgress progress = new ImportProgress();
+        List<ParsedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (FilmImportReader reader = new FilmImportReader(in, format, objectMapper)) {
+            ParsedRow parsed;
+            while ((parsed = reader.next()) != null) {
+                progress.rows++;
+                if (parsed.error() != null) {
+                    progress.fail(parsed.rowNumber(), parsed.error());
+                    continue;
+                }
+                chunk.add(parsed);
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, progress);
+        }
+
+        log.info("Film import: {} rows, {} imported, {} rejected in {} ms",
+                progress.rows, progress.imported, progress.failed, (System.nanoTime() - start) / 1_000_000);
+        return progress.toReport();
+    }
+
+    private void importChunk(List<ParsedRow> chunk, ImportProgress progress) {
+        List<ParsedRow> candidates = new ArrayList<>(chunk.size());
+        for (ParsedRow parsed : chunk) {
+            String error = validate(parsed.row());
+            if (error != null) {
+                progress.fail(parsed.rowNumber(), error);
+            } else {
+                candidates.add(parsed);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // Résolution des références du paquet : une requête pour les réalisateurs, une pour les acteurs, une pour les affiches
+        Set<Long> directorIds = candidates.stream().map(p -> p.row().getDirectorId()).collect(Collectors.toSet());
+        Set<Long> actorIds = candidates.stream().flatMap(p -> p.row().getActorIds().stream()).collect(Collectors.toSet());
+        Set<String> posters = candidates.stream().map(p -> p.row().getPoster())
+                .filter(poster -> poster != null && !FileStorageService.isExternalUrl(poster)).collect(Collectors.toSet());
+        Set<Long> knownDirectors = new HashSet<>();
+        Set<Long> knownActors = new HashSet<>();
+        Set<String> knownPosters = new HashSet<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            directorRepository.findAllById(directorIds).forEach(director -> knownDirectors.add(director.getId()));
+            actorRepository.findAllById(actorIds).forEach(actor -> knownActors.add(actor.getId()));
+            knownPosters.addAll(fileStorageService.storedFileNames(posters));
+            entityManager.clear();
+        });
+
+        List<ParsedRow> resolved = new ArrayList<>(candidates.size());
+        for (ParsedRow parsed : candidates) {
+            FilmImportRow row = parsed.row();
+            if (!knownDirectors.contains(row.getDirectorId())) {
+                progress.fail(parsed.rowNumber(), "Director not found with ID: " + row.getDirectorId());
+                continue;
+            }
+            Long missingActor = row.getActorIds().stream().filter(id -> !knownActors.contains(id)).findFirst().orElse(null);
+            if (missingActor != null) {
+                progress.fail(parsed.rowNumber(), "Actor not found with ID: " + missingActor);
+                continue;
+            }
+            String poster = row.getPoster();
+            if (poster != null && !FileStorageService.isExternalUrl(poster) && !knownPosters.contains(poster)) {
+                // Ni URL, ni affiche stockée par contenu : un chemin quelconque serait supprimé avec le film
+                progress.fail(parsed.rowNumber(), "Poster must be an http(s) URL or the name of a stored poster: " + poster);
+                continue;
+            }
+            resolved.add(parsed);
+        }
+        if (resolved.isEmpty()) {
+            return;
+        }
+
+        List<Long> filmIds;
+        try {
+            filmIds = transactionTemplate.execute(status -> insert(resolved));
+        } catch (DataAccessException e) {
+            // Le paquet entier a été annulé : on réessaie ligne par ligne pour isoler les lignes fautives
+            log.warn("Film import chunk failed, retrying row by row: {}", e.getMessage());
+            filmIds = new ArrayList<>(resolved.size());
+            for (ParsedRow parsed : resolved) {
+                try {
+                    filmIds.addAll(transactionTemplate.execute(status -> insert(List.of(parsed))));
+                } catch (DataAccessException rowFailure) {
+                    progress.fail(parsed.rowNumber(), NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+
+        progress.imported += filmIds.size();
+        if (!filmIds.isEmpty()) {
+            eventPublisher.publishEvent(new FilmsImportedEvent(filmIds));
+        }
+    }
+
+    // Insère les films d'un paquet (dans la transaction appelante) et renvoie leurs identifiants.
+    // Réalisateur et acteurs sont posés comme références (aucune requête, leur existence est déjà vérifiée).
+    private List<Long> insert(List<ParsedRow> rows) {
+        List<Film> films = new ArrayList<>(rows.size());
+        for (ParsedRow parsed : rows) {
+            FilmImportRow row = parsed.row();
+            Film film = new Film();
+            film.setTitle(row.getTitle().trim());
+            film.setDescription(row.getDescription());
+            film.setReleaseDate(row.getReleaseDate());
+            film.setPoster(row.getPoster());
+            if (row.getPoster() != null && !FileStorageService.isExternalUrl(row.getPoster())
+                    && !fileStorageService.addReference(row.getPoster())) {
+                // Affiche supprimée depuis la résolution du paquet : la reprise ligne par ligne rejette cette ligne
+                throw new DataIntegrityViolationException("Poster not found: " + row.getPoster());
+            }
+            film.setDirector(entityManager.getReference(Director.class, row.getDirectorId()));
+            Set<Actor> actors = new HashSet<>();
+            for (Long actorId : row.getActorIds()) {
+                actors.add(entityManager.getReference(Actor.class, actorId));
+            }
+            film.setActors(actors);
+            films.add(film);
+        }
+        // Flush par le dépôt : une erreur à l'INSERT (valeur trop longue, contrainte...) est traduite
+        // en DataAccessException, ce qui déclenche la reprise ligne par ligne
+        filmRepository.saveAllAndFlush(films);
+        List<Long> ids = films.stream().map(Film::getId).toList();
+        // Les films insérés ne servent plus : contexte de persistance vidé pour garder un tas constant
+        entityManager.clear();
+        return ids;
+    }
+
+    private static String validate(FilmImportRow row) {
+        if (row.getTitle() == null || row.getTitle().isBlank()) {
+            return "Title is required";
+        }
+        if (row.getDirectorId() == null) {
+            return "Director ID is required";
+        }
+        if (row.getPoster() != null && row.getPoster().isBlank()) {
+            row.setPoster(null);
+        }
+        if (row.getActorIds() == null) {
+            row.setActorIds(new ArrayList<>());
+        } else if (row.getActorIds().contains(null)) {
+            return "Actor IDs must not be null";
+        } else {
+            // Un acteur cité deux fois sur la même ligne n'est lié qu'une fois
+            row.setActorIds(new ArrayList<>(new LinkedHashSet<>(row.getActorIds())));
+        }
+        return null;
+    }
+
+    // Compteurs et erreurs accumulés pendant un import
+    private static class ImportProgress {
+        private long rows;
+        private long imported;
+        private long failed;
+        private final List<FilmImportError> errors = new ArrayList<>();
+
+        private void fail(long rowNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new FilmImportError(rowNumber, message));
+            }
+        }
+
+        private FilmImportReport toReport() {
+            errors.sort((a, b) -> Long.compare(a.getRow(), b.getRow()));
+            return new FilmImportReport(rows, imported, failed, errors, failed > errors.size());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.hamza.filmmanagement.services;
+
+import com.hamza.filmmanagement.dto.FilmSearchHit;
+import com.hamza.filmmanagement.dto.SearchResultPage;
+import com.hamza.filmmanagement.entities.Film;
+import com.hamza.filmmanagement.events.FilmChangedEvent;
+import com.hamza.filmmanagement.events.FilmsImportedEvent;
+import com.hamza.filmmanagement.events.PersonChangedEvent;
+import com.hamza.filmmanagement.repositories.FilmRepository;
+import com.hamza.filmmanagement.search.FilmSearchIndex;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Service de recherche plein texte : interroge l'index Lucene et le tient à jour
+// à partir des événements publiés par FilmService, FilmImportService et les services des personnes.
+@Service
+public class FilmSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(FilmSearchService.class);
+
+    // Nombre de films lus par transaction pendant une reconstruction complète
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final FilmSearchIndex filmSearchIndex;
+    private final FilmRepository filmRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean rebuildOnStartup;
+
+    public FilmSearchService(FilmSearchIndex filmSearchIndex,
+                             FilmRepository filmRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${film.search.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.filmSearchIndex = filmSearchIndex;
+        this.filmRepository = filmRepository;
+        // Nouvelle transaction : l'écouteur peut être appelé après le commit d'une transaction appelante
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    public SearchResultPage<FilmSearchHit> search(String query, int page, int size) {
+        return filmSearchIndex.search(query, page, size);
+    }
+
+    // Mise à jour incrémentale de l'index après chaque ajout, modification ou suppression de film
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFilmChanged(FilmChangedEvent event) {
+        if (event.getType() == FilmChangedEvent.Type.DELETED) {
+            filmSearchIndex.delete(event.getFilmId());
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                filmRepository.findDetailById(event.getFilmId()).ifPresent(filmSearchIndex::index));
+    }
+
+    // Import en masse : le paquet de films est relu en une requête et indexé d'un bloc
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFilmsImported(FilmsImportedEvent event) {
+        transactionTemplate.executeWithoutResult(status ->
+                filmSearchIndex.indexBatch(filmRepository.findDetailByIdIn(event.getFilmIds())));
+        filmSearchIndex.refresh();
+    }
+
+    // Les noms du réalisateur et des acteurs sont indexés avec chaque film : un changement de nom
+    // fait réindexer tous les films de la personne, relus par paquets
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        if (event.getType() == PersonChangedEvent.Type.DELETED) {
+            return;
+        }
+        List<Long> filmIds = transactionTemplate.execute(status -> event.getKind() == PersonChangedEvent.Kind.ACTOR
+                ? filmRepository.findIdsByActorId(event.getId())
+                : filmRepository.findIdsByDirectorId(event.getId()));
+        if (filmIds == null || filmIds.isEmpty()) {
+            return;
+        }
+        for (int from = 0; from < filmIds.size(); from += REBUILD_BATCH_SIZE) {
+            List<Long> batch = filmIds.subList(from, Math.min(from + REBUILD_BATCH_SIZE, filmIds.size()));
+            transactionTemplate.executeWithoutResult(status ->
+                    filmSearchIndex.indexBatch(filmRepository.findDetailByIdIn(batch)));
+        }
+        filmSearchIndex.refresh();
+    }
+
+    // === Reconstruction complète de l'index ===
+    // Le catalogue est relu par pages de clés (id croissant), une transaction courte par page, dans un index à part ;
+    // l'index servi n'est remplacé qu'à la fin. Une reconstruction à la fois (les appels suivants attendent).
+    public synchronized long rebuildIndex() {
+        filmSearchIndex.beginRebuild();
+        long afterId = 0L;
+        long indexed = 0L;
+        try {
+            while (true) {
+                final long from = afterId;
+                List<Film> films = transactionTemplate.execute(status -> {
+                    List<Film> page = filmRepository.findPageById(from, PageRequest.ofSize(REBUILD_BATCH_SIZE));
+                    // Acteurs chargés par lots (@BatchSize) avant la fin de la transaction
+                    page.forEach(film -> Hibernate.initialize(film.getActors()));
+                    filmSearchIndex.rebuildBatch(page);
+                    return page;
+                });
+                if (films == null || films.isEmpty()) {
+                    break;
+                }
+                indexed += films.size();
+                afterId = films.get(films.size() - 1).getId();
+            }
+        } catch (RuntimeException e) {
+            filmSearchIndex.abortRebuild();
+            throw e;
+        }
+        filmSearchIndex.finishRebuild();
+        log.info("Search index rebuilt with {} films", indexed);
+        return indexed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartupIfEnabled() {
+        if (rebuildOnStartup) {
+            rebuildIndex();
+        }
+    }
+}
@@ -1,25 +1,40 @@
 package com.hamza.filmmanagement.services;
 
+import com.hamza.filmmanagement.dto.CursorPage;
+import com.hamza.filmmanagement.dto.FilmDetail;
+import com.hamza.filmmanagement.dto.FilmQueryFilter;
+import com.hamza.filmmanagement.dto.FilmQueryResult;
 import com.hamza.filmmanagement.entities.Actor;
 import com.hamza.filmmanagement.entities.Director;
 import com.hamza.filmmanagement.entities.Film;
+import com.hamza.filmmanagement.events.FilmChangedEvent;
 import com.hamza.filmmanagement.exceptions.actor.ActorNotFoundException;
 import com.hamza.filmmanagement.exceptions.director.DirectorNotFoundException;
 import com.hamza.filmmanagement.exceptions.film.FilmNotFoundException;
+import com.hamza.filmmanagement.exceptions.pagination.InvalidPageRequestException;
+import com.hamza.filmmanagement.pagination.FilmSortField;
+import com.hamza.filmmanagement.pagination.KeysetCursor;
 import com.hamza.filmmanagement.repositories.ActorRepository;
 import com.hamza.filmmanagement.repositories.DirectorRepository;
 import com.hamza.filmmanagement.repositories.FilmRepository;
+import com.hamza.filmmanagement.repositories.FilmSpecifications;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 // Classe annotée comme un service Spring, fournissant la logique métier pour gérer les films
 @Service
@@ -30,17 +45,23 @@ public class FilmService {
     // - ActorRepository : pour interagir avec les acteurs
     // - DirectorRepository : pour interagir avec les réalisateurs
     // - FileStorageService : pour gérer le stockage des fichiers, comme les affiches de films
+    // - ApplicationEventPublisher : pour prévenir les vues dérivées du catalogue (index de recherche...) des changements
     private final FilmRepository filmRepository;
     private final ActorRepository actorRepository;
     private final DirectorRepository directorRepository;
     private final FileStorageService fileStorageService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Nombre maximum de réalisateurs renvoyés dans la facette "directors" (les plus représentés)
+    private static final int DIRECTOR_FACET_LIMIT = 20;
 
     // Constructeur pour injecter les dépendances nécessaires
-    public FilmService(FilmRepository filmRepository, ActorRepository actorRepository, DirectorRepository directorRepository, FileStorageService fileStorageService, EmailService emailService) {
+    public FilmService(FilmRepository filmRepository, ActorRepository actorRepository, DirectorRepository directorRepository, FileStorageService fileStorageService, EmailService emailService, ApplicationEventPublisher eventPublisher) {
         this.filmRepository = filmRepository;
         this.actorRepository = actorRepository;
         this.directorRepository = directorRepository;
         this.fileStorageService = fileStorageService;
+        this.eventPublisher = eventPublisher;
     }
 
     // === Méthode pour ajouter un film ===
@@ -70,7 +91,8 @@ public class FilmService {
         film.setPoster(posterFileName);  // Attribuer le nom du fichier à l'entité Film
 
         // Sauvegarder le film dans la base de données
-        filmRepository.save(film);
+        Film saved = saveReleasingPosterOnFailure(film, posterFileName);
+        eventPublisher.publishEvent(FilmChangedEvent.saved(saved.getId()));
     }
 
     // === Méthode pour mettre à jour un film existant ===
@@ -99,19 +121,22 @@ public class FilmService {
         film.setActors(actors);  // Assigner les acteurs mis à jour au film
 
         // Gestion de la mise à jour de l'affiche
+        String oldPoster = film.getPoster();
+        String newPosterFileName = null;
         if (poster != null && !poster.isEmpty()) {  // Si une nouvelle affiche est fournie
-            // Suppression de l'ancienne affiche
-            if (film.getPoster() != null) {
-                fileStorageService.deleteFile(film.getPoster());  // Supprimer le fichier de l'ancienne affiche
-            }
-
-            // Upload de la nouvelle affiche
-            String newPosterFileName = fileStorageService.storeFile(poster);  // Enregistrer la nouvelle affiche
+            // Upload de la nouvelle affiche (avant le retrait de l'ancienne : si c'est le même contenu, le fichier partagé est gardé)
+            newPosterFileName = fileStorageService.storeFile(poster);  // Enregistrer la nouvelle affiche
             film.setPoster(newPosterFileName);  // Assigner le nom du fichier de la nouvelle affiche au film
         }
 
         // Sauvegarder les modifications du film dans la base de données
-        filmRepository.save(film);
+        saveReleasingPosterOnFailure(film, newPosterFileName);
+
+        // Retrait de l'ancienne affiche une fois le film enregistré (fichier supprimé s'il n'est plus utilisé par aucun film)
+        if (newPosterFileName != null && oldPoster != null) {
+            releasePosterAfterCommit(oldPoster);
+        }
+        eventPublisher.publishEvent(FilmChangedEvent.saved(filmId));
     }
 
     // === Méthode pour supprimer un film ===
@@ -122,18 +147,42 @@ public class FilmService {
         Film film = filmRepository.findById(id)
                 .orElseThrow(() -> new FilmNotFoundException("Film not found with ID: " + id));  // Si le film n'est pas trouvé, on lance une exception
 
-        // Suppression de l'affiche du film
+        // Suppression du film de la base de données
+        filmRepository.deleteById(id);
+
+        // Suppression de l'affiche du film, une fois le film supprimé
         if (film.getPoster() != null) {
-            Path posterPath = Paths.get("uploads", film.getPoster());  // Construire le chemin du fichier d'affiche
-            try {
-                Files.deleteIfExists(posterPath);  // Supprimer le fichier d'affiche s'il existe
-            } catch (IOException e) {
-                throw new RuntimeException("Failed to delete poster file: " + film.getPoster(), e);  // Si une erreur se produit, on la lance
+            releasePosterAfterCommit(film.getPoster());  // Retire la référence du film (fichier supprimé avec la dernière)
+        }
+        eventPublisher.publishEvent(FilmChangedEvent.deleted(id));
+    }
+
+    // Enregistre le film ; si l'écriture échoue (modification concurrente, contrainte...), la référence
+    // prise sur la nouvelle affiche est rendue, sans quoi le fichier ne serait jamais supprimé
+    private Film saveReleasingPosterOnFailure(Film film, String newPoster) {
+        try {
+            return filmRepository.save(film);
+        } catch (RuntimeException e) {
+            if (newPoster != null) {
+                fileStorageService.deleteFile(newPoster);
             }
+            throw e;
         }
+    }
 
-        // Suppression du film de la base de données
-        filmRepository.deleteById(id);
+    // Retire une référence d'affiche seulement après le commit de l'écriture du film : tant qu'elle peut encore
+    // être annulée, le film pointe toujours vers ce fichier. Sans transaction en cours, l'écriture est déjà validée.
+    private void releasePosterAfterCommit(String poster) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            fileStorageService.deleteFile(poster);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                fileStorageService.deleteFile(poster);
+            }
+        });
     }
 
     // === Méthode pour récupérer tous les films ===
@@ -142,9 +191,122 @@ public class FilmService {
         return filmRepository.findAll();  // Retourne la liste des films
     }
 
+    // === Méthode pour récupérer une page de films par curseur ===
+    // `after` est le curseur renvoyé par la page précédente (null pour la première page).
+    // On lit limit + 1 lignes pour savoir s'il reste une page après celle-ci.
+    // Les acteurs et réalisateurs des films de la page sont chargés par lots (@BatchSize)
+    @Transactional(readOnly = true)
+    public CursorPage<FilmDetail> getFilmsPage(String sort, String after, Integer limit) {
+        FilmSortField sortField = FilmSortField.fromParam(sort);
+        int pageSize = KeysetCursor.clampLimit(limit);
+        PageRequest pageRequest = PageRequest.ofSize(pageSize + 1);
+        KeysetCursor cursor = after == null || after.isBlank() ? null : KeysetCursor.decode(after, sortField.getParam());
+
+        List<Film> films = switch (sortField) {
+            case ID -> filmRepository.findPageById(cursor == null ? 0L : cursor.getLastId(), pageRequest);
+            case TITLE -> {
+                if (cursor == null) {
+                    yield completeWithoutValue(filmRepository.findFirstPageByTitle(pageRequest), pageSize + 1,
+                            remaining -> filmRepository.findPageWithoutTitle(0L, PageRequest.ofSize(remaining)));
+                }
+                // Valeur absente : le dernier film renvoyé n'avait pas de titre
+                yield cursor.getLastValue() == null
+                        ? filmRepository.findPageWithoutTitle(cursor.getLastId(), pageRequest)
+                        : completeWithoutValue(filmRepository.findPageByTitle(cursor.getLastValue(), cursor.getLastId(), pageRequest),
+                        pageSize + 1, remaining -> filmRepository.findPageWithoutTitle(0L, PageRequest.ofSize(remaining)));
+            }
+            case RELEASE_DATE -> {
+                if (cursor == null) {
+                    yield completeWithoutValue(filmRepository.findFirstPageByReleaseDate(pageRequest), pageSize + 1,
+                            remaining -> filmRepository.findPageWithoutReleaseDate(0L, PageRequest.ofSize(remaining)));
+                }
+                // Valeur absente : le dernier film renvoyé n'avait pas de date de sortie
+                LocalDate lastDate = parseCursorDate(cursor.getLastValue());
+                yield lastDate == null
+                        ? filmRepository.findPageWithoutReleaseDate(cursor.getLastId(), pageRequest)
+                        : completeWithoutValue(filmRepository.findPageByReleaseDate(lastDate, cursor.getLastId(), pageRequest),
+                        pageSize + 1, remaining -> filmRepository.findPageWithoutReleaseDate(0L, PageRequest.ofSize(remaining)));
+            }
+        };
+
+        if (films.size() <= pageSize) {
+            return new CursorPage<>(films.stream().map(FilmDetail::from).toList(), null, pageSize);
+        }
+
+        // Le curseur suivant pointe sur le dernier élément réellement renvoyé
+        List<Film> page = films.subList(0, pageSize);
+        Film last = page.get(pageSize - 1);
+        String lastValue = switch (sortField) {
+            case ID -> "";
+            case TITLE -> last.getTitle();
+            case RELEASE_DATE -> last.getReleaseDate() == null ? null : last.getReleaseDate().toString();
+        };
+        return new CursorPage<>(page.stream().map(FilmDetail::from).toList(),
+                new KeysetCursor(sortField.getParam(), last.getId(), lastValue).encode(), pageSize);
+    }
+
+    // Les films sans valeur pour la colonne de tri viennent après tous les autres : une page de films avec valeur
+    // qui n'est pas pleine est complétée par le début de la liste des films sans valeur
+    private static List<Film> completeWithoutValue(List<Film> films, int wanted, IntFunction<List<Film>> withoutValue) {
+        if (films.size() >= wanted) {
+            return films;
+        }
+        List<Film> page = new ArrayList<>(films);
+        page.addAll(withoutValue.apply(wanted - films.size()));
+        return page;
+    }
+
+    // Les curseurs émis avant l'encodage de NULL utilisaient une valeur vide pour les films sans date
+    private static LocalDate parseCursorDate(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidPageRequestException("Invalid cursor");
+        }
+    }
+
     // === Méthode pour récupérer un film par ID ===
     // Cette méthode permet de récupérer un film spécifique en fonction de son ID
     public Film getFilmById(Long id) {
         return filmRepository.findById(id).orElseThrow(() -> new FilmNotFoundException("Film not found"));  // Si le film n'est pas trouvé, on lance une exception
     }
+
+    // === Méthode pour récupérer la fiche détaillée d'un film ===
+    // Une seule requête SQL (film + réalisateur + acteurs), convertie en FilmDetail avant de quitter la transaction
+    @Transactional(readOnly = true)
+    public FilmDetail getFilmDetail(Long id) {
+        Film film = filmRepository.findDetailById(id)
+                .orElseThrow(() -> new FilmNotFoundException("Film not found"));
+        return FilmDetail.from(film);
+    }
+
+    // === Méthode pour filtrer les films avec compteurs de facettes ===
+    // La page de résultats et les compteurs (par année, nationalité du réalisateur, réalisateur)
+    // sont calculés sur le même filtre ; les compteurs sont des GROUP BY en base, sans charger d'entités
+    @Transactional(readOnly = true)
+    public FilmQueryResult queryFilms(FilmQueryFilter filter, int page, int size) {
+        if (page < 0) {
+            throw new InvalidPageRequestException("page must be >= 0");
+        }
+        int pageSize = KeysetCursor.clampLimit(size);
+        if (filter.getReleasedFrom() != null && filter.getReleasedTo() != null
+                && filter.getReleasedFrom().isAfter(filter.getReleasedTo())) {
+            throw new InvalidPageRequestException("releasedFrom must be before releasedTo");
+        }
+
+        Page<Film> films = filmRepository.findAll(FilmSpecifications.matching(filter),
+                PageRequest.of(page, pageSize, Sort.by(Sort.Order.desc("releaseDate"), Sort.Order.asc("id"))));
+
+        return new FilmQueryResult(
+                films.getContent().stream().map(FilmDetail::from).toList(),
+                films.getTotalElements(),
+                page,
+                pageSize,
+                filmRepository.countByReleaseYear(filter),
+                filmRepository.countByDirectorNationality(filter),
+                filmRepository.countByDirector(filter, DIRECTOR_FACET_LIMIT));
+    }
 }
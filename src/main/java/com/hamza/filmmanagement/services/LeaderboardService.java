@@ -0,0 +1,127 @@
+package com.hamza.filmmanagement.services;
+
+import com.hamza.filmmanagement.dto.LeaderboardEntry;
+import com.hamza.filmmanagement.events.FilmChangedEvent;
+import com.hamza.filmmanagement.events.RatingAggregatesChangedEvent;
+import com.hamza.filmmanagement.leaderboard.FilmLeaderboard;
+import com.hamza.filmmanagement.repositories.FilmRatingView;
+import com.hamza.filmmanagement.repositories.FilmRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Classements "mieux notés" / "plus notés" servis depuis la mémoire (page d'accueil).
+// Construits au démarrage à partir des agrégats de notes des films, puis mis à jour
+// après chaque écriture de notes : les lectures ne touchent jamais la base.
+// Les écritures (reconstruction, mise à jour, retrait) se font une à une, relecture en base comprise : une mise à jour
+// pendant une reconstruction attend le nouveau classement au lieu d'être perdue avec l'ancien, et deux mises à jour
+// d'un même film s'appliquent dans l'ordre de leurs lectures. Les lectures du classement ne sont jamais bloquées.
+@Service
+public class LeaderboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardService.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 100;
+
+    private final long minVotesForTopRated;
+    // Remplacé d'un bloc à chaque reconstruction : les lectures ne voient jamais un classement à moitié construit
+    private volatile FilmLeaderboard leaderboard;
+    private final FilmRepository filmRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public LeaderboardService(FilmRepository filmRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${film.leaderboard.min-votes:5}") long minVotesForTopRated) {
+        this.minVotesForTopRated = minVotesForTopRated;
+        this.leaderboard = new FilmLeaderboard(minVotesForTopRated);
+        this.filmRepository = filmRepository;
+        // Nouvelle transaction : les écouteurs peuvent être appelés après le commit de l'écriture des notes
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public List<LeaderboardEntry> topRated(Integer year, Integer limit) {
+        return leaderboard.top(FilmLeaderboard.Ranking.TOP_RATED, year, clampLimit(limit));
+    }
+
+    public List<LeaderboardEntry> mostRated(Integer year, Integer limit) {
+        return leaderboard.top(FilmLeaderboard.Ranking.MOST_RATED, year, clampLimit(limit));
+    }
+
+    // Construction complète à partir des films ayant au moins un vote
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        FilmLeaderboard rebuilt = new FilmLeaderboard(minVotesForTopRated);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<FilmRatingView> films = filmRepository.streamRatedFilms()) {
+                films.forEach(film -> rebuilt.update(toEntry(film)));
+            }
+        });
+        leaderboard = rebuilt;
+        log.info("Film leaderboards built with {} rated films", rebuilt.size());
+    }
+
+    // Mise à jour des seuls films dont les notes ont changé
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingAggregatesChanged(RatingAggregatesChangedEvent event) {
+        if (event.isAllFilms()) {
+            rebuild();
+            return;
+        }
+        refresh(event.getFilmIds());
+    }
+
+    // Titre ou date de sortie modifiés, ou film supprimé
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFilmChanged(FilmChangedEvent event) {
+        if (event.getType() == FilmChangedEvent.Type.DELETED) {
+            remove(event.getFilmId());
+        } else {
+            refresh(Set.of(event.getFilmId()));
+        }
+    }
+
+    private synchronized void remove(Long filmId) {
+        leaderboard.remove(filmId);
+    }
+
+    private synchronized void refresh(Set<Long> filmIds) {
+        if (filmIds.isEmpty()) {
+            return;
+        }
+        List<FilmRatingView> films = transactionTemplate.execute(status -> filmRepository.findRatingViewsByIdIn(filmIds));
+        Set<Long> missing = new HashSet<>(filmIds);
+        FilmLeaderboard current = leaderboard;
+        for (FilmRatingView film : films) {
+            current.update(toEntry(film));
+            missing.remove(film.getId());
+        }
+        missing.forEach(current::remove);
+    }
+
+    private static LeaderboardEntry toEntry(FilmRatingView film) {
+        Integer year = film.getReleaseDate() == null ? null : film.getReleaseDate().getYear();
+        return LeaderboardEntry.of(film.getId(), film.getTitle(), year, film.getRatingCount(), film.getRatingSum());
+    }
+
+    private static int clampLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
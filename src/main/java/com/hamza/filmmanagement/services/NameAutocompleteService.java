@@ -0,0 +1,93 @@
+package com.hamza.filmmanagement.services;
+
+import com.hamza.filmmanagement.dto.NameSuggestion;
+import com.hamza.filmmanagement.events.PersonChangedEvent;
+import com.hamza.filmmanagement.repositories.ActorRepository;
+import com.hamza.filmmanagement.repositories.DirectorRepository;
+import com.hamza.filmmanagement.repositories.PersonNameView;
+import com.hamza.filmmanagement.search.NameAutocompleteIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Autocomplétion des noms d'acteurs et de réalisateurs pour le formulaire de film.
+// Les deux index sont construits au démarrage puis tenus à jour par les événements de ActorService / DirectorService.
+@Service
+public class NameAutocompleteService {
+
+    private static final Logger log = LoggerFactory.getLogger(NameAutocompleteService.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private final NameAutocompleteIndex actorIndex = new NameAutocompleteIndex();
+    private final NameAutocompleteIndex directorIndex = new NameAutocompleteIndex();
+
+    private final ActorRepository actorRepository;
+    private final DirectorRepository directorRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public NameAutocompleteService(ActorRepository actorRepository,
+                                   DirectorRepository directorRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.actorRepository = actorRepository;
+        this.directorRepository = directorRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public List<NameSuggestion> suggestActors(String query, Integer limit) {
+        return actorIndex.suggest(query, clampLimit(limit));
+    }
+
+    public List<NameSuggestion> suggestDirectors(String query, Integer limit) {
+        return directorIndex.suggest(query, clampLimit(limit));
+    }
+
+    // Construction des deux index à partir d'une projection (id, prénom, nom), lue en flux
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        actorIndex.replaceAll(load(actorRepository::streamAllNames));
+        directorIndex.replaceAll(load(directorRepository::streamAllNames));
+        log.info("Autocomplete indexes built: {} actors, {} directors", actorIndex.size(), directorIndex.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        if (event.getId() == null) {
+            return;
+        }
+        NameAutocompleteIndex index = event.getKind() == PersonChangedEvent.Kind.ACTOR ? actorIndex : directorIndex;
+        if (event.getType() == PersonChangedEvent.Type.DELETED) {
+            index.remove(event.getId());
+        } else {
+            index.put(event.getId(), event.getFirstName(), event.getLastName());
+        }
+    }
+
+    private NameAutocompleteIndex.Builder load(Supplier<Stream<PersonNameView>> source) {
+        return transactionTemplate.execute(status -> {
+            NameAutocompleteIndex.Builder builder = NameAutocompleteIndex.builder();
+            try (Stream<PersonNameView> names = source.get()) {
+                names.forEach(name -> builder.add(name.getId(), name.getFirstName(), name.getLastName()));
+            }
+            return builder;
+        });
+    }
+
+    private static int clampLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
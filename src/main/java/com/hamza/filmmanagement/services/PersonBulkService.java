@@ -0,0 +1,190 @@
+package com.hamza.filmmanagement.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hamza.filmmanagement.dto.BulkUpsertResult;
+import com.hamza.filmmanagement.entities.CacheRegions;
+import com.hamza.filmmanagement.entities.IdGenerators;
+import com.hamza.filmmanagement.events.PersonChangedEvent;
+import com.hamza.filmmanagement.exceptions.bulk.InvalidBulkRequestException;
+import com.hamza.filmmanagement.repositories.IdBlockRepository;
+import com.hamza.filmmanagement.repositories.PersonBatchRepository;
+import com.hamza.filmmanagement.repositories.PersonBatchRepository.PersonKey;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Upsert en masse d'acteurs ou de réalisateurs sur leur clé naturelle (prénom, nom, nationalité).
+// Les éléments sont traités par paquets : une requête de recherche, un INSERT en lot pour les absents
+// et une transaction par paquet. Une personne déjà connue (ou envoyée deux fois) garde son id.
+@Service
+public class PersonBulkService {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    // Nombre d'éléments par paquet (une transaction par paquet)
+    static final int CHUNK_SIZE = 500;
+
+    private final PersonBatchRepository personBatchRepository;
+    private final IdBlockRepository idBlockRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public PersonBulkService(PersonBatchRepository personBatchRepository, IdBlockRepository idBlockRepository,
+                             ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory) {
+        this.personBatchRepository = personBatchRepository;
+        this.idBlockRepository = idBlockRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    // Lecture en flux d'un corps NDJSON (un objet JSON par ligne)
+    public <T> Iterator<T> readNdjson(InputStream in, Class<T> type) throws IOException {
+        MappingIterator<T> values;
+        try {
+            values = objectMapper.readerFor(type).readValues(in);
+        } catch (JsonProcessingException e) {
+            throw new InvalidBulkRequestException("Invalid NDJSON: " + e.getOriginalMessage());
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return values.hasNext();
+                } catch (RuntimeException e) {
+                    throw invalidNdjson(e);
+                }
+            }
+
+            @Override
+            public T next() {
+                try {
+                    return values.next();
+                } catch (RuntimeException e) {
+                    throw invalidNdjson(e);
+                }
+            }
+        };
+    }
+
+    // MappingIterator enveloppe ses erreurs dans une RuntimeException : une ligne au mauvais type
+    // (RuntimeJsonMappingException) comme une ligne tronquée ou mal formée (cause JsonParseException).
+    // Les deux sont des erreurs du client (400) ; toute autre erreur, lecture du corps comprise, est relancée telle quelle.
+    private static RuntimeException invalidNdjson(RuntimeException e) {
+        if (e.getCause() instanceof JsonProcessingException json) {
+            return new InvalidBulkRequestException("Invalid NDJSON: " + json.getOriginalMessage());
+        }
+        return e;
+    }
+
+    // Renvoie un id par élément, dans l'ordre d'entrée. Un élément invalide interrompt la requête (400) ;
+    // les paquets précédents restent enregistrés, et l'upsert étant idempotent, la requête corrigée peut être renvoyée telle quelle.
+    public <T> BulkUpsertResult upsert(PersonChangedEvent.Kind kind, Iterator<T> rows, Function<? super T, PersonKey> toKey) {
+        String table = kind == PersonChangedEvent.Kind.ACTOR ? IdGenerators.ACTOR : IdGenerators.DIRECTOR;
+        List<Long> ids = new ArrayList<>();
+        int created = 0;
+        List<PersonKey> chunk = new ArrayList<>(CHUNK_SIZE);
+        int rowNumber = 0;
+        while (rows.hasNext()) {
+            T row = rows.next();
+            rowNumber++;
+            chunk.add(validate(rowNumber, row == null ? null : toKey.apply(row)));
+            if (chunk.size() == CHUNK_SIZE) {
+                created += upsertChunk(kind, table, chunk, ids);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += upsertChunk(kind, table, chunk, ids);
+        }
+        return new BulkUpsertResult(ids, created);
+    }
+
+    private int upsertChunk(PersonChangedEvent.Kind kind, String table, List<PersonKey> chunk, List<Long> ids) {
+        ChunkResult result;
+        try {
+            result = transactionTemplate.execute(status -> writeChunk(table, chunk));
+        } catch (DuplicateKeyException e) {
+            // Une requête concurrente a inséré une des personnes entre notre recherche et notre INSERT :
+            // le paquet est annulé et rejoué, la recherche trouve désormais la ligne existante
+            result = transactionTemplate.execute(status -> writeChunk(table, chunk));
+        }
+        ids.addAll(result.ids());
+        if (!result.created().isEmpty()) {
+            // Les INSERT JDBC ne passent pas par Hibernate : les listes d'acteurs / réalisateurs en cache de requêtes
+            // ne savent pas que la table a changé
+            entityManagerFactory.getCache().unwrap(Cache.class).evictQueryRegion(CacheRegions.PERSON_QUERIES);
+        }
+        result.created().forEach((id, key) -> eventPublisher.publishEvent(
+                PersonChangedEvent.saved(kind, id, key.firstName(), key.lastName())));
+        return result.created().size();
+    }
+
+    private record ChunkResult(List<Long> ids, Map<Long, PersonKey> created) {
+    }
+
+    private ChunkResult writeChunk(String table, List<PersonKey> chunk) {
+        // Dédoublonnage du paquet sur la clé normalisée, en gardant la première écriture reçue
+        Map<String, PersonKey> distinct = new LinkedHashMap<>();
+        for (PersonKey key : chunk) {
+            distinct.putIfAbsent(key.normalized(), key);
+        }
+        Map<String, Long> known = personBatchRepository.findIds(table, distinct.values());
+
+        List<PersonKey> missing = new ArrayList<>();
+        distinct.forEach((normalized, key) -> {
+            if (!known.containsKey(normalized)) {
+                missing.add(key);
+            }
+        });
+
+        Map<Long, PersonKey> created = new LinkedHashMap<>();
+        if (!missing.isEmpty()) {
+            long nextId = idBlockRepository.allocate(table, missing.size());
+            List<Long> newIds = new ArrayList<>(missing.size());
+            for (PersonKey key : missing) {
+                long id = nextId++;
+                newIds.add(id);
+                known.put(key.normalized(), id);
+                created.put(id, key);
+            }
+            personBatchRepository.insert(table, missing, newIds);
+        }
+
+        List<Long> ids = new ArrayList<>(chunk.size());
+        for (PersonKey key : chunk) {
+            ids.add(known.get(key.normalized()));
+        }
+        return new ChunkResult(ids, created);
+    }
+
+    private static PersonKey validate(int rowNumber, PersonKey key) {
+        if (key == null || isBlank(key.firstName()) || isBlank(key.lastName()) || isBlank(key.nationality())) {
+            throw new InvalidBulkRequestException("Row " + rowNumber + ": firstName, lastName and nationality are required");
+        }
+        return new PersonKey(key.firstName().trim(), key.lastName().trim(), key.nationality().trim());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
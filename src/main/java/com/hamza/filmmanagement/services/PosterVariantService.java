@@ -0,0 +1,151 @@
+package com.hamza.filmmanagement.services;
+
+import com.hamza.filmmanagement.dto.PosterVariant;
+import com.hamza.filmmanagement.events.PosterStoredEvent;
+import com.hamza.filmmanagement.posters.PosterResizer;
+import com.hamza.filmmanagement.repositories.PosterBlobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Génération en arrière-plan des tailles d'affiche (PosterVariant), après chaque nouveau contenu stocké par FileStorageService.
+// Pool de threads fixe et file bornée : une rafale d'envois ne prend jamais plus que ces threads, les demandes en trop
+// sont abandonnées et refaites à la première demande de la taille manquante (l'original est servi en attendant).
+@Service
+public class PosterVariantService {
+
+    private static final Logger log = LoggerFactory.getLogger(PosterVariantService.class);
+
+    private final FileStorageService fileStorageService;
+    private final PosterBlobRepository posterBlobRepository;
+    private final long maxPixels;
+    private final float jpegQuality;
+    private final ThreadPoolExecutor executor;
+
+    // Affiches en cours de traitement (une seule génération à la fois par contenu)
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+    // Formats non lisibles par ImageIO : pas de nouvel essai avant le redémarrage
+    private final Set<String> unsupported = ConcurrentHashMap.newKeySet();
+
+    public PosterVariantService(FileStorageService fileStorageService,
+                                PosterBlobRepository posterBlobRepository,
+                                @Value("${film.posters.variants.threads:2}") int threads,
+                                @Value("${film.posters.variants.queue-capacity:100}") int queueCapacity,
+                                @Value("${film.posters.variants.max-pixels:50000000}") long maxPixels,
+                                @Value("${film.posters.variants.jpeg-quality:0.85}") float jpegQuality) {
+        this.fileStorageService = fileStorageService;
+        this.posterBlobRepository = posterBlobRepository;
+        this.maxPixels = maxPixels;
+        this.jpegQuality = jpegQuality;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "poster-variants-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    // Le redimensionnement ne doit pas concurrencer les threads des requêtes
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+    }
+
+    // Après le commit : le fichier original et sa ligne PosterBlob existent
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPosterStored(PosterStoredEvent event) {
+        schedule(event.getHash(), event.getFileName());
+    }
+
+    // === Fichier à servir pour une taille d'affiche ===
+    // La variante si elle existe ; sinon l'original (et la variante est mise en file pour les demandes suivantes)
+    public Path resolve(String fileName, PosterVariant variant) {
+        Path original = fileStorageService.existingFile(fileName);
+        String hash = FileStorageService.contentHash(fileName);
+        if (variant == null || hash == null) {
+            return original;
+        }
+        Path variantFile = fileStorageService.uploadedFile(variant.fileName(hash));
+        if (Files.isRegularFile(variantFile)) {
+            return variantFile;
+        }
+        schedule(hash, fileName);
+        return original;
+    }
+
+    public void schedule(String hash, String fileName) {
+        if (unsupported.contains(hash) || !inProgress.add(hash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(hash, fileName);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Poster variants failed for {}: {}", fileName, e.getMessage());
+                } finally {
+                    inProgress.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inProgress.remove(hash);
+            log.debug("Poster variant queue full, {} deferred", fileName);
+        }
+    }
+
+    private void generate(String hash, String fileName) throws IOException {
+        Path original = fileStorageService.uploadedFile(fileName);
+        if (!Files.isRegularFile(original)) {
+            return;
+        }
+        int largest = PosterVariant.FULL.getWidth();
+        BufferedImage image = PosterResizer.read(original, largest, maxPixels);
+        if (image == null) {
+            unsupported.add(hash);
+            log.info("Poster {} is not a supported image, served without variants", fileName);
+            return;
+        }
+        long start = System.nanoTime();
+        for (PosterVariant variant : PosterVariant.values()) {
+            String variantName = variant.fileName(hash);
+            if (Files.isRegularFile(fileStorageService.uploadedFile(variantName))) {
+                continue;
+            }
+            // Jamais d'agrandissement : une affiche plus étroite que la taille demandée garde sa largeur
+            int width = Math.min(variant.getWidth(), image.getWidth());
+            Path temp = fileStorageService.newTempFile();
+            try {
+                PosterResizer.writeJpeg(PosterResizer.resize(image, width), temp, jpegQuality);
+                fileStorageService.moveIntoUploads(temp, variantName);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        // Affiche supprimée pendant la génération : ses variantes ne doivent pas rester orphelines
+        if (!posterBlobRepository.existsById(hash)) {
+            for (PosterVariant variant : PosterVariant.values()) {
+                Files.deleteIfExists(fileStorageService.uploadedFile(variant.fileName(hash)));
+            }
+            return;
+        }
+        log.debug("Poster variants for {} generated in {} ms", fileName, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
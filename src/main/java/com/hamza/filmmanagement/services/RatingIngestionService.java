@@ -0,0 +1,247 @@
+package com.hamza.filmmanagement.services;
+
+import com.hamza.filmmanagement.events.RatingAggregatesChangedEvent;
+import com.hamza.filmmanagement.exceptions.rating.RatingQueueFullException;
+import com.hamza.filmmanagement.repositories.RatingBatchRepository;
+import com.hamza.filmmanagement.repositories.RatingBatchRepository.ExistingRating;
+import com.hamza.filmmanagement.repositories.RatingBatchRepository.RatingWrite;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Écriture différée (write-behind) des notes de films.
+// Les votes sont déposés dans une file bornée en mémoire et la requête HTTP rend la main aussitôt (202).
+// Un unique thread d'écriture vide la file par lots : il ne garde que le dernier vote de chaque couple
+// (utilisateur, film), puis écrit le lot en une transaction JDBC (upsert en lots + incréments des agrégats).
+// Un lot refusé par la base est gardé et réécrit jusqu'au retour de celle-ci, avec une attente croissante :
+// la file se remplit pendant ce temps et renvoie 429, un vote accepté (202) n'est jamais abandonné.
+// File pleine = 429 ; à l'arrêt de l'application, la file est vidée avant la fermeture de la base.
+@Service
+public class RatingIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingIngestionService.class);
+
+    // Temps d'attente maximum à l'arrêt pour écrire les votes encore en file
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private record Vote(String email, long filmId, int score) {
+    }
+
+    private record VoteKey(String email, long filmId) {
+    }
+
+    private final RatingBatchRepository ratingBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<Vote> queue;
+    private final int flushBatchSize;
+    private final long flushIntervalMs;
+    private final long retryBackoffMs;
+    private final long retryMaxBackoffMs;
+
+    private final Timer flushTimer;
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter droppedCounter;
+    private final Counter retryCounter;
+
+    private volatile boolean running = true;
+    private Thread writer;
+
+    public RatingIngestionService(RatingBatchRepository ratingBatchRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${film.ratings.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${film.ratings.flush-batch-size:1000}") int flushBatchSize,
+                                  @Value("${film.ratings.flush-interval-ms:200}") long flushIntervalMs,
+                                  @Value("${film.ratings.retry-backoff-ms:100}") long retryBackoffMs,
+                                  @Value("${film.ratings.retry-max-backoff-ms:5000}") long retryMaxBackoffMs) {
+        this.ratingBatchRepository = ratingBatchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flushBatchSize = flushBatchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.retryBackoffMs = retryBackoffMs;
+        this.retryMaxBackoffMs = retryMaxBackoffMs;
+
+        Gauge.builder("ratings.queue.depth", queue, BlockingQueue::size)
+                .description("Votes waiting to be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("ratings.flush.latency")
+                .description("Time to write one batch of votes")
+                .register(meterRegistry);
+        this.acceptedCounter = meterRegistry.counter("ratings.votes", "outcome", "accepted");
+        this.rejectedCounter = meterRegistry.counter("ratings.votes", "outcome", "rejected");
+        this.droppedCounter = meterRegistry.counter("ratings.votes", "outcome", "dropped");
+        this.retryCounter = meterRegistry.counter("ratings.flush.retries");
+    }
+
+    @PostConstruct
+    public void start() {
+        writer = new Thread(this::writeLoop, "rating-writer");
+        writer.start();
+    }
+
+    // === Dépôt d'un vote ===
+    // Ne touche pas la base : l'existence de l'utilisateur et du film est vérifiée au moment de l'écriture
+    public void submit(String email, Long filmId, int score) {
+        RatingService.validateScore(score);
+        if (!running || !queue.offer(new Vote(email, filmId, score))) {
+            rejectedCounter.increment();
+            throw new RatingQueueFullException("Too many ratings in progress, please retry later");
+        }
+        acceptedCounter.increment();
+    }
+
+    // Arrêt : plus aucun vote accepté, le thread d'écriture vide la file puis s'arrête.
+    // S'il n'a pas fini à temps (base injoignable), il est interrompu : le lot en cours et la file sont perdus.
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+        if (writer.isAlive()) {
+            log.warn("Rating writer did not finish within {}s, {} votes lost", SHUTDOWN_TIMEOUT_SECONDS, queue.size());
+            writer.interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        List<Vote> batch = new ArrayList<>(flushBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Vote first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, flushBatchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Erreur autre qu'un refus de la base (les refus sont réessayés dans flush) : le thread d'écriture
+                // ne doit jamais mourir, le lot est abandonné
+                droppedCounter.increment(batch.size());
+                log.error("Failed to write {} ratings", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Vote> batch) throws InterruptedException {
+        // Regroupement : seul le dernier vote d'un utilisateur pour un film compte
+        Map<VoteKey, Vote> latest = new LinkedHashMap<>();
+        for (Vote vote : batch) {
+            latest.put(new VoteKey(vote.email(), vote.filmId()), vote);
+        }
+
+        Set<Long> changedFilms = writeUntilAccepted(latest.values());
+
+        if (changedFilms != null && !changedFilms.isEmpty()) {
+            eventPublisher.publishEvent(new RatingAggregatesChangedEvent(changedFilms));
+        }
+    }
+
+    // Chaque tentative relit l'état courant des notes dans une nouvelle transaction : un conflit (note modifiée
+    // ou insérée entre-temps) se résout à la tentative suivante, une panne de la base à son retour
+    private Set<Long> writeUntilAccepted(Collection<Vote> votes) throws InterruptedException {
+        long backoffMs = retryBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return flushTimer.record(() -> transactionTemplate.execute(status -> write(votes)));
+            } catch (DataAccessException | TransactionException e) {
+                retryCounter.increment();
+                log.warn("Rating batch of {} votes failed (attempt {}), retrying in {} ms: {}", votes.size(), attempt, backoffMs, e.getMessage());
+                Thread.sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, retryMaxBackoffMs);
+            }
+        }
+    }
+
+    // Écrit un lot de votes déjà regroupés et renvoie les films dont les agrégats ont changé
+    private Set<Long> write(Collection<Vote> votes) {
+        Set<String> emails = new HashSet<>();
+        Set<Long> filmIds = new HashSet<>();
+        for (Vote vote : votes) {
+            emails.add(vote.email());
+            filmIds.add(vote.filmId());
+        }
+        Map<String, Long> userIds = ratingBatchRepository.findUserIdsByEmail(emails);
+        Set<Long> existingFilms = ratingBatchRepository.findExistingFilmIds(filmIds);
+
+        Map<String, ExistingRating> current = new HashMap<>();
+        if (!userIds.isEmpty() && !existingFilms.isEmpty()) {
+            for (ExistingRating rating : ratingBatchRepository.findRatings(userIds.values(), existingFilms)) {
+                current.put(rating.userId() + ":" + rating.filmId(), rating);
+            }
+        }
+
+        List<RatingWrite> writes = new ArrayList<>();
+        Map<Long, long[]> deltas = new HashMap<>();
+        int dropped = 0;
+        for (Vote vote : votes) {
+            Long userId = userIds.get(vote.email());
+            if (userId == null || !existingFilms.contains(vote.filmId())) {
+                dropped++;
+                continue;
+            }
+            ExistingRating existing = current.get(userId + ":" + vote.filmId());
+            if (existing == null) {
+                writes.add(new RatingWrite(null, userId, vote.filmId(), null, vote.score()));
+                addDelta(deltas, vote.filmId(), null, vote.score());
+            } else if (existing.score() != vote.score()) {
+                writes.add(new RatingWrite(existing.id(), userId, vote.filmId(), existing.score(), vote.score()));
+                addDelta(deltas, vote.filmId(), existing.score(), vote.score());
+            }
+        }
+        if (dropped > 0) {
+            droppedCounter.increment(dropped);
+            log.debug("{} ratings ignored (unknown user or film)", dropped);
+        }
+
+        ratingBatchRepository.upsert(writes);
+        ratingBatchRepository.applyAggregateDeltas(deltas);
+        return deltas.keySet();
+    }
+
+    // Cumule la variation des agrégats d'un film : [nombre, somme, histo 1..5]
+    private static void addDelta(Map<Long, long[]> deltas, long filmId, Integer removedScore, int addedScore) {
+        long[] delta = deltas.computeIfAbsent(filmId, id -> new long[7]);
+        if (removedScore == null) {
+            delta[0]++;
+        } else {
+            delta[1] -= removedScore;
+            delta[1 + removedScore]--;
+        }
+        delta[1] += addedScore;
+        delta[1 + addedScore]++;
+    }
+}
@@ -0,0 +1,107 @@
+package com.hamza.filmmanagement.services;
+
+import com.hamza.filmmanagement.entities.User;
+import com.hamza.filmmanagement.events.RatingAggregatesChangedEvent;
+import com.hamza.filmmanagement.exceptions.rating.InvalidRatingException;
+import com.hamza.filmmanagement.repositories.FilmRepository;
+import com.hamza.filmmanagement.repositories.RatingRepository;
+import com.hamza.filmmanagement.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+
+// Service des notes de films.
+// Les votes sont écrits par lots par RatingIngestionService ; ce service retire une note et réconcilie les agrégats.
+// Chaque retrait met à jour, dans la même transaction, les agrégats dénormalisés du film
+// (nombre de votes, somme, histogramme) par un UPDATE incrémental.
+@Service
+public class RatingService {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingService.class);
+
+    public static final int MIN_SCORE = 1;
+    public static final int MAX_SCORE = 5;
+
+    // Nombre d'identifiants de films recalculés par transaction pendant la réconciliation
+    private static final int RECONCILE_BATCH_SIZE = 1000;
+
+    private final RatingRepository ratingRepository;
+    private final FilmRepository filmRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RatingService(RatingRepository ratingRepository,
+                         FilmRepository filmRepository,
+                         UserRepository userRepository,
+                         PlatformTransactionManager transactionManager,
+                         ApplicationEventPublisher eventPublisher) {
+        this.ratingRepository = ratingRepository;
+        this.filmRepository = filmRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    // === Retirer sa note ===
+    @Transactional
+    public void removeRating(String email, Long filmId) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        ratingRepository.findByUserIdAndFilmId(user.getId(), filmId).ifPresent(rating -> {
+            ratingRepository.delete(rating);
+            applyDelta(filmId, rating.getScore(), null);
+        });
+    }
+
+    // Traduit le passage d'une note à une autre (null = absence de note) en incréments sur les agrégats du film
+    private void applyDelta(Long filmId, Integer removedScore, Integer addedScore) {
+        long[] hist = new long[MAX_SCORE + 1];
+        long countDelta = 0;
+        long sumDelta = 0;
+        if (removedScore != null) {
+            countDelta--;
+            sumDelta -= removedScore;
+            hist[removedScore]--;
+        }
+        if (addedScore != null) {
+            countDelta++;
+            sumDelta += addedScore;
+            hist[addedScore]++;
+        }
+        filmRepository.applyRatingDelta(filmId, countDelta, sumDelta, hist[1], hist[2], hist[3], hist[4], hist[5]);
+        eventPublisher.publishEvent(new RatingAggregatesChangedEvent(Set.of(filmId)));
+    }
+
+    public static void validateScore(int score) {
+        if (score < MIN_SCORE || score > MAX_SCORE) {
+            throw new InvalidRatingException("score must be between " + MIN_SCORE + " and " + MAX_SCORE);
+        }
+    }
+
+    // === Réconciliation des agrégats ===
+    // Recalcule les agrégats de tous les films à partir de la table rating, par tranches d'identifiants
+    // (une transaction courte par tranche), pour corriger une éventuelle dérive des compteurs incrémentaux
+    @Scheduled(cron = "${film.ratings.reconcile-cron:0 30 3 * * *}")
+    public long reconcileAggregates() {
+        long maxId = filmRepository.findMaxId();
+        long updated = 0;
+        for (long afterId = 0; afterId < maxId; afterId += RECONCILE_BATCH_SIZE) {
+            final long from = afterId;
+            Integer rows = transactionTemplate.execute(status ->
+                    filmRepository.reconcileRatingAggregates(from, from + RECONCILE_BATCH_SIZE));
+            updated += rows == null ? 0 : rows;
+        }
+        log.info("Rating aggregates reconciled for {} films", updated);
+        eventPublisher.publishEvent(RatingAggregatesChangedEvent.allFilms());
+        return updated;
+    }
+}
@@ -0,0 +1,93 @@
+package com.hamza.filmmanagement.services;
+
+import com.hamza.filmmanagement.dto.RelatedFilm;
+import com.hamza.filmmanagement.entities.Actor;
+import com.hamza.filmmanagement.entities.Film;
+import com.hamza.filmmanagement.events.FilmChangedEvent;
+import com.hamza.filmmanagement.events.FilmsImportedEvent;
+import com.hamza.filmmanagement.related.RelatedFilmsGraph;
+import com.hamza.filmmanagement.repositories.FilmPersonLink;
+import com.hamza.filmmanagement.repositories.FilmRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Films proches d'un film donné (acteurs et réalisateur en commun), calculés en mémoire.
+// Le graphe est construit au démarrage à partir de film / film_actor, puis corrigé film par film
+// à chaque ajout, modification ou suppression publiés par FilmService.
+@Service
+public class RelatedFilmsService {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatedFilmsService.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private final FilmRepository filmRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Remplacé d'un bloc à chaque reconstruction complète
+    private volatile RelatedFilmsGraph graph = RelatedFilmsGraph.builder().build();
+
+    public RelatedFilmsService(FilmRepository filmRepository, PlatformTransactionManager transactionManager) {
+        this.filmRepository = filmRepository;
+        // Nouvelle transaction : l'écouteur peut être appelé après le commit d'une transaction appelante
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public List<RelatedFilm> relatedFilms(Long filmId, Integer limit) {
+        int k = limit == null || limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        return graph.related(filmId, k);
+    }
+
+    // Lecture en flux des liens film -> réalisateur et film -> acteur, puis construction parallèle du graphe
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        RelatedFilmsGraph.Builder builder = RelatedFilmsGraph.builder();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<FilmPersonLink> links = filmRepository.streamDirectorLinks()) {
+                links.forEach(link -> builder.addFilm(link.getFilmId(), link.getPersonId()));
+            }
+            try (Stream<FilmPersonLink> links = filmRepository.streamActorLinks()) {
+                links.forEach(link -> builder.addCast(link.getFilmId(), link.getPersonId()));
+            }
+        });
+        RelatedFilmsGraph rebuilt = builder.build();
+        graph = rebuilt;
+        log.info("Related films graph built: {} films in {} ms", rebuilt.filmCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFilmChanged(FilmChangedEvent event) {
+        if (event.getType() == FilmChangedEvent.Type.DELETED) {
+            graph.remove(event.getFilmId());
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                filmRepository.findDetailById(event.getFilmId()).ifPresent(this::patch));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFilmsImported(FilmsImportedEvent event) {
+        transactionTemplate.executeWithoutResult(status ->
+                filmRepository.findDetailByIdIn(event.getFilmIds()).forEach(this::patch));
+    }
+
+    private void patch(Film film) {
+        long[] actorIds = film.getActors().stream().mapToLong(Actor::getId).toArray();
+        Long directorId = film.getDirector() == null ? null : film.getDirector().getId();
+        graph.update(film.getId(), directorId, actorIds);
+    }
+}
@@ -0,0 +1,100 @@
+package com.hamza.filmmanagement.services;
+
+import com.hamza.filmmanagement.dto.ResourceVersion;
+import com.hamza.filmmanagement.repositories.ActorRepository;
+import com.hamza.filmmanagement.repositories.DirectorRepository;
+import com.hamza.filmmanagement.repositories.FilmRepository;
+import com.hamza.filmmanagement.repositories.FilmTableVersionView;
+import com.hamza.filmmanagement.repositories.RowVersionView;
+import com.hamza.filmmanagement.repositories.TableVersionView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+// Requêtes conditionnelles (If-None-Match / If-Modified-Since) : calcule l'ETag d'une liste ou d'une fiche
+// par une requête d'agrégat sur les colonnes version, avant tout chargement d'entité. Un client à jour reçoit
+// un 304 sans que la liste soit lue ni sérialisée.
+@Service
+public class ResourceVersionService {
+
+    private final FilmRepository filmRepository;
+    private final ActorRepository actorRepository;
+    private final DirectorRepository directorRepository;
+    private final CacheControl publicListing;
+
+    public ResourceVersionService(FilmRepository filmRepository, ActorRepository actorRepository, DirectorRepository directorRepository,
+                                  @Value("${film.http.public-listing.max-age-seconds:0}") long maxAgeSeconds,
+                                  @Value("${film.http.public-listing.shared-max-age-seconds:60}") long sharedMaxAgeSeconds) {
+        this.filmRepository = filmRepository;
+        this.actorRepository = actorRepository;
+        this.directorRepository = directorRepository;
+        // Listes publiques : un cache partagé (reverse proxy) peut les garder s-maxage secondes,
+        // les navigateurs max-age secondes ; ensuite revalidation par ETag
+        this.publicListing = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+                .sMaxAge(Duration.ofSeconds(sharedMaxAgeSeconds))
+                .cachePublic();
+    }
+
+    // Cache-Control des listes publiques de films
+    public CacheControl publicListing() {
+        return publicListing;
+    }
+
+    // Cache-Control des ressources réservées aux administrateurs : jamais en cache partagé, toujours revalidées
+    public CacheControl privateResource() {
+        return CacheControl.noCache().cachePrivate();
+    }
+
+    // La liste des films contient aussi les réalisateurs et acteurs de chaque film : son ETag dépend des trois tables
+    public ResourceVersion films() {
+        FilmTableVersionView films = filmRepository.findTableVersion();
+        return new ResourceVersion(etag("films", films.getCount(), films.getMaxId(), films.getVersionSum(), films.getRatingChecksum(),
+                tableState(actorRepository.findTableVersion()), tableState(directorRepository.findTableVersion())), null);
+    }
+
+    // Fiche d'un film (vide si le film n'existe pas : la requête suit alors son cours et finit en 404)
+    public Optional<ResourceVersion> film(Long id) {
+        return filmRepository.findVersionById(id).map(view -> new ResourceVersion(
+                etag("film", id, view.getVersion(), view.getRatingCount(), view.getRatingSum(),
+                        view.getDirectorVersion(), view.getActorsVersion()), null));
+    }
+
+    public ResourceVersion actors() {
+        return new ResourceVersion(etag("actors", tableState(actorRepository.findTableVersion())), null);
+    }
+
+    public Optional<ResourceVersion> actor(Long id) {
+        return actorRepository.findVersionById(id).map(view -> rowVersion("actor", id, view));
+    }
+
+    public ResourceVersion directors() {
+        return new ResourceVersion(etag("directors", tableState(directorRepository.findTableVersion())), null);
+    }
+
+    public Optional<ResourceVersion> director(Long id) {
+        return directorRepository.findVersionById(id).map(view -> rowVersion("director", id, view));
+    }
+
+    // Pas de Last-Modified sur les listes : une suppression ne fait pas avancer la date de dernière modification
+    private static ResourceVersion rowVersion(String kind, Long id, RowVersionView view) {
+        return new ResourceVersion(etag(kind, id, view.getVersion()), view.getUpdatedAt());
+    }
+
+    private static String tableState(TableVersionView view) {
+        return view.getCount() + "/" + view.getMaxId() + "/" + view.getVersionSum();
+    }
+
+    // ETag fort : empreinte MD5 des valeurs dont dépend la représentation
+    private static String etag(Object... parts) {
+        StringBuilder key = new StringBuilder();
+        for (Object part : parts) {
+            key.append(part).append(':');
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -6,6 +6,7 @@ import com.hamza.filmmanagement.repositories.UserRepository;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -14,7 +15,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 // Annotation indiquant que cette classe est un service Spring, utilisée pour la logique métier
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     // Dépendance vers le repository de l'utilisateur, injectée via le constructeur
     private final UserRepository userRepository;
@@ -34,12 +35,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        // === Transformation des rôles de l'utilisateur en une liste de GrantedAuthority ===
-        // Les rôles de l'utilisateur qui sont  des enums sont convertis en objets SimpleGrantedAuthority
-        // Spring Security utilise ces objets pour gérer les autorisations et l'accès aux ressources
-        List<GrantedAuthority> authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName().toString())) // Convertit l'énumération du rôle en String
-                .collect(Collectors.toList());
+        List<GrantedAuthority> authorities = authorities(user);
 
         // === Retour de l'objet User de Spring Security ===
         // L'objet retourné est une instance de org.springframework.security.core.userdetails.User,
@@ -51,4 +47,39 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 authorities // La liste des rôles sous forme de GrantedAuthority, définissant ce que l'utilisateur peut faire
         );
     }
+
+    // === Nouveau hash après une connexion réussie (coût BCrypt modifié) ===
+    // Appelée par DaoAuthenticationProvider avec le mot de passe saisi, déjà haché au coût configuré
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        userRepository.findByEmail(userDetails.getUsername()).ifPresent(user -> {
+            user.setPassword(newPassword);
+            userRepository.save(user);
+        });
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                .password(newPassword)
+                .build();
+    }
+
+    // === Chargement de l'utilisateur porteur d'un JWT (requêtes déjà authentifiées) ===
+    // null si le compte n'existe plus ou n'est pas activé. Le mot de passe n'est pas repris :
+    // l'objet peut être gardé en mémoire (voir AuthenticatedUserResolver).
+    public UserDetails loadActiveUser(String email) {
+        return userRepository.findByEmail(email)
+                .filter(User::isEnabled)
+                .map(user -> org.springframework.security.core.userdetails.User.withUsername(user.getEmail())
+                        .password("")
+                        .authorities(authorities(user))
+                        .build())
+                .orElse(null);
+    }
+
+    // === Transformation des rôles de l'utilisateur en une liste de GrantedAuthority ===
+    // Les rôles de l'utilisateur qui sont  des enums sont convertis en objets SimpleGrantedAuthority
+    // Spring Security utilise ces objets pour gérer les autorisations et l'accès aux ressources
+    private static List<GrantedAuthority> authorities(User user) {
+        return user.getRoles().stream()
+                .map(role -> new SimpleGrantedAuthority(role.getName().toString())) // Convertit l'énumération du rôle en String
+                .collect(Collectors.toList());
+    }
 }
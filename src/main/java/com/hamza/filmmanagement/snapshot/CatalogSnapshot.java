@@ -0,0 +1,45 @@
+package com.hamza.filmmanagement.snapshot;
+
+import java.util.Map;
+
+// Photographie sérialisée du catalogue public : la liste complète (GET /admin/films) et les premières pages triées
+// par id de taille pageSize (GET /admin/films?limit=pageSize), indexées par le curseur `after` qui y mène ("" pour la première).
+// Immuable : une reconstruction produit une nouvelle instance, remplacée d'un bloc.
+public final class CatalogSnapshot {
+
+    private final EncodedBody listing;
+    private final int pageSize;
+    private final Map<String, EncodedBody> pagesByCursor;
+    private final int filmCount;
+
+    public CatalogSnapshot(EncodedBody listing, int pageSize, Map<String, EncodedBody> pagesByCursor, int filmCount) {
+        this.listing = listing;
+        this.pageSize = pageSize;
+        this.pagesByCursor = Map.copyOf(pagesByCursor);
+        this.filmCount = filmCount;
+    }
+
+    public EncodedBody listing() {
+        return listing;
+    }
+
+    // Page précalculée, ou null si la taille ou le curseur ne correspondent à aucune page de la photographie
+    public EncodedBody page(int limit, String after) {
+        if (limit != pageSize) {
+            return null;
+        }
+        return pagesByCursor.get(after == null ? "" : after);
+    }
+
+    public int filmCount() {
+        return filmCount;
+    }
+
+    public long size() {
+        long size = listing.size();
+        for (EncodedBody page : pagesByCursor.values()) {
+            size += page.size();
+        }
+        return size;
+    }
+}
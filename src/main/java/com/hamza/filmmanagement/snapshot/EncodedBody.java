@@ -0,0 +1,85 @@
+package com.hamza.filmmanagement.snapshot;
+
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// Corps de réponse JSON déjà encodé, en deux variantes : brut (identity) et compressé (gzip).
+// Chaque variante a son propre ETag fort : les octets envoyés ne sont pas les mêmes.
+public final class EncodedBody {
+
+    private final byte[] identity;
+    private final byte[] gzip;
+    private final String etag;
+    private final String gzipEtag;
+
+    private EncodedBody(byte[] identity, byte[] gzip, String etag) {
+        this.identity = identity;
+        this.gzip = gzip;
+        this.etag = etag;
+        this.gzipEtag = etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    // ETag tiré du contenu (empreinte MD5 du JSON)
+    public static EncodedBody of(byte[] json) {
+        return of(json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+    }
+
+    // ETag fourni par l'appelant (valeur entre guillemets), ex : la version de la ressource lue avec le contenu.
+    // La compression n'est faite qu'une fois par reconstruction : niveau maximal
+    public static EncodedBody of(byte[] json, String etag) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzipOut.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new EncodedBody(json, out.toByteArray(), etag);
+    }
+
+    public byte[] body(boolean gzip) {
+        return gzip ? this.gzip : identity;
+    }
+
+    public String etag(boolean gzip) {
+        return gzip ? gzipEtag : etag;
+    }
+
+    // Taille en mémoire des deux variantes
+    public long size() {
+        return identity.length + gzip.length;
+    }
+
+    // Le client accepte-t-il gzip ? (en-tête Accept-Encoding, en ignorant les codages refusés par q=0)
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") && param.substring(2).matches("0(\\.0{0,3})?")) {
+                    refused = true;
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,69 @@
+package com.hamza.filmmanagement.benchmarks;
+
+import com.hamza.filmmanagement.mail.EmailTemplate;
+import org.apache.commons.lang3.text.StrSubstitutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Débit de rendu du modèle d'email d'activation :
+//   legacySubstitutor : ancien EmailService, StrSubstitutor sur le texte complet (déjà en mémoire, sans la lecture disque)
+//   compiled          : modèle précompilé en segments, rendu dans un tampon dimensionné d'avance
+// Pas un test : lancé à la main via main(), ni surefire ni failsafe ne le sélectionnent.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private String source;
+    private EmailTemplate template;
+    private Map<String, String> values;
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream in = new ClassPathResource("templates/emails/activation-email.html").getInputStream()) {
+            source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        template = EmailTemplate.compile("activation-email", source);
+        values = Map.of("activationLink", "http://localhost:4200/auth/activate-account?token=3f1c9a52-8a4e-4b8e-9a55-1f2d3c4b5a69");
+    }
+
+    // StrSubstitutor est déprécié (remplacé par StringSubstitutor de commons-text, absent du projet) :
+    // conservé tel quel pour mesurer exactement l'ancien rendu
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public String legacySubstitutor() {
+        return new StrSubstitutor(values).replace(source);
+    }
+
+    @Benchmark
+    public String compiled() {
+        return template.render(values);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,103 @@
+package com.hamza.filmmanagement.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+// Mesure du gain apporté par les ids réservés par blocs : INSERT un par un avec récupération de l'id généré
+// (ce que fait Hibernate avec IDENTITY) contre INSERT en lots JDBC avec ids fournis (compteur pooled + batch_size).
+// Pas un test : lancé à la main via main(), ni surefire ni failsafe ne le sélectionnent.
+//
+// Par défaut sur H2 en mémoire ; pour MySQL :
+//   -Dbench.url="jdbc:mysql://localhost:3306/bench?rewriteBatchedStatements=true" -Dbench.user=root -Dbench.password=
+//   -Dbench.rows=50000
+public class InsertBatchingBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    public static void main(String[] args) throws SQLException {
+        String url = System.getProperty("bench.url", "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1");
+        String user = System.getProperty("bench.user", "sa");
+        String password = System.getProperty("bench.password", "");
+        int rows = Integer.getInteger("bench.rows", 50_000);
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            connection.setAutoCommit(false);
+            // Un premier passage pour chauffer la JVM et le serveur, non compté
+            run(connection, Math.min(rows, 5_000));
+            Result result = run(connection, rows);
+            System.out.printf("%d rows on %s%n", rows, connection.getMetaData().getDatabaseProductName());
+            System.out.printf("identity, row by row : %,10.0f inserts/s%n", result.identityRate);
+            System.out.printf("pooled ids, batched  : %,10.0f inserts/s (x%.1f)%n",
+                    result.batchedRate, result.batchedRate / result.identityRate);
+        }
+    }
+
+    private record Result(double identityRate, double batchedRate) {
+    }
+
+    private static Result run(Connection connection, int rows) throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS bench_identity");
+            ddl.execute("DROP TABLE IF EXISTS bench_pooled");
+            ddl.execute("CREATE TABLE bench_identity (id BIGINT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(255), release_date DATE)");
+            ddl.execute("CREATE TABLE bench_pooled (id BIGINT PRIMARY KEY, title VARCHAR(255), release_date DATE)");
+        }
+        connection.commit();
+
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_identity (title, release_date) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < rows; i++) {
+                bind(insert, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                }
+                commitEvery(connection, i);
+            }
+        }
+        connection.commit();
+        double identityRate = rows / seconds(start);
+
+        start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_pooled (id, title, release_date) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setLong(1, i + 1);
+                insert.setString(2, "Film " + i);
+                insert.setObject(3, LocalDate.of(1950 + i % 70, 1 + i % 12, 1));
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+                commitEvery(connection, i);
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        double batchedRate = rows / seconds(start);
+
+        return new Result(identityRate, batchedRate);
+    }
+
+    private static void bind(PreparedStatement insert, int i) throws SQLException {
+        insert.setString(1, "Film " + i);
+        insert.setObject(2, LocalDate.of(1950 + i % 70, 1 + i % 12, 1));
+    }
+
+    // Même découpage en transactions que l'import en masse (paquets de 500 films)
+    private static void commitEvery(Connection connection, int i) throws SQLException {
+        if ((i + 1) % 500 == 0) {
+            connection.commit();
+        }
+    }
+
+    private static double seconds(long start) {
+        return (System.nanoTime() - start) / 1e9;
+    }
+}
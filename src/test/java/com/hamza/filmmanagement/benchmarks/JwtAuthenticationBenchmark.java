@@ -0,0 +1,93 @@
+package com.hamza.filmmanagement.benchmarks;
+
+import com.hamza.filmmanagement.security.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Coût de la vérification du JWT par requête dans JwtAuthenticationFilter :
+//   legacyTwoParses : ancien filtre, validateToken puis extractUsername, chacun construisant un parser et vérifiant le HMAC
+//   singleParse     : parser réutilisé, une vérification par requête (cache désactivé)
+//   cachedVerify    : jeton déjà vérifié, claims repris du cache (empreinte SHA-256 + lecture de map)
+// Pas un test : lancé à la main via main(), ni surefire ni failsafe ne le sélectionnent.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private SecretKey legacyKey;
+    private String legacyToken;
+
+    private JwtUtils uncached;
+    private JwtUtils cached;
+    private String token;
+
+    @Setup
+    public void setup() {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                "bench@example.com", null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        uncached = new JwtUtils(0);
+        cached = new JwtUtils(10_000);
+        token = cached.generateToken(authentication);
+        cached.verify(token);
+
+        // Même forme de jeton (HS512, sujet + rôles + dates) signé avec une clé locale pour reproduire l'ancien code
+        legacyKey = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+        legacyToken = Jwts.builder()
+                .setSubject("bench@example.com")
+                .claim("roles", List.of("ROLE_USER"))
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 86_400_000))
+                .signWith(legacyKey)
+                .compact();
+    }
+
+    @Benchmark
+    public String legacyTwoParses() {
+        Jwts.parserBuilder().setSigningKey(legacyKey).build().parseClaimsJws(legacyToken);
+        return Jwts.parserBuilder().setSigningKey(legacyKey).build().parseClaimsJws(legacyToken).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String singleParse() {
+        Claims claims = uncached.verify(token);
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public String cachedVerify() {
+        Claims claims = cached.verify(token);
+        return claims.getSubject();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.hamza.filmmanagement.benchmarks;
+
+import com.hamza.filmmanagement.FilmmanagementApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Charge sur GET /api/posters/{fichier} (application démarrée avec le profil test sur un port libre) :
+//   - copie par le thread de la requête (sendfile désactivé, comme l'ancien gestionnaire /uploads/**)
+//   - sendfile de Tomcat (film.posters.sendfile-min-size par défaut)
+//   - revalidation d'un client qui a déjà l'affiche (If-None-Match, réponse 304 sans corps)
+// Affiche débit (requêtes/s) et temps CPU du processus par requête. Client et serveur partagent la JVM :
+// le CPU compté inclut le client HTTP, identique d'un mode à l'autre, seule la différence est significative.
+// Pas un test : lancé à la main via main(), ni surefire ni failsafe ne le sélectionnent.
+//   -Dbench.poster.size=1048576 -Dbench.clients=16 -Dbench.requests=5000
+public class PosterServingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int size = Integer.getInteger("bench.poster.size", 1024 * 1024);
+        int clients = Integer.getInteger("bench.clients", 16);
+        int requests = Integer.getInteger("bench.requests", 5_000);
+
+        Path uploads = Files.createTempDirectory("poster-bench");
+        byte[] content = new byte[size];
+        new Random(42).nextBytes(content);
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        Files.write(uploads.resolve(hash + ".jpg"), content);
+
+        System.out.printf("%,d byte poster, %d clients, %,d requests%n", size, clients, requests);
+        run("buffered copy", uploads, hash, Long.MAX_VALUE, false, clients, requests);
+        run("sendfile", uploads, hash, 48 * 1024, false, clients, requests);
+        run("If-None-Match (304)", uploads, hash, 48 * 1024, true, clients, requests);
+    }
+
+    private static void run(String label, Path uploads, String hash, long sendfileMinSize, boolean revalidate,
+                            int clients, int requests) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FilmmanagementApplication.class)
+                .profiles("test")
+                // Arguments de ligne de commande : prioritaires sur application-test.properties
+                .run("--server.port=0",
+                        "--film.storage.upload-dir=" + uploads,
+                        "--film.posters.sendfile-min-size=" + sendfileMinSize,
+                        // Console H2 du profil test : second servlet, que les règles de SecurityConfig ne savent pas distinguer
+                        "--spring.h2.console.enabled=false",
+                        "--logging.level.root=WARN")) {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/posters/" + hash + ".jpg"));
+            if (revalidate) {
+                builder.header("If-None-Match", "\"" + hash + "\"");
+            }
+            HttpRequest request = builder.build();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            // Un premier passage pour chauffer la JVM et le serveur, non compté
+            load(client, request, clients, Math.min(requests, 500));
+            com.sun.management.OperatingSystemMXBean os =
+                    (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+            long cpuStart = os.getProcessCpuTime();
+            long start = System.nanoTime();
+            long bytes = load(client, request, clients, requests);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double cpuMicros = (os.getProcessCpuTime() - cpuStart) / 1e3 / requests;
+            System.out.printf("%-20s: %,9.0f requests/s %,8.0f MB/s %,8.1f us CPU/request%n",
+                    label, requests / seconds, bytes / seconds / 1e6, cpuMicros);
+        }
+    }
+
+    private static long load(HttpClient client, HttpRequest request, int clients, int requests) throws Exception {
+        AtomicLong remaining = new AtomicLong(requests);
+        AtomicLong bytes = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() != 200 && response.statusCode() != 304) {
+                            throw new IllegalStateException("HTTP " + response.statusCode());
+                        }
+                        bytes.addAndGet(response.body().length);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return bytes.get();
+    }
+}
@@ -0,0 +1,75 @@
+package com.hamza.filmmanagement.benchmarks;
+
+import com.hamza.filmmanagement.mail.SmtpConnectionPool;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+// Débit d'envoi d'emails (messages/s) : une connexion SMTP par message (JavaMailSenderImpl.send, ancien EmailService)
+// contre les connexions réutilisées de SmtpConnectionPool.
+// Pas un test : lancé à la main via main(), ni surefire ni failsafe ne le sélectionnent.
+//
+// Par défaut contre un serveur GreenMail local (en mémoire) ; pour un vrai serveur (le gain vient alors surtout
+// de la poignée de main TLS et de l'authentification évitées) :
+//   -Dbench.smtp.host=localhost -Dbench.smtp.port=2525 -Dbench.messages=2000
+public class SmtpThroughputBenchmark {
+
+    public static void main(String[] args) throws MessagingException {
+        String host = System.getProperty("bench.smtp.host");
+        int port = Integer.getInteger("bench.smtp.port", 3025);
+        int messages = Integer.getInteger("bench.messages", 2_000);
+
+        GreenMail greenMail = null;
+        if (host == null) {
+            host = "127.0.0.1";
+            greenMail = new GreenMail(new ServerSetup(port, host, ServerSetup.PROTOCOL_SMTP));
+            greenMail.start();
+        }
+        try {
+            JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+            mailSender.setHost(host);
+            mailSender.setPort(port);
+
+            // Un premier passage pour chauffer la JVM et le serveur, non compté
+            run(mailSender, Math.min(messages, 200));
+            double[] rates = run(mailSender, messages);
+            System.out.printf("%d messages to %s:%d%n", messages, host, port);
+            System.out.printf("one connection per message : %,10.0f messages/s%n", rates[0]);
+            System.out.printf("pooled connections         : %,10.0f messages/s (x%.1f)%n", rates[1], rates[1] / rates[0]);
+        } finally {
+            if (greenMail != null) {
+                greenMail.stop();
+            }
+        }
+    }
+
+    private static double[] run(JavaMailSenderImpl mailSender, int messages) throws MessagingException {
+        long start = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            mailSender.send(message(mailSender, i));
+        }
+        double direct = messages / ((System.nanoTime() - start) / 1e9);
+
+        try (SmtpConnectionPool pool = new SmtpConnectionPool(mailSender, 1, 100, 30_000, 10_000)) {
+            start = System.nanoTime();
+            for (int i = 0; i < messages; i++) {
+                pool.send(message(mailSender, i));
+            }
+        }
+        double pooled = messages / ((System.nanoTime() - start) / 1e9);
+        return new double[]{direct, pooled};
+    }
+
+    private static MimeMessage message(JavaMailSenderImpl mailSender, int i) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        helper.setFrom("noreply@example.com");
+        helper.setTo("user" + i + "@example.com");
+        helper.setSubject("Activation de votre compte");
+        helper.setText("<p>Bonjour,</p><a href=\"http://localhost:4200/auth/activate-account?token=" + i + "\">Activer</a>", true);
+        return message;
+    }
+}
@@ -0,0 +1,71 @@
+package com.hamza.filmmanagement.integration.config;
+
+import com.hamza.filmmanagement.config.SchemaUpgradeInitializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Base H2 à part, remplie à la main comme une base existante d'avant les contraintes uniques
+class SchemaUpgradeInitializerIT {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:schema-upgrade;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void initializeDatabase_shouldDoNothingOnAnEmptyDatabase() {
+        assertThat(new SchemaUpgradeInitializer(dataSource).initializeDatabase()).isTrue();
+    }
+
+    @Test
+    void initializeDatabase_shouldKeepTheLatestRatingOfEachUserForEachFilm() {
+        jdbcTemplate.execute("CREATE TABLE rating (id BIGINT PRIMARY KEY, score INT, user_id BIGINT, film_id BIGINT)");
+        jdbcTemplate.update("INSERT INTO rating VALUES (1, 2, 10, 100), (2, 5, 10, 100), (3, 4, 10, 100), (4, 1, 11, 100), (5, 3, 10, 101)");
+
+        new SchemaUpgradeInitializer(dataSource).initializeDatabase();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM rating ORDER BY id", Long.class)).containsExactly(3L, 4L, 5L);
+    }
+
+    @Test
+    void initializeDatabase_shouldMergeDuplicateActorsIntoTheOldestOne() {
+        jdbcTemplate.execute("CREATE TABLE actor (id BIGINT PRIMARY KEY, first_name VARCHAR(255), last_name VARCHAR(255), nationality VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE film_actor (film_id BIGINT, actor_id BIGINT, PRIMARY KEY (film_id, actor_id))");
+        jdbcTemplate.update("INSERT INTO actor VALUES (1, 'Brad', 'Pitt', 'US'), (2, 'Brad', 'Pitt', 'US'), (3, 'Brad', 'Pitt', 'US'), (4, 'Brad', 'Pitt', 'UK')");
+        // Le film 100 cite déjà l'acteur 1 et son doublon 2 ; le film 101 ne cite que le doublon 3
+        jdbcTemplate.update("INSERT INTO film_actor VALUES (100, 1), (100, 2), (101, 3), (101, 4)");
+
+        new SchemaUpgradeInitializer(dataSource).initializeDatabase();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM actor ORDER BY id", Long.class)).containsExactly(1L, 4L);
+        assertThat(jdbcTemplate.queryForList("SELECT film_id || ':' || actor_id FROM film_actor ORDER BY film_id, actor_id", String.class))
+                .containsExactly("100:1", "101:1", "101:4");
+    }
+
+    @Test
+    void initializeDatabase_shouldPointFilmsOfDuplicateDirectorsToTheOldestOne() {
+        jdbcTemplate.execute("CREATE TABLE director (id BIGINT PRIMARY KEY, first_name VARCHAR(255), last_name VARCHAR(255), nationality VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE film (id BIGINT PRIMARY KEY, director_id BIGINT)");
+        jdbcTemplate.update("INSERT INTO director VALUES (1, 'Agnès', 'Varda', 'FR'), (2, 'Agnès', 'Varda', 'FR')");
+        jdbcTemplate.update("INSERT INTO film VALUES (100, 1), (101, 2)");
+
+        new SchemaUpgradeInitializer(dataSource).initializeDatabase();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM director", Long.class)).containsExactly(1L);
+        assertThat(jdbcTemplate.queryForList("SELECT director_id FROM film ORDER BY id", Long.class)).containsExactly(1L, 1L);
+    }
+}
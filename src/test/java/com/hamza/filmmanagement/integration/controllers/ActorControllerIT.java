@@ -30,6 +30,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
@@ -94,6 +95,50 @@ public class ActorControllerIT {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void getActorById_shouldReturn304WhileETagIsCurrent() throws Exception {
+        Actor saved = actorRepository.save(new Actor(null, "Tom", "Hanks", "US"));
+
+        String etag = mockMvc.perform(get("/admin/actors/" + saved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotBlank();
+
+        mockMvc.perform(get("/admin/actors/" + saved.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        Actor actor = actorRepository.findById(saved.getId()).orElseThrow();
+        actor.setNationality("American");
+        actorRepository.save(actor);
+
+        mockMvc.perform(get("/admin/actors/" + saved.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nationality").value("American"))
+                .andExpect(header().string("ETag", org.hamcrest.Matchers.not(etag)));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void getAllActors_shouldReturn304UntilTheListChanges() throws Exception {
+        actorRepository.save(new Actor(null, "Tom", "Hanks", "US"));
+
+        String etag = mockMvc.perform(get("/admin/actors"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/admin/actors").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        actorRepository.save(new Actor(null, "Emma", "Watson", "UK"));
+
+        mockMvc.perform(get("/admin/actors").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void createActor_shouldReturn200() throws Exception {
@@ -126,6 +171,41 @@ public class ActorControllerIT {
                 .andExpect(jsonPath("$.message").value("Actor updated successfully"));
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void createActor_shouldReturn409IfSameActorExists() throws Exception {
+        actorRepository.save(new Actor(null, "Brad", "Pitt", "US"));
+
+        ActorRequest request = new ActorRequest();
+        request.setFirstName("Brad");
+        request.setLastName("Pitt");
+        request.setNationality("US");
+
+        mockMvc.perform(post("/admin/actors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+        assertThat(actorRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void updateActor_shouldReturn409IfRenamedToAnExistingActor() throws Exception {
+        actorRepository.save(new Actor(null, "Leonardo", "DiCaprio", "US"));
+        Actor saved = actorRepository.save(new Actor(null, "Leo", "Old", "US"));
+
+        ActorRequest request = new ActorRequest();
+        request.setFirstName("Leonardo");
+        request.setLastName("DiCaprio");
+        request.setNationality("US");
+
+        mockMvc.perform(put("/admin/actors/" + saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+        assertThat(actorRepository.findById(saved.getId()).orElseThrow().getLastName()).isEqualTo("Old");
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void updateActor_shouldReturn404IfActorNotFound() throws Exception {
@@ -183,4 +263,54 @@ public class ActorControllerIT {
             .andExpect(jsonPath("$.message").value("Cannot delete actor: still referenced by one or more films"));
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void bulkUpsertActors_shouldReuseExistingAndDuplicateActorsInInputOrder() throws Exception {
+        Actor existing = actorRepository.save(new Actor(null, "Tom", "Hanks", "US"));
+        String body = "[{\"firstName\":\"Emma\",\"lastName\":\"Watson\",\"nationality\":\"UK\"},"
+                + "{\"firstName\":\"Tom\",\"lastName\":\"Hanks\",\"nationality\":\"US\"},"
+                + "{\"firstName\":\"Emma\",\"lastName\":\"Watson\",\"nationality\":\"UK\"}]";
+
+        mockMvc.perform(post("/admin/actors/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.ids.length()").value(3))
+                .andExpect(jsonPath("$.ids[1]").value(existing.getId()));
+
+        // Le même flux en NDJSON ne crée plus rien
+        mockMvc.perform(post("/admin/actors/bulk")
+                        .contentType("application/x-ndjson")
+                        .content("{\"firstName\":\"Emma\",\"lastName\":\"Watson\",\"nationality\":\"UK\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(0));
+        assertThat(actorRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void bulkUpsertActors_shouldGiveCreatedActorsALastModifiedDate() throws Exception {
+        String response = mockMvc.perform(post("/admin/actors/bulk")
+                        .contentType("application/x-ndjson")
+                        .content("{\"firstName\":\"Greta\",\"lastName\":\"Gerwig\",\"nationality\":\"US\"}\n"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(response).get("ids").get(0).asLong();
+
+        mockMvc.perform(get("/admin/actors/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void bulkUpsertActors_shouldRejectATruncatedNdjsonLine() throws Exception {
+        mockMvc.perform(post("/admin/actors/bulk")
+                        .contentType("application/x-ndjson")
+                        .content("{\"firstName\":\"Emma\",\"lastName\":\"Watson\",\"nationality\":\"UK\"}\n"
+                                + "{\"firstName\":\"Tom\",\"lastName\":\"Ha"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(org.hamcrest.Matchers.startsWith("Invalid NDJSON")));
+    }
 }
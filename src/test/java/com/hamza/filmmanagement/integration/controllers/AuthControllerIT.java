@@ -0,0 +1,93 @@
+package com.hamza.filmmanagement.integration.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hamza.filmmanagement.dto.RegisterRequest;
+import com.hamza.filmmanagement.entities.Role;
+import com.hamza.filmmanagement.entities.RoleName;
+import com.hamza.filmmanagement.repositories.OutboxEmailRepository;
+import com.hamza.filmmanagement.repositories.RoleRepository;
+import com.hamza.filmmanagement.repositories.UserRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class AuthControllerIT {
+
+    private static final ServerSetup SMTP = ServerSetupTest.SMTP;
+
+    // Serveur SMTP en mémoire ; l'application s'y connecte (hôte et port de sa configuration)
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(SMTP);
+
+    @DynamicPropertySource
+    static void mailProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", SMTP::getBindAddress);
+        registry.add("spring.mail.port", SMTP::getPort);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @BeforeEach
+    void setup() {
+        outboxEmailRepository.deleteAll();
+        userRepository.deleteAll();
+        if (roleRepository.findByName(RoleName.ROLE_USER).isEmpty()) {
+            roleRepository.save(new Role(null, RoleName.ROLE_USER));
+        }
+    }
+
+    @Test
+    void register_shouldQueueTheActivationEmailAndSendItInTheBackground() throws Exception {
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail("new.user@example.com");
+        request.setPassword("password123");
+        request.setRoles(Set.of());
+
+        mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        // La réponse n'a pas attendu le serveur SMTP : l'email est en table, envoyé ensuite par le dispatcher
+        assertThat(outboxEmailRepository.findAll()).hasSize(1);
+        assertThat(greenMail.waitForIncomingEmail(10_000, 1)).isTrue();
+
+        MimeMessage received = greenMail.getReceivedMessages()[0];
+        assertThat(received.getAllRecipients()[0].toString()).isEqualTo("new.user@example.com");
+        assertThat(received.getSubject()).isEqualTo("Activation de votre compte");
+    }
+}
@@ -0,0 +1,115 @@
+package com.hamza.filmmanagement.integration.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hamza.filmmanagement.dto.FilmExportRow;
+import com.hamza.filmmanagement.entities.Director;
+import com.hamza.filmmanagement.entities.Film;
+import com.hamza.filmmanagement.repositories.DirectorRepository;
+import com.hamza.filmmanagement.repositories.FilmRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Export du catalogue, lu par le pool de connexions de l'export (même base H2 en test)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FilmControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FilmRepository filmRepository;
+
+    @Autowired
+    private DirectorRepository directorRepository;
+
+    private Director director;
+    private Film film;
+
+    @BeforeEach
+    void setup() {
+        director = directorRepository.save(new Director(null, "Henri-Georges", "Clouzot", "French"));
+        film = new Film();
+        film.setTitle("Quai des Orfèvres, 1947");
+        film.setDescription("Un \"polar\"\nsur deux lignes");
+        film.setReleaseDate(LocalDate.of(1947, 10, 3));
+        film.setDirector(director);
+        film = filmRepository.save(film);
+    }
+
+    @AfterEach
+    void cleanup() {
+        filmRepository.deleteById(film.getId());
+        directorRepository.deleteById(director.getId());
+    }
+
+    private String export(String format) throws Exception {
+        MvcResult started = mockMvc.perform(get("/admin/films/export").param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=films." + format))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void exportFilms_shouldWriteOneJsonLinePerFilm() throws Exception {
+        String body = export("ndjson");
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize((int) filmRepository.count());
+        JsonNode exported = null;
+        for (String line : lines) {
+            JsonNode node = objectMapper.readTree(line);
+            if (node.get("id").asLong() == film.getId()) {
+                exported = node;
+            }
+        }
+        assertThat(exported).isNotNull();
+        assertThat(exported.get("title").asText()).isEqualTo("Quai des Orfèvres, 1947");
+        assertThat(exported.get("description").asText()).isEqualTo("Un \"polar\"\nsur deux lignes");
+        assertThat(exported.get("releaseDate").asText()).isEqualTo("1947-10-03");
+        assertThat(exported.get("directorId").asLong()).isEqualTo(director.getId());
+        assertThat(exported.get("directorLastName").asText()).isEqualTo("Clouzot");
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void exportFilms_shouldWriteTheHeaderThenOneEscapedCsvRecordPerFilm() throws Exception {
+        String body = export("csv");
+
+        assertThat(body).startsWith(FilmExportRow.CSV_HEADER + "\n");
+        // La description de ce film contient un retour à la ligne (entre guillemets) : une ligne de plus que de films
+        assertThat(body.lines().count()).isEqualTo(1 + filmRepository.count() + 1);
+        assertThat(body).contains(film.getId() + ",\"Quai des Orfèvres, 1947\",\"Un \"\"polar\"\"\nsur deux lignes\",1947-10-03,,"
+                + director.getId() + ",Henri-Georges,Clouzot\n");
+    }
+}
@@ -0,0 +1,223 @@
+package com.hamza.filmmanagement.integration.controllers;
+
+import org.apache.catalina.Globals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Fichiers écrits directement dans le répertoire des affiches : nom d'après l'empreinte du contenu, et un ancien nom (UUID)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "film.storage.upload-dir=target/test-posters",
+        "film.storage.temp-dir=target/test-posters-tmp",
+        "film.posters.sendfile-min-size=64"
+})
+class PosterControllerIT {
+
+    private static final Path UPLOADS = Path.of("target/test-posters");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private byte[] bytes;
+    private String fileName;
+    private String etag;
+    private long lastModified;
+
+    @BeforeEach
+    void setup() throws Exception {
+        bytes = new byte[100];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        fileName = hash + ".jpg";
+        etag = "\"" + hash + "\"";
+        Files.createDirectories(UPLOADS);
+        Path file = Files.write(UPLOADS.resolve(fileName), bytes);
+        lastModified = Files.getLastModifiedTime(file).toMillis();
+    }
+
+    private static String httpDate(long millis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(millis).atZone(ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        FileSystemUtils.deleteRecursively(UPLOADS);
+    }
+
+    @Test
+    void getPoster_shouldReturnTheWholeFileWithItsValidators() throws Exception {
+        mockMvc.perform(get("/posters/" + fileName))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 100))
+                .andExpect(content().bytes(bytes));
+    }
+
+    @Test
+    void getPoster_shouldReturn304ForAMatchingIfNoneMatch() throws Exception {
+        mockMvc.perform(get("/posters/" + fileName).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getPoster_shouldReturn304WhenNotModifiedSince() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfModifiedSince(lastModified);
+
+        mockMvc.perform(get("/posters/" + fileName).headers(headers))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getPoster_shouldReturn206ForASingleRange() throws Exception {
+        mockMvc.perform(get("/posters/" + fileName).header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/100"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(content().bytes(Arrays.copyOfRange(bytes, 10, 20)));
+
+        mockMvc.perform(get("/posters/" + fileName).header(HttpHeaders.RANGE, "bytes=-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 95-99/100"))
+                .andExpect(content().bytes(Arrays.copyOfRange(bytes, 95, 100)));
+    }
+
+    @Test
+    void getPoster_shouldReturn416ForAnUnsatisfiableRange() throws Exception {
+        mockMvc.perform(get("/posters/" + fileName).header(HttpHeaders.RANGE, "bytes=100-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */100"));
+    }
+
+    @Test
+    void getPoster_shouldIgnoreMalformedAndMultipleRanges() throws Exception {
+        mockMvc.perform(get("/posters/" + fileName).header(HttpHeaders.RANGE, "bytes=abc"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(bytes));
+
+        mockMvc.perform(get("/posters/" + fileName).header(HttpHeaders.RANGE, "bytes=0-1,5-6"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(bytes));
+    }
+
+    @Test
+    void getPoster_shouldServeTheRangeOnlyWhenIfRangeMatches() throws Exception {
+        // ETag fort identique : plage servie
+        mockMvc.perform(get("/posters/" + fileName).header(HttpHeaders.RANGE, "bytes=0-0").header(HttpHeaders.IF_RANGE, etag))
+                .andExpect(status().isPartialContent());
+        // ETag faible : jamais accepté par If-Range, fichier entier
+        mockMvc.perform(get("/posters/" + fileName).header(HttpHeaders.RANGE, "bytes=0-0").header(HttpHeaders.IF_RANGE, "W/" + etag))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(bytes));
+        // Autre ETag : le fichier a changé, fichier entier
+        mockMvc.perform(get("/posters/" + fileName).header(HttpHeaders.RANGE, "bytes=0-0").header(HttpHeaders.IF_RANGE, "\"other\""))
+                .andExpect(status().isOk());
+
+        // Date de dernière modification identique : plage servie ; date plus ancienne : fichier entier
+        mockMvc.perform(get("/posters/" + fileName).header(HttpHeaders.RANGE, "bytes=0-0").header(HttpHeaders.IF_RANGE, httpDate(lastModified)))
+                .andExpect(status().isPartialContent());
+        mockMvc.perform(get("/posters/" + fileName).header(HttpHeaders.RANGE, "bytes=0-0").header(HttpHeaders.IF_RANGE, httpDate(lastModified - 60_000)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void headPoster_shouldSendTheHeadersWithoutTheBody() throws Exception {
+        mockMvc.perform(head("/posters/" + fileName))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 100))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getPoster_shouldServeAnEmptyFile() throws Exception {
+        Files.write(UPLOADS.resolve("empty.jpg"), new byte[0]);
+
+        mockMvc.perform(get("/posters/empty.jpg"))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 0))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getPoster_shouldHandTheFileToSendfileWithAnExclusiveEnd() throws Exception {
+        MvcResult result = mockMvc.perform(get("/posters/" + fileName)
+                        .header(HttpHeaders.RANGE, "bytes=10-89")
+                        .requestAttr(Globals.SENDFILE_SUPPORTED_ATTR, Boolean.TRUE))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 80))
+                .andExpect(content().bytes(new byte[0]))
+                .andReturn();
+
+        assertThat(result.getRequest().getAttribute(Globals.SENDFILE_FILENAME_ATTR))
+                .isEqualTo(UPLOADS.resolve(fileName).toRealPath().toString());
+        assertThat(result.getRequest().getAttribute(Globals.SENDFILE_FILE_START_ATTR)).isEqualTo(10L);
+        assertThat(result.getRequest().getAttribute(Globals.SENDFILE_FILE_END_ATTR)).isEqualTo(90L);
+    }
+
+    @Test
+    void getPoster_shouldCopyFilesBelowTheSendfileThreshold() throws Exception {
+        MvcResult result = mockMvc.perform(get("/posters/" + fileName)
+                        .header(HttpHeaders.RANGE, "bytes=0-9")
+                        .requestAttr(Globals.SENDFILE_SUPPORTED_ATTR, Boolean.TRUE))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(Arrays.copyOfRange(bytes, 0, 10)))
+                .andReturn();
+
+        assertThat(result.getRequest().getAttribute(Globals.SENDFILE_FILENAME_ATTR)).isNull();
+    }
+
+    @Test
+    void getUpload_shouldServeTheSameFileUnderTheLegacyRoute() throws Exception {
+        mockMvc.perform(get("/uploads/" + fileName))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(bytes));
+
+        // Ancien nom (UUID) : ETag faible, revalidé à chaque fois
+        Files.writeString(UPLOADS.resolve("0b8e5c3a-legacy.png"), "legacy");
+        String legacyEtag = mockMvc.perform(get("/uploads/0b8e5c3a-legacy.png"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(legacyEtag).startsWith("W/");
+        mockMvc.perform(get("/uploads/0b8e5c3a-legacy.png").header(HttpHeaders.IF_NONE_MATCH, legacyEtag))
+                .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,223 @@
+package com.hamza.filmmanagement.integration.mail;
+
+import com.hamza.filmmanagement.mail.SmtpConnectionPool;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Le pool parle à GreenMail à travers un relais TCP qui compte les connexions ouvertes par le pool
+// et peut en couper une, comme le ferait un serveur SMTP qui ferme une connexion restée ouverte
+class SmtpConnectionPoolIT {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private SmtpRelay relay;
+    private JavaMailSenderImpl mailSender;
+    private SmtpConnectionPool pool;
+
+    @BeforeEach
+    void setup() throws IOException {
+        relay = new SmtpRelay(ServerSetupTest.SMTP.getPort());
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(relay.port());
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "5000");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "5000");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        if (pool != null) {
+            pool.close();
+        }
+        relay.close();
+    }
+
+    @Test
+    void send_shouldReuseTheSameConnectionForConsecutiveMessages() throws Exception {
+        pool = new SmtpConnectionPool(mailSender, 2, 100, 30_000, 1_000);
+
+        for (int i = 0; i < 3; i++) {
+            pool.send(message(i));
+        }
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(3);
+        assertThat(relay.accepted()).isEqualTo(1);
+        assertThat(pool.idleCount()).isEqualTo(1);
+    }
+
+    @Test
+    void send_shouldReplaceAConnectionAfterMaxMessagesPerConnection() throws Exception {
+        pool = new SmtpConnectionPool(mailSender, 2, 2, 30_000, 1_000);
+
+        for (int i = 0; i < 3; i++) {
+            pool.send(message(i));
+        }
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(3);
+        assertThat(relay.accepted()).isEqualTo(2);
+        // La première connexion a été fermée après son deuxième message
+        assertThat(relay.awaitOpen(1)).isTrue();
+    }
+
+    @Test
+    void send_shouldRetryOnceOnANewConnectionWhenAReusedOneIsCutByTheServer() throws Exception {
+        pool = new SmtpConnectionPool(mailSender, 2, 100, 30_000, 1_000);
+        pool.send(message(0));
+
+        relay.cutNextSend();
+        pool.send(message(1));
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+        assertThat(greenMail.getReceivedMessages()[1].getSubject()).isEqualTo("Message 1");
+        assertThat(relay.accepted()).isEqualTo(2);
+        assertThat(pool.idleCount()).isEqualTo(1);
+    }
+
+    @Test
+    void evictIdle_shouldCloseConnectionsUnusedForLongerThanTheIdleTimeout() throws Exception {
+        pool = new SmtpConnectionPool(mailSender, 2, 100, 100, 1_000);
+        pool.send(message(0));
+        assertThat(relay.awaitOpen(1)).isTrue();
+
+        Thread.sleep(200);
+        pool.evictIdle();
+
+        assertThat(pool.idleCount()).isZero();
+        assertThat(relay.awaitOpen(0)).isTrue();
+    }
+
+    private MimeMessage message(int index) throws MessagingException {
+        MimeMessage message = new MimeMessage(mailSender.getSession());
+        message.setFrom(new InternetAddress("no-reply@example.com"));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress("user" + index + "@example.com"));
+        message.setSubject("Message " + index);
+        message.setText("Body " + index);
+        return message;
+    }
+
+    // Relais TCP minimal : chaque connexion acceptée est recopiée dans les deux sens vers le serveur GreenMail
+    private static final class SmtpRelay implements AutoCloseable {
+
+        private final ServerSocket serverSocket;
+        private final int targetPort;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final AtomicInteger accepted = new AtomicInteger();
+        private final AtomicInteger open = new AtomicInteger();
+        private final AtomicBoolean cutNextSend = new AtomicBoolean();
+
+        private SmtpRelay(int targetPort) throws IOException {
+            this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            this.targetPort = targetPort;
+            executor.execute(this::acceptLoop);
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        int accepted() {
+            return accepted.get();
+        }
+
+        // La prochaine commande MAIL FROM fait fermer sa connexion, sans réponse du serveur
+        void cutNextSend() {
+            cutNextSend.set(true);
+        }
+
+        // Attend (au plus 5 s) que le nombre de connexions encore ouvertes atteigne la valeur attendue
+        boolean awaitOpen(int expected) throws InterruptedException {
+            for (int i = 0; i < 500 && open.get() != expected; i++) {
+                Thread.sleep(10);
+            }
+            return open.get() == expected;
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                Socket client;
+                try {
+                    client = serverSocket.accept();
+                } catch (IOException e) {
+                    return;
+                }
+                try {
+                    Socket server = new Socket(InetAddress.getLoopbackAddress(), targetPort);
+                    accepted.incrementAndGet();
+                    open.incrementAndGet();
+                    AtomicBoolean closed = new AtomicBoolean();
+                    Runnable closeBoth = () -> {
+                        if (closed.compareAndSet(false, true)) {
+                            closeQuietly(client);
+                            closeQuietly(server);
+                            open.decrementAndGet();
+                        }
+                    };
+                    executor.execute(() -> pump(server, client, false, closeBoth));
+                    executor.execute(() -> pump(client, server, true, closeBoth));
+                } catch (IOException e) {
+                    // Serveur injoignable : le client voit sa connexion refermée
+                    closeQuietly(client);
+                }
+            }
+        }
+
+        private void pump(Socket from, Socket to, boolean fromClient, Runnable closeBoth) {
+            byte[] buffer = new byte[8192];
+            try (InputStream in = from.getInputStream()) {
+                OutputStream out = to.getOutputStream();
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    if (fromClient && new String(buffer, 0, read, StandardCharsets.ISO_8859_1).toUpperCase(Locale.ROOT).startsWith("MAIL FROM")
+                            && cutNextSend.compareAndSet(true, false)) {
+                        break;
+                    }
+                    out.write(buffer, 0, read);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // Connexion fermée de l'autre côté
+            } finally {
+                closeBoth.run();
+            }
+        }
+
+        private static void closeQuietly(Socket socket) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Déjà fermée
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            executor.shutdownNow();
+        }
+    }
+}
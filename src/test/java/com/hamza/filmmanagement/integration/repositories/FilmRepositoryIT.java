@@ -0,0 +1,200 @@
+package com.hamza.filmmanagement.integration.repositories;
+
+import com.hamza.filmmanagement.dto.FacetCount;
+import com.hamza.filmmanagement.dto.FilmDetail;
+import com.hamza.filmmanagement.dto.FilmQueryFilter;
+import com.hamza.filmmanagement.entities.Actor;
+import com.hamza.filmmanagement.entities.Director;
+import com.hamza.filmmanagement.entities.Film;
+import com.hamza.filmmanagement.entities.Rating;
+import com.hamza.filmmanagement.entities.User;
+import com.hamza.filmmanagement.repositories.ActorRepository;
+import com.hamza.filmmanagement.repositories.DirectorRepository;
+import com.hamza.filmmanagement.repositories.FilmRepository;
+import com.hamza.filmmanagement.repositories.FilmSpecifications;
+import com.hamza.filmmanagement.repositories.RatingRepository;
+import com.hamza.filmmanagement.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test") // pour utiliser H2
+class FilmRepositoryIT {
+
+    @Autowired
+    private FilmRepository filmRepository;
+
+    @Autowired
+    private ActorRepository actorRepository;
+
+    @Autowired
+    private DirectorRepository directorRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void findDetailById_shouldLoadDirectorAndCastInOneStatement() {
+        Director director = new Director();
+        director.setFirstName("First");
+        director.setLastName("Last");
+        director.setNationality("FR");
+        directorRepository.save(director);
+
+        // Une distribution volontairement large : le nombre de requêtes ne doit pas en dépendre
+        Set<Actor> cast = new HashSet<>();
+        for (int i = 0; i < 25; i++) {
+            cast.add(actorRepository.save(new Actor(null, "Actor" + i, "Name" + i, "FR")));
+        }
+
+        Film film = new Film();
+        film.setTitle("Un film");
+        film.setDescription("Description");
+        film.setPoster("poster.jpg");
+        film.setReleaseDate(LocalDate.now());
+        film.setDirector(director);
+        film.setActors(cast);
+        Film saved = filmRepository.save(film);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        FilmDetail detail = FilmDetail.from(filmRepository.findDetailById(saved.getId()).orElseThrow());
+
+        assertThat(detail.getActors()).hasSize(25);
+        assertThat(detail.getDirector().getLastName()).isEqualTo("Last");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void facetCounts_shouldGroupFilmsMatchingTheFilter() {
+        Director french = directorRepository.save(new Director(null, "Agnès", "Varda", "French"));
+        Director american = directorRepository.save(new Director(null, "John", "Ford", "American"));
+        Actor actor = actorRepository.save(new Actor(null, "Jean", "Gabin", "French"));
+
+        saveFilm("A", LocalDate.of(2001, 5, 1), french, Set.of(actor));
+        saveFilm("B", LocalDate.of(2001, 9, 1), american, Set.of(actor));
+        saveFilm("C", LocalDate.of(2003, 1, 1), french, Set.of());
+        entityManager.flush();
+        entityManager.clear();
+
+        FilmQueryFilter filter = new FilmQueryFilter();
+        filter.setActorId(actor.getId());
+
+        assertThat(filmRepository.count(FilmSpecifications.matching(filter))).isEqualTo(2);
+        assertThat(filmRepository.countByReleaseYear(filter))
+                .extracting(FacetCount::getValue, FacetCount::getCount)
+                .containsExactly(tuple("2001", 2L));
+        assertThat(filmRepository.countByDirectorNationality(new FilmQueryFilter()))
+                .extracting(FacetCount::getValue, FacetCount::getCount)
+                .containsExactly(tuple("French", 2L), tuple("American", 1L));
+        assertThat(filmRepository.countByDirector(filter, 10))
+                .extracting(FacetCount::getCount)
+                .containsExactly(1L, 1L);
+    }
+
+    @Test
+    void releaseDatePages_shouldSeekThroughDatedFilmsThenUndatedOnesById() {
+        Director director = directorRepository.save(new Director(null, "Agnès", "Varda", "French"));
+        saveFilm("Undated 1", null, director, Set.of());
+        saveFilm("Late", LocalDate.of(2005, 1, 1), director, Set.of());
+        saveFilm("Undated 2", null, director, Set.of());
+        saveFilm("Early", LocalDate.of(1999, 1, 1), director, Set.of());
+        saveFilm("Same day", LocalDate.of(2005, 1, 1), director, Set.of());
+        entityManager.flush();
+        entityManager.clear();
+
+        PageRequest two = PageRequest.ofSize(2);
+        List<Film> first = filmRepository.findFirstPageByReleaseDate(two);
+        assertThat(first).extracting(Film::getTitle).containsExactly("Early", "Late");
+
+        // Même date que le dernier film de la page : départagé par id
+        List<Film> second = filmRepository.findPageByReleaseDate(first.get(1).getReleaseDate(), first.get(1).getId(), two);
+        assertThat(second).extracting(Film::getTitle).containsExactly("Same day");
+
+        List<Film> undated = filmRepository.findPageWithoutReleaseDate(0L, two);
+        assertThat(undated).extracting(Film::getTitle).containsExactly("Undated 1", "Undated 2");
+    }
+
+    @Test
+    void titlePages_shouldSeekThroughTitledFilmsThenUntitledOnesById() {
+        Director director = directorRepository.save(new Director(null, "Agnès", "Varda", "French"));
+        saveFilm(null, null, director, Set.of());
+        saveFilm("B", null, director, Set.of());
+        saveFilm("A", null, director, Set.of());
+        saveFilm("B", null, director, Set.of());
+        entityManager.flush();
+        entityManager.clear();
+
+        PageRequest two = PageRequest.ofSize(2);
+        List<Film> first = filmRepository.findFirstPageByTitle(two);
+        assertThat(first).extracting(Film::getTitle).containsExactly("A", "B");
+
+        List<Film> second = filmRepository.findPageByTitle(first.get(1).getTitle(), first.get(1).getId(), two);
+        assertThat(second).extracting(Film::getTitle).containsExactly("B");
+
+        assertThat(filmRepository.findPageWithoutTitle(0L, two)).extracting(Film::getTitle).containsExactly((String) null);
+    }
+
+    @Test
+    void ratingAggregates_shouldFollowDeltasAndBeRebuiltByReconciliation() {
+        Film film = new Film();
+        film.setTitle("Noté");
+        film.setReleaseDate(LocalDate.of(2010, 1, 1));
+        film = filmRepository.save(film);
+        User first = userRepository.save(new User(null, "a@test.com", "pwd", null, true, null));
+        User second = userRepository.save(new User(null, "b@test.com", "pwd", null, true, null));
+        ratingRepository.save(new Rating(null, 5, first, film));
+        ratingRepository.save(new Rating(null, 2, second, film));
+        entityManager.flush();
+
+        // Une seule note comptée par incrément : la réconciliation doit retrouver les deux
+        filmRepository.applyRatingDelta(film.getId(), 1, 5, 0, 0, 0, 0, 1);
+        entityManager.clear();
+        assertThat(filmRepository.findById(film.getId()).orElseThrow().getRatingCount()).isEqualTo(1);
+
+        filmRepository.reconcileRatingAggregates(0L, filmRepository.findMaxId());
+        entityManager.clear();
+
+        Film reconciled = filmRepository.findById(film.getId()).orElseThrow();
+        assertThat(reconciled.getRatingCount()).isEqualTo(2);
+        assertThat(reconciled.getRatingSum()).isEqualTo(7);
+        assertThat(reconciled.getRatingHist2()).isEqualTo(1);
+        assertThat(reconciled.getRatingHist5()).isEqualTo(1);
+        assertThat(reconciled.getAverageRating()).isEqualTo(3.5);
+    }
+
+    private void saveFilm(String title, LocalDate releaseDate, Director director, Set<Actor> actors) {
+        Film film = new Film();
+        film.setTitle(title);
+        film.setDescription("Description");
+        film.setPoster("poster.jpg");
+        film.setReleaseDate(releaseDate);
+        film.setDirector(director);
+        film.setActors(new HashSet<>(actors));
+        filmRepository.save(film);
+    }
+}
@@ -0,0 +1,106 @@
+package com.hamza.filmmanagement.integration.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hamza.filmmanagement.entities.Director;
+import com.hamza.filmmanagement.entities.Film;
+import com.hamza.filmmanagement.events.RatingAggregatesChangedEvent;
+import com.hamza.filmmanagement.repositories.DirectorRepository;
+import com.hamza.filmmanagement.repositories.FilmRepository;
+import com.hamza.filmmanagement.services.CatalogSnapshotService;
+import com.hamza.filmmanagement.services.ResourceVersionService;
+import com.hamza.filmmanagement.snapshot.EncodedBody;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "film.catalog.snapshot.rebuild-delay-ms=10",
+        "film.catalog.snapshot.max-pages=1",
+        "film.catalog.snapshot.rating-rebuild-interval-ms=60000"
+})
+@ActiveProfiles("test")
+class CatalogSnapshotServiceIT {
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private FilmRepository filmRepository;
+
+    @Autowired
+    private DirectorRepository directorRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Film film;
+
+    @BeforeEach
+    void setup() {
+        Director director = directorRepository.save(new Director(null, "Agnès", "Varda", "French"));
+        film = new Film();
+        film.setTitle("Cléo de 5 à 7");
+        film.setDirector(director);
+        film = filmRepository.save(film);
+        catalogSnapshotService.rebuild();
+    }
+
+    @AfterEach
+    void cleanup() {
+        filmRepository.delete(film);
+        directorRepository.delete(film.getDirector());
+    }
+
+    @Test
+    void rebuild_shouldServeTheSameEtagAsTheDatabasePath() {
+        String etag = resourceVersionService.films().getEtag();
+
+        assertThat(catalogSnapshotService.listing().etag(false)).isEqualTo(etag);
+        assertThat(catalogSnapshotService.page("id", null, 20).etag(false)).isEqualTo(etag);
+        assertThat(catalogSnapshotService.listing().etag(true)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void rebuild_shouldKeepOnlyTheFirstMaxPagesAndLeaveTheNextOnesToTheDatabase() throws Exception {
+        // Assez de films pour dépasser une page de 20, quel que soit le contenu laissé par les autres tests
+        List<Film> extra = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Film other = new Film();
+            other.setTitle("Extra " + i);
+            extra.add(filmRepository.save(other));
+        }
+        try {
+            catalogSnapshotService.rebuild();
+
+            EncodedBody first = catalogSnapshotService.page("id", null, 20);
+            assertThat(first).isNotNull();
+            String next = objectMapper.readTree(first.body(false)).get("nextCursor").asText();
+            assertThat(catalogSnapshotService.page("id", next, 20)).isNull();
+        } finally {
+            filmRepository.deleteAll(extra);
+        }
+    }
+
+    @Test
+    void onRatingAggregatesChanged_shouldWaitForTheRatingIntervalBeforeRebuilding() throws InterruptedException {
+        EncodedBody before = catalogSnapshotService.listing();
+
+        catalogSnapshotService.onRatingAggregatesChanged(new RatingAggregatesChangedEvent(Set.of(film.getId())));
+        Thread.sleep(300);
+
+        // Bien au-delà de rebuild-delay-ms, mais avant la fin de l'intervalle des notes
+        assertThat(catalogSnapshotService.listing()).isSameAs(before);
+    }
+}
@@ -0,0 +1,139 @@
+package com.hamza.filmmanagement.integration.services;
+
+import com.hamza.filmmanagement.repositories.PosterBlobRepository;
+import com.hamza.filmmanagement.services.FileStorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sans transaction de test : chaque ajout ou retrait de référence est validé dans sa propre transaction, comme en production
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(FileStorageService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "film.storage.upload-dir=target/test-uploads",
+        "film.storage.temp-dir=target/test-uploads-tmp"
+})
+class FileStorageServiceIT {
+
+    private static final Path UPLOADS = Path.of("target/test-uploads");
+    private static final Path UPLOADS_TMP = Path.of("target/test-uploads-tmp");
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private PosterBlobRepository posterBlobRepository;
+
+    private static MockMultipartFile poster(String name, String content) {
+        return new MockMultipartFile("poster", name, "image/png", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        posterBlobRepository.deleteAll();
+        FileSystemUtils.deleteRecursively(UPLOADS);
+        FileSystemUtils.deleteRecursively(UPLOADS_TMP);
+    }
+
+    @Test
+    void storeFile_shouldStoreIdenticalContentOnceAndDeleteItWithTheLastReference() throws Exception {
+        String first = fileStorageService.storeFile(poster("a.PNG", "same bytes"));
+        String second = fileStorageService.storeFile(poster("b.png", "same bytes"));
+        String other = fileStorageService.storeFile(poster("c.png", "other bytes"));
+
+        assertThat(first).isEqualTo(second).matches("[0-9a-f]{64}\\.png");
+        assertThat(other).isNotEqualTo(first);
+        assertThat(Files.readString(UPLOADS.resolve(first))).isEqualTo("same bytes");
+        assertThat(posterBlobRepository.findById(first.substring(0, 64)).orElseThrow().getRefCount()).isEqualTo(2);
+
+        fileStorageService.deleteFile(first);
+        assertThat(Files.exists(UPLOADS.resolve(first))).isTrue();
+
+        fileStorageService.deleteFile(second);
+        assertThat(Files.exists(UPLOADS.resolve(first))).isFalse();
+        assertThat(posterBlobRepository.findById(first.substring(0, 64))).isEmpty();
+        assertThat(Files.exists(UPLOADS.resolve(other))).isTrue();
+        fileStorageService.deleteFile(other);
+    }
+
+    @Test
+    void storeFile_shouldCountEveryReferenceWhenTheSameContentIsUploadedConcurrently() throws Exception {
+        int uploads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(uploads);
+        try {
+            // Plusieurs tours pour croiser différents entrelacements : chaque référence est un incrément SQL,
+            // le compte final ne dépend pas de l'ordre des transactions
+            for (int round = 0; round < 10; round++) {
+                String content = "concurrent bytes " + round;
+                // Premiers envois simultanés d'un même contenu encore inconnu : une seule insertion gagne, les autres ajoutent une référence
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<String>> results = new ArrayList<>();
+                for (int i = 0; i < uploads; i++) {
+                    String name = "poster-" + i + ".png";
+                    Callable<String> upload = () -> {
+                        start.await();
+                        return fileStorageService.storeFile(poster(name, content));
+                    };
+                    results.add(executor.submit(upload));
+                }
+                start.countDown();
+
+                List<String> fileNames = new ArrayList<>();
+                for (Future<String> result : results) {
+                    fileNames.add(result.get());
+                }
+                String fileName = fileNames.get(0);
+                assertThat(fileNames).containsOnly(fileName);
+                assertThat(posterBlobRepository.findById(fileName.substring(0, 64)).orElseThrow().getRefCount()).isEqualTo(uploads);
+                try (var files = Files.list(UPLOADS)) {
+                    assertThat(files).containsExactly(UPLOADS.resolve(fileName));
+                }
+
+                for (int i = 0; i < uploads; i++) {
+                    fileStorageService.deleteFile(fileName);
+                }
+                assertThat(Files.exists(UPLOADS.resolve(fileName))).isFalse();
+                assertThat(posterBlobRepository.count()).isZero();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void deleteFile_shouldNotDeleteFilesOutsideTheUploadDirectory() throws Exception {
+        Files.createDirectories(UPLOADS);
+        Path outside = Files.writeString(UPLOADS.resolveSibling("test-uploads-outside.txt"), "keep me");
+        try {
+            fileStorageService.deleteFile("../test-uploads-outside.txt");
+            fileStorageService.deleteFile("https://example.com/poster.png");
+
+            assertThat(Files.exists(outside)).isTrue();
+        } finally {
+            Files.deleteIfExists(outside);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.hamza.filmmanagement.integration.services;
+
+import com.hamza.filmmanagement.dto.ExportFormat;
+import com.hamza.filmmanagement.dto.FilmImportError;
+import com.hamza.filmmanagement.dto.FilmImportReport;
+import com.hamza.filmmanagement.entities.Director;
+import com.hamza.filmmanagement.entities.Film;
+import com.hamza.filmmanagement.repositories.DirectorRepository;
+import com.hamza.filmmanagement.repositories.FilmRepository;
+import com.hamza.filmmanagement.repositories.PosterBlobRepository;
+import com.hamza.filmmanagement.services.FileStorageService;
+import com.hamza.filmmanagement.services.FilmImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sans transaction de test : chaque paquet est validé dans sa propre transaction, comme en production
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "film.storage.upload-dir=target/test-import-uploads",
+        "film.storage.temp-dir=target/test-import-uploads-tmp"
+})
+class FilmImportServiceIT {
+
+    @Autowired
+    private FilmImportService filmImportService;
+
+    @Autowired
+    private DirectorRepository directorRepository;
+
+    @Autowired
+    private FilmRepository filmRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private PosterBlobRepository posterBlobRepository;
+
+    @AfterEach
+    void cleanup() {
+        FileSystemUtils.deleteRecursively(Path.of("target/test-import-uploads").toFile());
+        FileSystemUtils.deleteRecursively(Path.of("target/test-import-uploads-tmp").toFile());
+    }
+
+    @Test
+    void importFilms_shouldImportTheValidRowsOfAChunkRejectedByTheDatabase() throws Exception {
+        Director director = directorRepository.save(new Director(null, "Jean-Pierre", "Melville", "French"));
+        // Plus long que la colonne description (255) : refusé à l'INSERT, pas par la validation
+        String tooLong = "x".repeat(300);
+        String ndjson = "{\"title\":\"Import 1\",\"directorId\":" + director.getId() + "}\n"
+                + "{\"title\":\"Import 2\",\"description\":\"" + tooLong + "\",\"directorId\":" + director.getId() + "}\n"
+                + "{\"title\":\"Import 3\",\"directorId\":" + director.getId() + "}\n";
+        long before = filmRepository.count();
+
+        FilmImportReport report = filmImportService.importFilms(ExportFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(FilmImportError::getRow).containsExactly(2L);
+        assertThat(filmRepository.count()).isEqualTo(before + 2);
+        assertThat(filmRepository.findAll()).extracting(film -> film.getTitle())
+                .contains("Import 1", "Import 3")
+                .doesNotContain("Import 2");
+    }
+
+    @Test
+    void importFilms_shouldRejectPostersThatAreNeitherUrlsNorStoredPosters() throws Exception {
+        Director director = directorRepository.save(new Director(null, "Chantal", "Akerman", "Belgian"));
+        String stored = fileStorageService.storeFile(new MockMultipartFile("poster", "a.png", "image/png", new byte[]{1, 2, 3}));
+        String ndjson = "{\"title\":\"Poster 1\",\"directorId\":" + director.getId() + ",\"poster\":\"../src/main/resources/application.properties\"}\n"
+                + "{\"title\":\"Poster 2\",\"directorId\":" + director.getId() + ",\"poster\":\"" + "0".repeat(64) + ".png\"}\n"
+                + "{\"title\":\"Poster 3\",\"directorId\":" + director.getId() + ",\"poster\":\"https://example.com/poster.png\"}\n"
+                + "{\"title\":\"Poster 4\",\"directorId\":" + director.getId() + ",\"poster\":\"" + stored + "\"}\n";
+
+        FilmImportReport report = filmImportService.importFilms(ExportFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(FilmImportError::getRow).containsExactly(1L, 2L);
+        assertThat(filmRepository.findAll()).extracting(Film::getTitle)
+                .contains("Poster 3", "Poster 4")
+                .doesNotContain("Poster 1", "Poster 2");
+        // Le film importé compte parmi les références de l'affiche partagée : la supprimer une fois ne l'efface pas
+        assertThat(posterBlobRepository.findById(stored.substring(0, 64)).orElseThrow().getRefCount()).isEqualTo(2);
+        fileStorageService.deleteFile(stored);
+        assertThat(fileStorageService.existingFile(stored)).exists();
+    }
+}
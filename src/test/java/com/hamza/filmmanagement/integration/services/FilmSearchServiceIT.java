@@ -0,0 +1,131 @@
+package com.hamza.filmmanagement.integration.services;
+
+import com.hamza.filmmanagement.dto.FilmSearchHit;
+import com.hamza.filmmanagement.entities.Actor;
+import com.hamza.filmmanagement.entities.Director;
+import com.hamza.filmmanagement.entities.Film;
+import com.hamza.filmmanagement.repositories.ActorRepository;
+import com.hamza.filmmanagement.repositories.DirectorRepository;
+import com.hamza.filmmanagement.repositories.FilmRepository;
+import com.hamza.filmmanagement.services.ActorService;
+import com.hamza.filmmanagement.services.FilmSearchService;
+import com.hamza.filmmanagement.services.FilmService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sans transaction de test : les écouteurs d'événements relisent les films dans leur propre transaction, comme en production
+@SpringBootTest
+@ActiveProfiles("test")
+class FilmSearchServiceIT {
+
+    @Autowired
+    private FilmSearchService filmSearchService;
+
+    @Autowired
+    private FilmService filmService;
+
+    @Autowired
+    private ActorService actorService;
+
+    @Autowired
+    private FilmRepository filmRepository;
+
+    @Autowired
+    private DirectorRepository directorRepository;
+
+    @Autowired
+    private ActorRepository actorRepository;
+
+    private Director director;
+    private Actor actor;
+    private final List<Film> films = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        director = directorRepository.save(new Director(null, "Jacques", "Demy", "French"));
+        actor = actorRepository.save(new Actor(null, "Catherine", "Deneuve", "French"));
+        films.add(saveFilm("Les Parapluies de Cherbourg", actor));
+        filmSearchService.rebuildIndex();
+    }
+
+    @AfterEach
+    void cleanup() {
+        // Par identifiant : les entités gardées ici peuvent avoir été modifiées par le test
+        films.forEach(film -> filmRepository.deleteById(film.getId()));
+        actorRepository.deleteById(actor.getId());
+        directorRepository.deleteById(director.getId());
+        filmSearchService.rebuildIndex();
+    }
+
+    private Film saveFilm(String title, Actor... actors) {
+        Film film = new Film();
+        film.setTitle(title);
+        film.setDirector(director);
+        film.setActors(new HashSet<>(List.of(actors)));
+        return filmRepository.save(film);
+    }
+
+    private List<Long> searchIds(String query) {
+        return filmSearchService.search(query, 0, 10).getItems().stream().map(FilmSearchHit::getId).toList();
+    }
+
+    @Test
+    void search_shouldFindAFilmByItsTitleDirectorAndActors() {
+        Long id = films.get(0).getId();
+
+        assertThat(searchIds("parapluies")).containsExactly(id);
+        assertThat(searchIds("demy")).containsExactly(id);
+        assertThat(searchIds("deneuve")).containsExactly(id);
+        assertThat(searchIds("zanzibar")).isEmpty();
+    }
+
+    @Test
+    void updateFilm_shouldReindexTheFilmOnceSaved() throws Exception {
+        Film film = films.get(0);
+
+        filmService.updateFilm(film.getId(), "Les Demoiselles de Rochefort", null, LocalDate.of(1967, 3, 8),
+                List.of(actor.getId()), director.getId(), null);
+
+        assertThat(searchIds("demoiselles")).containsExactly(film.getId());
+        assertThat(searchIds("parapluies")).isEmpty();
+    }
+
+    @Test
+    void updateActor_shouldReindexTheFilmsOfTheActor() {
+        Film other = saveFilm("Peau d'âne", actor);
+        films.add(other);
+        filmSearchService.rebuildIndex();
+
+        actorService.updateActor(actor.getId(), new Actor(null, "Catherine", "Dorléac", "French"));
+
+        assertThat(searchIds("dorléac")).containsExactlyInAnyOrder(films.get(0).getId(), other.getId());
+        assertThat(searchIds("deneuve")).isEmpty();
+    }
+
+    @Test
+    void rebuildIndex_shouldSwapInTheCurrentCatalog() {
+        // Écrits directement en base, sans événement : absents de l'index jusqu'à la reconstruction
+        Film added = saveFilm("Lola");
+        films.add(added);
+        filmRepository.delete(films.get(0));
+        assertThat(searchIds("lola")).isEmpty();
+        assertThat(searchIds("parapluies")).containsExactly(films.get(0).getId());
+
+        long indexed = filmSearchService.rebuildIndex();
+
+        assertThat(indexed).isEqualTo(filmRepository.count());
+        assertThat(searchIds("lola")).containsExactly(added.getId());
+        assertThat(searchIds("parapluies")).isEmpty();
+    }
+}
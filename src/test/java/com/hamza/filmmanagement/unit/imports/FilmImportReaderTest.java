@@ -0,0 +1,68 @@
+package com.hamza.filmmanagement.unit.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hamza.filmmanagement.dto.ExportFormat;
+import com.hamza.filmmanagement.imports.FilmImportReader;
+import com.hamza.filmmanagement.imports.FilmImportReader.ParsedRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilmImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private List<ParsedRow> readAll(ExportFormat format, String content) throws IOException {
+        List<ParsedRow> rows = new ArrayList<>();
+        try (FilmImportReader reader = new FilmImportReader(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format, objectMapper)) {
+            ParsedRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    void csv_shouldParseQuotedFieldsAndReportInvalidRows() throws IOException {
+        String csv = "title,description,releaseDate,directorId,actorIds,poster\r\n"
+                + "\"Heat, the movie\",\"A \"\"classic\"\"\nthriller\",1995-12-15,3,1;2,http://posters/heat.jpg\r\n"
+                + "Broken,,not-a-date,3,,\n"
+                + "\n"
+                + "Alien,,,4,,\n";
+
+        List<ParsedRow> rows = readAll(ExportFormat.CSV, csv);
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).row().getTitle()).isEqualTo("Heat, the movie");
+        assertThat(rows.get(0).row().getDescription()).isEqualTo("A \"classic\"\nthriller");
+        assertThat(rows.get(0).row().getReleaseDate()).isEqualTo(LocalDate.of(1995, 12, 15));
+        assertThat(rows.get(0).row().getActorIds()).containsExactly(1L, 2L);
+        assertThat(rows.get(1).error()).isNotNull();
+        assertThat(rows.get(2).rowNumber()).isEqualTo(3);
+        assertThat(rows.get(2).row().getDirectorId()).isEqualTo(4L);
+    }
+
+    @Test
+    void ndjson_shouldParseEachLineIndependently() throws IOException {
+        String ndjson = "{\"title\":\"Heat\",\"directorId\":3,\"actorIds\":[1,2],\"releaseDate\":\"1995-12-15\"}\n"
+                + "{not json}\n"
+                + "{\"title\":\"Alien\",\"directorId\":4}\n";
+
+        List<ParsedRow> rows = readAll(ExportFormat.NDJSON, ndjson);
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).row().getActorIds()).containsExactly(1L, 2L);
+        assertThat(rows.get(1).error()).startsWith("Invalid JSON");
+        assertThat(rows.get(2).row().getTitle()).isEqualTo("Alien");
+    }
+}
@@ -0,0 +1,47 @@
+package com.hamza.filmmanagement.unit.leaderboard;
+
+import com.hamza.filmmanagement.dto.LeaderboardEntry;
+import com.hamza.filmmanagement.leaderboard.FilmLeaderboard;
+import com.hamza.filmmanagement.leaderboard.FilmLeaderboard.Ranking;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilmLeaderboardTest {
+
+    @Test
+    void top_shouldOrderByAverageAndIgnoreFilmsBelowMinimumVotes() {
+        FilmLeaderboard leaderboard = new FilmLeaderboard(2);
+        leaderboard.update(LeaderboardEntry.of(1, "A", 2000, 10, 40));  // 4.0
+        leaderboard.update(LeaderboardEntry.of(2, "B", 2000, 4, 18));   // 4.5
+        leaderboard.update(LeaderboardEntry.of(3, "C", 2001, 1, 5));    // 5.0 mais un seul vote
+
+        assertThat(leaderboard.top(Ranking.TOP_RATED, null, 10))
+                .extracting(LeaderboardEntry::getFilmId)
+                .containsExactly(2L, 1L);
+        assertThat(leaderboard.top(Ranking.MOST_RATED, null, 10))
+                .extracting(LeaderboardEntry::getFilmId)
+                .containsExactly(1L, 2L, 3L);
+        assertThat(leaderboard.top(Ranking.MOST_RATED, 2001, 10))
+                .extracting(LeaderboardEntry::getFilmId)
+                .containsExactly(3L);
+    }
+
+    @Test
+    void update_shouldMoveFilmAndRemoveItWhenVotesDropToZero() {
+        FilmLeaderboard leaderboard = new FilmLeaderboard(1);
+        leaderboard.update(LeaderboardEntry.of(1, "A", 2000, 3, 6));
+        leaderboard.update(LeaderboardEntry.of(2, "B", 2000, 2, 8));
+
+        leaderboard.update(LeaderboardEntry.of(1, "A", 2000, 5, 25));
+        assertThat(leaderboard.top(Ranking.TOP_RATED, 2000, 1))
+                .extracting(LeaderboardEntry::getFilmId)
+                .containsExactly(1L);
+
+        leaderboard.update(LeaderboardEntry.of(1, "A", 2000, 0, 0));
+        assertThat(leaderboard.top(Ranking.MOST_RATED, null, 10))
+                .extracting(LeaderboardEntry::getFilmId)
+                .containsExactly(2L);
+        assertThat(leaderboard.size()).isEqualTo(1);
+    }
+}
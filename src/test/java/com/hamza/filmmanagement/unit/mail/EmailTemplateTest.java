@@ -0,0 +1,33 @@
+package com.hamza.filmmanagement.unit.mail;
+
+import com.hamza.filmmanagement.mail.EmailTemplate;
+import com.hamza.filmmanagement.mail.EmailTemplateEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailTemplateTest {
+
+    @Test
+    void render_shouldSubstituteVariablesAndKeepEscapesAndUnknownVariables() {
+        EmailTemplate template = EmailTemplate.compile("t", "<a href=\"${link}\">${label}</a> $${literal} ${missing} ${link}");
+
+        String rendered = template.render(Map.of("link", "https://x/a?b=1", "label", "Go"));
+
+        assertThat(rendered).isEqualTo("<a href=\"https://x/a?b=1\">Go</a> ${literal} ${missing} https://x/a?b=1");
+    }
+
+    @Test
+    void engine_shouldLoadTheClasspathTemplatesOnce() throws Exception {
+        EmailTemplateEngine engine = new EmailTemplateEngine("");
+        engine.load();
+
+        String rendered = engine.render("activation-email", Map.of("activationLink", "http://localhost/activate?token=abc"));
+
+        assertThat(rendered).contains("href=\"http://localhost/activate?token=abc\"").doesNotContain("${");
+        assertThatThrownBy(() -> engine.render("unknown", Map.of())).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,43 @@
+package com.hamza.filmmanagement.unit.posters;
+
+import com.hamza.filmmanagement.posters.PosterResizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PosterResizerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void resize_shouldKeepTheAspectRatioAndWriteAReadableJpeg() throws Exception {
+        Path source = dir.resolve("poster.png");
+        ImageIO.write(new BufferedImage(2000, 3000, BufferedImage.TYPE_INT_ARGB), "png", source.toFile());
+
+        BufferedImage image = PosterResizer.read(source, 400, 50_000_000L);
+        BufferedImage thumb = PosterResizer.resize(image, 160);
+        Path target = dir.resolve("thumb.jpg");
+        PosterResizer.writeJpeg(thumb, target, 0.85f);
+
+        BufferedImage written = ImageIO.read(target.toFile());
+        assertThat(written.getWidth()).isEqualTo(160);
+        assertThat(written.getHeight()).isEqualTo(240);
+    }
+
+    @Test
+    void read_shouldRejectFilesThatAreNotImagesOrTooLarge() throws Exception {
+        Path text = Files.writeString(dir.resolve("poster.png"), "not an image");
+        Path huge = dir.resolve("huge.png");
+        ImageIO.write(new BufferedImage(1000, 1000, BufferedImage.TYPE_INT_RGB), "png", huge.toFile());
+
+        assertThat(PosterResizer.read(text, 160, 50_000_000L)).isNull();
+        assertThat(PosterResizer.read(huge, 160, 100_000L)).isNull();
+    }
+}
@@ -0,0 +1,51 @@
+package com.hamza.filmmanagement.unit.related;
+
+import com.hamza.filmmanagement.dto.RelatedFilm;
+import com.hamza.filmmanagement.related.RelatedFilmsGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RelatedFilmsGraphTest {
+
+    // Film 1 : acteurs 10, 11, 12, réalisateur 100
+    // Film 2 : acteurs 10, 11 (deux en commun)
+    // Film 3 : acteur 12, même réalisateur
+    // Film 4 : acteur 13 (aucun lien)
+    private RelatedFilmsGraph sampleGraph() {
+        return RelatedFilmsGraph.builder()
+                .addFilm(1, 100L).addFilm(2, 200L).addFilm(3, 100L).addFilm(4, null)
+                .addCast(1, 10).addCast(1, 11).addCast(1, 12)
+                .addCast(2, 10).addCast(2, 11)
+                .addCast(3, 12)
+                .addCast(4, 13)
+                .build();
+    }
+
+    @Test
+    void related_shouldRankBySharedCastAndDirector() {
+        List<RelatedFilm> related = sampleGraph().related(1, 10);
+
+        assertThat(related).extracting(RelatedFilm::getFilmId).containsExactly(3L, 2L);
+        assertThat(related.get(0).isSameDirector()).isTrue();
+        assertThat(related.get(1).getSharedActors()).isEqualTo(2);
+        assertThat(sampleGraph().related(1, 1)).hasSize(1);
+        assertThat(sampleGraph().related(99, 10)).isEmpty();
+    }
+
+    @Test
+    void update_shouldPatchCastAndRemoveDeletedFilms() {
+        RelatedFilmsGraph graph = sampleGraph();
+
+        // Le film 4 rejoint la distribution du film 1, un nouveau film 5 aussi
+        graph.update(4, null, new long[]{10, 13});
+        graph.update(5, 300L, new long[]{11});
+        assertThat(graph.related(1, 10)).extracting(RelatedFilm::getFilmId).contains(4L, 5L);
+
+        graph.remove(3);
+        assertThat(graph.related(1, 10)).extracting(RelatedFilm::getFilmId).doesNotContain(3L);
+        assertThat(graph.related(3, 10)).isEmpty();
+    }
+}
@@ -0,0 +1,53 @@
+package com.hamza.filmmanagement.unit.search;
+
+import com.hamza.filmmanagement.dto.NameSuggestion;
+import com.hamza.filmmanagement.search.NameAutocompleteIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NameAutocompleteIndexTest {
+
+    private NameAutocompleteIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new NameAutocompleteIndex();
+        index.replaceAll(NameAutocompleteIndex.builder()
+                .add(1L, "Émile", "Zola")
+                .add(2L, "Tom", "Hanks")
+                .add(3L, "Tom", "Cruise")
+                .add(4L, "Audrey", "Tautou"));
+    }
+
+    @Test
+    void suggest_shouldMatchFirstOrLastNameIgnoringCaseAndAccents() {
+        assertThat(index.suggest("EMI", 10)).extracting(NameSuggestion::getName).containsExactly("Émile Zola");
+        assertThat(index.suggest("zol", 10)).extracting(NameSuggestion::getId).containsExactly(1L);
+        assertThat(index.suggest("tom", 10)).extracting(NameSuggestion::getId).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void suggest_shouldRespectLimit() {
+        List<NameSuggestion> suggestions = index.suggest("t", 2);
+
+        assertThat(suggestions).hasSize(2);
+    }
+
+    @Test
+    void put_shouldReplacePreviousNameAndRemove_shouldHidePerson() {
+        // when
+        index.put(2L, "Thomas", "Hanks");
+        index.put(5L, "Tomas", "Milian");
+        index.remove(3L);
+
+        // then
+        assertThat(index.suggest("tom", 10)).extracting(NameSuggestion::getId).containsExactly(5L);
+        assertThat(index.suggest("hanks", 10)).extracting(NameSuggestion::getName).containsExactly("Thomas Hanks");
+        assertThat(index.suggest("cruise", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+    }
+}
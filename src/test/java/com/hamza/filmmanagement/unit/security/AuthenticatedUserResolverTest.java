@@ -0,0 +1,79 @@
+package com.hamza.filmmanagement.unit.security;
+
+import com.hamza.filmmanagement.events.UserChangedEvent;
+import com.hamza.filmmanagement.security.AuthenticatedUserResolver;
+import com.hamza.filmmanagement.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class AuthenticatedUserResolverTest {
+
+    private final UserDetailsServiceImpl userDetailsService = mock(UserDetailsServiceImpl.class);
+
+    private static Claims claims(String username) {
+        Claims claims = Jwts.claims().setSubject(username);
+        claims.put("roles", List.of("ROLE_ADMIN"));
+        return claims;
+    }
+
+    private static UserDetails user(String username) {
+        return User.withUsername(username).password("").authorities("ROLE_USER").build();
+    }
+
+    @Test
+    void claimsMode_shouldBuildTheUserFromTheTokenWithoutLoadingIt() {
+        AuthenticatedUserResolver resolver = new AuthenticatedUserResolver(userDetailsService, "claims", 100, 300);
+
+        UserDetails resolved = resolver.resolve(claims("admin@example.com"));
+
+        assertThat(resolved.getUsername()).isEqualTo("admin@example.com");
+        assertThat(resolved.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void cachedUserMode_shouldLoadOnceAndReloadAfterUserChanged() {
+        AuthenticatedUserResolver resolver = new AuthenticatedUserResolver(userDetailsService, "cached-user", 100, 300);
+        when(userDetailsService.loadActiveUser("user@example.com")).thenReturn(user("user@example.com"));
+
+        resolver.resolve(claims("user@example.com"));
+        UserDetails cached = resolver.resolve(claims("user@example.com"));
+
+        // Les rôles viennent de la base, pas du jeton
+        assertThat(cached.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+        verify(userDetailsService, times(1)).loadActiveUser("user@example.com");
+
+        // Compte désactivé entre-temps : plus d'authentification après l'événement
+        when(userDetailsService.loadActiveUser("user@example.com")).thenReturn(null);
+        resolver.onUserChanged(new UserChangedEvent("user@example.com"));
+
+        assertThat(resolver.resolve(claims("user@example.com"))).isNull();
+        verify(userDetailsService, times(2)).loadActiveUser("user@example.com");
+    }
+
+    @Test
+    void cachedUserMode_shouldNotCacheAUserLoadedWhileItChanged() {
+        AuthenticatedUserResolver resolver = new AuthenticatedUserResolver(userDetailsService, "cached-user", 100, 300);
+        // Le compte est désactivé pendant la lecture : l'état lu avant le changement ne doit pas rester en cache
+        when(userDetailsService.loadActiveUser("user@example.com"))
+                .thenAnswer(invocation -> {
+                    resolver.onUserChanged(new UserChangedEvent("user@example.com"));
+                    return user("user@example.com");
+                })
+                .thenReturn(null);
+
+        assertThat(resolver.resolve(claims("user@example.com"))).isNotNull();
+
+        assertThat(resolver.resolve(claims("user@example.com"))).isNull();
+        verify(userDetailsService, times(2)).loadActiveUser("user@example.com");
+    }
+}
@@ -0,0 +1,43 @@
+package com.hamza.filmmanagement.unit.security;
+
+import com.hamza.filmmanagement.exceptions.auth.PasswordHashingUnavailableException;
+import com.hamza.filmmanagement.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void encodeAndMatches_shouldRunOnThePoolAndRoundTrip() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(4, 1, 4, 5000, new SimpleMeterRegistry());
+
+        String hash = encoder.encode("secret");
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+        encoder.destroy();
+    }
+
+    @Test
+    void upgradeEncoding_shouldFlagHashesWithAnotherCost() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(5, 1, 4, 5000, new SimpleMeterRegistry());
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+        encoder.destroy();
+    }
+
+    @Test
+    void encode_shouldFailFastWhenTheHashIsNotReadyInTime() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(14, 1, 4, 1, new SimpleMeterRegistry());
+
+        assertThatThrownBy(() -> encoder.encode("secret")).isInstanceOf(PasswordHashingUnavailableException.class);
+        encoder.destroy();
+    }
+}
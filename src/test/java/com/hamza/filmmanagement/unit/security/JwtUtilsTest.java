@@ -0,0 +1,46 @@
+package com.hamza.filmmanagement.unit.security;
+
+import com.hamza.filmmanagement.security.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilsTest {
+
+    private final JwtUtils jwtUtils = new JwtUtils(100);
+
+    private String token(String username) {
+        return jwtUtils.generateToken(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @Test
+    void verify_shouldReturnClaimsAndServeTheSameTokenFromCache() {
+        String token = token("admin@example.com");
+
+        Claims first = jwtUtils.verify(token);
+        Claims second = jwtUtils.verify(token);
+
+        assertThat(first.getSubject()).isEqualTo("admin@example.com");
+        assertThat(jwtUtils.extractRoles(token)).containsExactly("ROLE_ADMIN");
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void verify_shouldRejectTamperedOrMalformedTokens() {
+        String token = token("admin@example.com");
+        jwtUtils.verify(token);
+        // Un caractère modifié au milieu de la signature (les derniers caractères base64url ne portent en partie que du bourrage)
+        int index = token.lastIndexOf('.') + 10;
+        String tampered = token.substring(0, index) + (token.charAt(index) == 'A' ? 'B' : 'A') + token.substring(index + 1);
+
+        assertThat(jwtUtils.verify(tampered)).isNull();
+        assertThat(jwtUtils.verify("not-a-jwt")).isNull();
+        assertThat(jwtUtils.validateToken("")).isFalse();
+    }
+}
@@ -1,5 +1,6 @@
 package com.hamza.filmmanagement.unit.services;
 
+import com.hamza.filmmanagement.dto.CursorPage;
 import com.hamza.filmmanagement.entities.Actor;
 import com.hamza.filmmanagement.exceptions.actor.ActorNotFoundException;
 import com.hamza.filmmanagement.exceptions.actor.ActorRefencedByFilmException;
@@ -9,7 +10,9 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -23,6 +26,9 @@ class ActorServiceTest {
     @Mock
     private ActorRepository actorRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ActorService actorService;
 
@@ -127,6 +133,29 @@ class ActorServiceTest {
         verify(actorRepository).findAll();
     }
 
+    @Test
+    void getActorsPage_shouldReturnCursorPointingAfterLastActor() {
+        // given : 3 acteurs renvoyés pour une page de 2 (limit + 1 pour détecter la page suivante)
+        when(actorRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(Arrays.asList(
+                new Actor(1L, "A", "B", "FR"),
+                new Actor(2L, "C", "D", "US"),
+                new Actor(3L, "E", "F", "UK")
+        ));
+        when(actorRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any(Pageable.class))).thenReturn(List.of(
+                new Actor(3L, "E", "F", "UK")
+        ));
+
+        // when
+        CursorPage<Actor> first = actorService.getActorsPage(null, 2);
+        CursorPage<Actor> second = actorService.getActorsPage(first.getNextCursor(), 2);
+
+        // then
+        assertThat(first.getItems()).extracting(Actor::getId).containsExactly(1L, 2L);
+        assertThat(first.getNextCursor()).isNotNull();
+        assertThat(second.getItems()).extracting(Actor::getId).containsExactly(3L);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
     @Test
     void getActorById_shouldReturnActorIfExists() {
         // given
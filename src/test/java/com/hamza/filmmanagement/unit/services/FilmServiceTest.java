@@ -0,0 +1,137 @@
+package com.hamza.filmmanagement.unit.services;
+
+import com.hamza.filmmanagement.dto.CursorPage;
+import com.hamza.filmmanagement.dto.FilmDetail;
+import com.hamza.filmmanagement.entities.Director;
+import com.hamza.filmmanagement.entities.Film;
+import com.hamza.filmmanagement.repositories.ActorRepository;
+import com.hamza.filmmanagement.repositories.DirectorRepository;
+import com.hamza.filmmanagement.repositories.FilmRepository;
+import com.hamza.filmmanagement.services.EmailService;
+import com.hamza.filmmanagement.services.FileStorageService;
+import com.hamza.filmmanagement.services.FilmService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FilmServiceTest {
+
+    @Mock
+    private FilmRepository filmRepository;
+
+    @Mock
+    private ActorRepository actorRepository;
+
+    @Mock
+    private DirectorRepository directorRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private FilmService filmService;
+
+    private AutoCloseable closeable;
+
+    private final MockMultipartFile newPoster = new MockMultipartFile("poster", "new.png", "image/png", new byte[]{1, 2, 3});
+
+    @BeforeEach
+    void setup() {
+        closeable = MockitoAnnotations.openMocks(this);
+        Film film = new Film();
+        film.setId(1L);
+        film.setPoster("old.png");
+        when(filmRepository.findById(1L)).thenReturn(Optional.of(film));
+        when(directorRepository.findById(2L)).thenReturn(Optional.of(new Director()));
+    }
+
+    @Test
+    void updateFilm_shouldReleaseTheOldPosterOnlyAfterTheFilmIsSaved() throws Exception {
+        // given
+        when(fileStorageService.storeFile(newPoster)).thenReturn("new.png");
+
+        // when
+        filmService.updateFilm(1L, "Title", "Description", LocalDate.of(2001, 4, 25), List.of(), 2L, newPoster);
+
+        // then
+        InOrder inOrder = inOrder(fileStorageService, filmRepository);
+        inOrder.verify(fileStorageService).storeFile(newPoster);
+        inOrder.verify(filmRepository).save(any(Film.class));
+        inOrder.verify(fileStorageService).deleteFile("old.png");
+        verify(fileStorageService, never()).deleteFile("new.png");
+    }
+
+    @Test
+    void updateFilm_shouldReleaseTheNewPosterAndKeepTheOldOneWhenTheSaveFails() throws Exception {
+        // given
+        when(fileStorageService.storeFile(newPoster)).thenReturn("new.png");
+        when(filmRepository.save(any(Film.class))).thenThrow(new ObjectOptimisticLockingFailureException(Film.class, 1L));
+
+        // when / then
+        assertThatThrownBy(() -> filmService.updateFilm(1L, "Title", "Description", LocalDate.of(2001, 4, 25), List.of(), 2L, newPoster))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        verify(fileStorageService).deleteFile("new.png");
+        verify(fileStorageService, never()).deleteFile("old.png");
+    }
+
+    @Test
+    void deleteFilm_shouldDeleteTheFilmBeforeReleasingItsPoster() {
+        // when
+        filmService.deleteFilm(1L);
+
+        // then
+        InOrder inOrder = inOrder(filmRepository, fileStorageService);
+        inOrder.verify(filmRepository).deleteById(1L);
+        inOrder.verify(fileStorageService).deleteFile("old.png");
+    }
+
+    @Test
+    void getFilmsPage_shouldCompleteTheLastDatedPageWithUndatedFilmsAndContinueFromThem() {
+        // given : un seul film daté, puis les films sans date
+        when(filmRepository.findFirstPageByReleaseDate(any())).thenReturn(List.of(film(10L, LocalDate.of(2001, 1, 1))));
+        when(filmRepository.findPageWithoutReleaseDate(0L, PageRequest.ofSize(2))).thenReturn(List.of(film(3L, null), film(7L, null)));
+        when(filmRepository.findPageWithoutReleaseDate(3L, PageRequest.ofSize(3))).thenReturn(List.of(film(7L, null)));
+
+        // when
+        CursorPage<FilmDetail> first = filmService.getFilmsPage("releaseDate", null, 2);
+        CursorPage<FilmDetail> second = filmService.getFilmsPage("releaseDate", first.getNextCursor(), 2);
+
+        // then
+        assertThat(first.getItems()).extracting(FilmDetail::getId).containsExactly(10L, 3L);
+        assertThat(second.getItems()).extracting(FilmDetail::getId).containsExactly(7L);
+        assertThat(second.getNextCursor()).isNull();
+        verify(filmRepository, never()).findPageByReleaseDate(any(), any(), any());
+    }
+
+    private static Film film(Long id, LocalDate releaseDate) {
+        Film film = new Film();
+        film.setId(id);
+        film.setTitle("Film " + id);
+        film.setReleaseDate(releaseDate);
+        return film;
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        closeable.close();
+    }
+}
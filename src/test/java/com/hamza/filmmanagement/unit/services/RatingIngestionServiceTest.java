@@ -0,0 +1,99 @@
+package com.hamza.filmmanagement.unit.services;
+
+import com.hamza.filmmanagement.events.RatingAggregatesChangedEvent;
+import com.hamza.filmmanagement.exceptions.rating.RatingQueueFullException;
+import com.hamza.filmmanagement.repositories.RatingBatchRepository;
+import com.hamza.filmmanagement.repositories.RatingBatchRepository.ExistingRating;
+import com.hamza.filmmanagement.repositories.RatingBatchRepository.RatingWrite;
+import com.hamza.filmmanagement.services.RatingIngestionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RatingIngestionServiceTest {
+
+    private final RatingBatchRepository ratingBatchRepository = mock(RatingBatchRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private RatingIngestionService newService(int capacity) {
+        return new RatingIngestionService(ratingBatchRepository, mock(PlatformTransactionManager.class), eventPublisher,
+                new SimpleMeterRegistry(), capacity, 1000, 60_000, 1, 10);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shutdown_shouldFlushOnlyTheLatestVotePerUserAndFilm() throws InterruptedException {
+        when(ratingBatchRepository.findUserIdsByEmail(anyCollection())).thenReturn(Map.of("a@test.com", 1L));
+        when(ratingBatchRepository.findExistingFilmIds(anyCollection())).thenReturn(Set.of(10L));
+        when(ratingBatchRepository.findRatings(anyCollection(), anyCollection()))
+                .thenReturn(List.of(new ExistingRating(100L, 1L, 10L, 2)));
+
+        // Votes déposés avant le démarrage du thread d'écriture : ils partent dans le même lot
+        RatingIngestionService service = newService(100);
+        service.submit("a@test.com", 10L, 3);
+        service.submit("a@test.com", 10L, 5);
+        service.start();
+        service.shutdown();
+
+        ArgumentCaptor<List<RatingWrite>> writes = ArgumentCaptor.forClass(List.class);
+        verify(ratingBatchRepository).upsert(writes.capture());
+        assertThat(writes.getValue()).containsExactly(new RatingWrite(100L, 1L, 10L, 2, 5));
+
+        // 2 -> 5 : nombre inchangé, somme +3, une voix passe de la case 2 à la case 5
+        ArgumentCaptor<Map<Long, long[]>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(ratingBatchRepository).applyAggregateDeltas(deltas.capture());
+        assertThat(deltas.getValue().get(10L)).containsExactly(0, 3, 0, -1, 0, 0, 1);
+        verify(eventPublisher).publishEvent(any(RatingAggregatesChangedEvent.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shutdown_shouldKeepRetryingABatchUntilTheDatabaseIsBack() throws InterruptedException {
+        // Base injoignable pendant trois tentatives, puis de retour
+        when(ratingBatchRepository.findUserIdsByEmail(anyCollection()))
+                .thenThrow(new DataAccessResourceFailureException("Communications link failure"))
+                .thenThrow(new DataAccessResourceFailureException("Communications link failure"))
+                .thenThrow(new DataAccessResourceFailureException("Communications link failure"))
+                .thenReturn(Map.of("a@test.com", 1L));
+        when(ratingBatchRepository.findExistingFilmIds(anyCollection())).thenReturn(Set.of(10L));
+        when(ratingBatchRepository.findRatings(anyCollection(), anyCollection())).thenReturn(List.of());
+
+        RatingIngestionService service = newService(100);
+        service.submit("a@test.com", 10L, 4);
+        service.start();
+        service.shutdown();
+
+        verify(ratingBatchRepository, times(4)).findUserIdsByEmail(anyCollection());
+        ArgumentCaptor<List<RatingWrite>> writes = ArgumentCaptor.forClass(List.class);
+        verify(ratingBatchRepository).upsert(writes.capture());
+        assertThat(writes.getValue()).containsExactly(new RatingWrite(null, 1L, 10L, null, 4));
+        ArgumentCaptor<Map<Long, long[]>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(ratingBatchRepository).applyAggregateDeltas(deltas.capture());
+        assertThat(deltas.getValue().get(10L)).containsExactly(1, 4, 0, 0, 0, 1, 0);
+    }
+
+    @Test
+    void submit_shouldRejectVotesWhenQueueIsFull() {
+        RatingIngestionService service = newService(1);
+        service.submit("a@test.com", 10L, 3);
+
+        assertThatThrownBy(() -> service.submit("b@test.com", 10L, 4))
+                .isInstanceOf(RatingQueueFullException.class);
+    }
+}
@@ -0,0 +1,48 @@
+package com.hamza.filmmanagement.unit.snapshot;
+
+import com.hamza.filmmanagement.snapshot.EncodedBody;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EncodedBodyTest {
+
+    @Test
+    void of_shouldKeepIdentityBytesAndGzipTheSameContent() throws IOException {
+        byte[] json = "[{\"title\":\"Amélie\"},{\"title\":\"Amélie\"}]".getBytes(StandardCharsets.UTF_8);
+
+        EncodedBody body = EncodedBody.of(json);
+
+        assertThat(body.body(false)).isSameAs(json);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.body(true)))) {
+            assertThat(in.readAllBytes()).isEqualTo(json);
+        }
+        assertThat(body.etag(false)).startsWith("\"").endsWith("\"");
+        assertThat(body.etag(true)).isNotEqualTo(body.etag(false));
+        assertThat(EncodedBody.of(json.clone()).etag(false)).isEqualTo(body.etag(false));
+    }
+
+    @Test
+    void of_shouldUseTheGivenEtagForIdentityAndDeriveTheGzipOne() {
+        EncodedBody body = EncodedBody.of("[]".getBytes(StandardCharsets.UTF_8), "\"abc123\"");
+
+        assertThat(body.etag(false)).isEqualTo("\"abc123\"");
+        assertThat(body.etag(true)).isEqualTo("\"abc123-gzip\"");
+    }
+
+    @Test
+    void acceptsGzip_shouldHonourQualityZero() {
+        assertThat(EncodedBody.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(EncodedBody.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+        assertThat(EncodedBody.acceptsGzip("*")).isTrue();
+        assertThat(EncodedBody.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(EncodedBody.acceptsGzip("gzip;q=0.000, identity")).isFalse();
+        assertThat(EncodedBody.acceptsGzip("deflate")).isFalse();
+        assertThat(EncodedBody.acceptsGzip(null)).isFalse();
+    }
+}